@@ -13,6 +13,7 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 @OpenAPIDefinition(
@@ -43,6 +44,7 @@ import org.springframework.web.client.RestTemplate;
 )
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class ApprovalServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(ApprovalServiceApplication.class, args);
@@ -53,10 +55,4 @@ public class ApprovalServiceApplication {
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder.build();
     }
-
-    // Non-load-balanced RestTemplate for specific host calls (e.g., localhost)
-    @Bean
-    public RestTemplate localRestTemplate(RestTemplateBuilder builder) {
-        return builder.build();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "approval.approver-directory")
+public class ApproverDirectoryProperties {
+    private long maximumSize = 10_000; // (company, role) entries kept in memory
+    private Duration ttl = Duration.ofMinutes(30); // Upper bound on staleness when an invalidation from auth-service is lost
+    private List<String> approverRoles = List.of("MANAGER", "FINANCE", "ADMIN"); // Loaded together when a company is warmed up
+}
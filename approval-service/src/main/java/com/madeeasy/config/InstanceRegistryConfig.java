@@ -0,0 +1,32 @@
+package com.madeeasy.config;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class InstanceRegistryConfig {
+
+    // Probes of one refresh run side by side; only one refresh is in flight, so the queue holds at most one probe per instance
+    @Bean
+    public ThreadPoolTaskExecutor instanceProbeExecutor(InstanceRegistryProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getProbePoolSize());
+        executor.setMaxPoolSize(properties.getProbePoolSize());
+        executor.setThreadNamePrefix("instance-probe-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // A dead instance must fail its probe quickly instead of waiting for the default socket timeouts
+    @Bean
+    public RestTemplate healthProbeRestTemplate(RestTemplateBuilder builder, InstanceRegistryProperties properties) {
+        return builder
+                .connectTimeout(properties.getProbeTimeout())
+                .readTimeout(properties.getProbeTimeout())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "approval.instance-registry")
+public class InstanceRegistryProperties {
+    private String serviceId = "approval-service";
+    private int probePoolSize = 4;
+    private Duration probeTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,57 @@
+package com.madeeasy.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks approve/reject link clicks served by this instance ('approval.link.clicks') and how many
+ * are in flight. The peak since the last {@link #takePeakLoad()} is what this instance publishes as its load.
+ */
+@Component
+public class LinkClickInterceptor implements HandlerInterceptor {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final Counter approveClicks;
+    private final Counter rejectClicks;
+
+    public LinkClickInterceptor(MeterRegistry meterRegistry) {
+        this.approveClicks = clickCounter(meterRegistry, "approve");
+        this.rejectClicks = clickCounter(meterRegistry, "reject");
+        Gauge.builder("approval.link.clicks.in-flight", inFlight, AtomicInteger::get)
+                .description("Approve/reject link clicks being processed by this instance")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        (request.getRequestURI().endsWith("/reject") ? rejectClicks : approveClicks).increment();
+        int current = inFlight.incrementAndGet();
+        peak.accumulateAndGet(current, Math::max);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        inFlight.decrementAndGet();
+    }
+
+    // Peak in-flight clicks since the previous call; starts the next window at the current in-flight count
+    public int takePeakLoad() {
+        return peak.getAndSet(inFlight.get());
+    }
+
+    private static Counter clickCounter(MeterRegistry meterRegistry, String action) {
+        return Counter.builder("approval.link.clicks")
+                .description("Approve/reject link clicks served by this instance")
+                .tag("action", action)
+                .register(meterRegistry);
+    }
+}
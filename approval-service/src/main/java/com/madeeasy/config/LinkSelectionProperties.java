@@ -0,0 +1,13 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "approval.link-selection")
+public class LinkSelectionProperties {
+    private LinkSelectionStrategy strategy = LinkSelectionStrategy.CONSISTENT_HASH;
+    // Ring points per unit of instance weight
+    private int virtualNodes = 100;}
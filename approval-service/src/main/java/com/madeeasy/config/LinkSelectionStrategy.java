@@ -0,0 +1,7 @@
+package com.madeeasy.config;
+
+public enum LinkSelectionStrategy {
+    CONSISTENT_HASH,
+    POWER_OF_TWO_CHOICES,
+    WEIGHTED_ROUND_ROBIN
+}
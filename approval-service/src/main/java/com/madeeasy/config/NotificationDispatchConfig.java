@@ -0,0 +1,25 @@
+package com.madeeasy.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class NotificationDispatchConfig {
+
+    // Sends the batches claimed by the dispatch relay; when the queue is full the relay sends the batch itself
+    @Bean
+    public ThreadPoolTaskExecutor notificationDispatchExecutor(NotificationDispatchProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkerPoolSize());
+        executor.setMaxPoolSize(properties.getWorkerPoolSize());
+        executor.setQueueCapacity(properties.getWorkerQueueCapacity());
+        executor.setThreadNamePrefix("notification-dispatch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
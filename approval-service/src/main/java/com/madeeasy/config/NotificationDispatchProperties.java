@@ -0,0 +1,22 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "approval.notification-dispatch")
+public class NotificationDispatchProperties {
+    private int claimSize = 200; // Notifications claimed per relay run
+    private int batchSize = 20; // Notifications per notification-service call
+    private int workerPoolSize = 4;
+    private int workerQueueCapacity = 100;
+    private Duration claimTimeout = Duration.ofMinutes(5); // A claimed notification is picked up again when its worker has not reported back by then
+    private int maxAttempts = 8;
+    private Duration initialBackoff = Duration.ofSeconds(5);
+    private Duration maxBackoff = Duration.ofMinutes(15);
+    private double jitter = 0.2; // Backoff is spread by +/- this share so failed batches do not retry in lockstep
+}
@@ -0,0 +1,18 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "approval.status-events")
+public class StatusEventProperties {
+    private int batchSize = 500;
+    private Duration claimTimeout = Duration.ofMinutes(2); // A claimed event is picked up again when its relay run has not reported back by then
+    private int maxAttempts = 10;
+    private Duration initialBackoff = Duration.ofSeconds(2);
+    private Duration maxBackoff = Duration.ofMinutes(5);
+}
@@ -0,0 +1,71 @@
+package com.madeeasy.controller;
+
+import com.madeeasy.dto.request.ApprovalChainRequestDTO;
+import com.madeeasy.dto.response.ApprovalChainResponse;
+import com.madeeasy.service.ApprovalChainService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/approval-service/chains")
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(
+        name = "Approval Chains",
+        description = "API for defining the approval chain a company's expenses go through."
+)
+public class ApprovalChainController {
+
+    private final ApprovalChainService approvalChainService;
+
+    @Operation(
+            summary = "Get a Company's Approval Chain",
+            description = "Returns the steps of the company's approval chain, or the default MANAGER -> FINANCE -> ADMIN chain when it has not defined one."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Approval chain retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Not the caller's company", content = @Content)
+    })
+    @GetMapping(path = "/{companyDomain}")
+    public ResponseEntity<ApprovalChainResponse> getChain(@PathVariable String companyDomain) {
+        return ResponseEntity.ok(approvalChainService.getChain(companyDomain));
+    }
+
+    @Operation(
+            summary = "Replace a Company's Approval Chain",
+            description = "Steps run in the given order. All roles of a step are notified in parallel; with approvalMode ANY the first approval completes the step, with ALL every approver has to approve. " +
+                    "A step with a minAmount only applies to expenses of at least that amount, at least one step must apply to every amount. Roles must be among the configured approver roles. Expenses already in review keep their chain."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Approval chain replaced successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid chain definition or unknown approver role", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Not the caller's company", content = @Content)
+    })
+    @PutMapping(path = "/{companyDomain}")
+    public ResponseEntity<ApprovalChainResponse> replaceChain(@PathVariable String companyDomain,
+                                                              @Valid @RequestBody ApprovalChainRequestDTO approvalChainRequestDTO) {
+        return ResponseEntity.ok(approvalChainService.replaceChain(companyDomain, approvalChainRequestDTO));
+    }
+
+    @Operation(
+            summary = "Reset a Company's Approval Chain",
+            description = "Removes the company's own chain, its expenses go through the default MANAGER -> FINANCE -> ADMIN chain again."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Approval chain reset successfully"),
+            @ApiResponse(responseCode = "403", description = "Not the caller's company", content = @Content)
+    })
+    @DeleteMapping(path = "/{companyDomain}")
+    public ResponseEntity<Void> resetChain(@PathVariable String companyDomain) {
+        approvalChainService.resetChain(companyDomain);
+        return ResponseEntity.noContent().build();
+    }
+}
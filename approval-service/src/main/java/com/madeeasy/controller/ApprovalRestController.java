@@ -10,13 +10,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/approval-service")
@@ -45,6 +49,32 @@ public class ApprovalRestController {
         return ResponseEntity.ok("Approval request sent successfully.");
     }
 
+    @Operation(
+            summary = "Request Approval for a Batch of Expenses",
+            description = "Called by expense-service with the internal service credential in the X-Internal-Service-Token header. Starts the approval workflow for each expense of the batch. Expenses that already have an approval request are skipped, so a batch can be safely re-sent. Returns the ids of the expenses that failed and should be retried."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, failed expense ids returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid internal service credential", content = @Content)
+    })
+    @PostMapping(path = "/ask-for-approve-batch")
+    public ResponseEntity<?> askForApprovalBatch(
+            @RequestBody List<ExpenseRequestDTO> expenseRequestDTOs) {
+        List<Long> failedExpenseIds = new ArrayList<>();
+        for (ExpenseRequestDTO expenseRequestDTO : expenseRequestDTOs) {
+            try {
+                if (!approvalService.hasApprovalRequest(expenseRequestDTO.getExpenseId())) {
+                    approvalService.askForApproval(expenseRequestDTO);
+                }
+            } catch (Exception e) {
+                log.error("Approval request failed for expense {}: {}", expenseRequestDTO.getExpenseId(), e.getMessage());
+                failedExpenseIds.add(expenseRequestDTO.getExpenseId());
+            }
+        }
+        return ResponseEntity.ok(Map.of("failedExpenseIds", failedExpenseIds));
+    }
+
     @Operation(
             summary = "Retrieve Approvals for a Company",
             description = "Fetches a list of approval requests for the specified company, filtered by the provided year and month ranges."
@@ -20,7 +20,7 @@ public class ApprovalUIController {
     @GetMapping(path = "/approve")
     public String approveExpense(@RequestParam Long expenseId, @RequestParam String title, @RequestParam String description,
                                  @RequestParam BigDecimal amount, @RequestParam String category, @RequestParam String expenseDate,
-                                 @RequestParam String accessToken, @RequestParam String emailId, @RequestParam String role, Model model) {
+                                 @RequestParam String emailId, @RequestParam String role, Model model) {
         try {
             String[] email = emailId.split(",");
             if (approvalService.hasAlreadyResponded(expenseId, email[0])) {
@@ -29,7 +29,7 @@ public class ApprovalUIController {
                 model.addAttribute("amount", amount);
                 return "approvalResult";
             }
-            approvalService.approveExpenseFromEmail(expenseId, title, description, amount, category, expenseDate, accessToken, email[0], role);
+            approvalService.approveExpenseFromEmail(expenseId, title, description, amount, category, expenseDate, email[0], role);
 
             // ✅ Pass attributes to Thymeleaf template for Approval UI
             model.addAttribute("action", "approved");
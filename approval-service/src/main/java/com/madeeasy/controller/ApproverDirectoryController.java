@@ -0,0 +1,57 @@
+package com.madeeasy.controller;
+
+import com.madeeasy.dto.request.ApproverChangeDTO;
+import com.madeeasy.service.ApproverDirectoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/approval-service/approver-directory")
+@Tag(
+        name = "Approver Directory",
+        description = "API for managing the in-memory cache of approvers per company and role."
+)
+public class ApproverDirectoryController {
+
+    private final ApproverDirectoryService approverDirectoryService;
+
+    @Operation(
+            summary = "Warm Up a Company's Approvers",
+            description = "Loads the approvers of every approver role of the company with a single auth-service call, so its next approval steps are served from memory."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Approvers loaded"),
+            @ApiResponse(responseCode = "503", description = "auth-service is unavailable", content = @Content)
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @PostMapping(path = "/{companyDomain}/warm-up")
+    public ResponseEntity<Void> warmUp(@PathVariable String companyDomain) {
+        approverDirectoryService.warmUp(companyDomain);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+            summary = "Invalidate Cached Approvers",
+            description = "Called by auth-service on every approval-service instance after users or roles change, with the internal service credential in the X-Internal-Service-Token header. Only drops cache entries; they are reloaded on the next lookup."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Entries invalidated"),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid internal service credential")
+    })
+    @PostMapping(path = "/invalidate")
+    public ResponseEntity<Void> invalidate(@Valid @RequestBody List<@Valid ApproverChangeDTO> changes) {
+        changes.forEach(change -> approverDirectoryService.invalidate(change.getCompanyDomain(), change.getRole()));
+        return ResponseEntity.noContent().build();
+    }
+}
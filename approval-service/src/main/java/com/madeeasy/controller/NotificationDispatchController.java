@@ -0,0 +1,59 @@
+package com.madeeasy.controller;
+
+import com.madeeasy.dto.response.NotificationDeadLetterResponse;
+import com.madeeasy.service.NotificationDispatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/approval-service/notifications")
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(
+        name = "Notification Dispatch",
+        description = "API for inspecting and requeueing approval emails that notification-service could not send."
+)
+public class NotificationDispatchController {
+
+    private final NotificationDispatchService notificationDispatchService;
+
+    @Operation(
+            summary = "Get Dead Letters",
+            description = "Returns the most recent approval emails that failed after every attempt, with the last error."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Dead letters retrieved successfully")
+    })
+    @GetMapping(path = "/dead-letters")
+    public ResponseEntity<List<NotificationDeadLetterResponse>> getDeadLetters(
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+        return ResponseEntity.ok(notificationDispatchService.getDeadLetters(limit));
+    }
+
+    @Operation(
+            summary = "Requeue a Dead Letter",
+            description = "Puts a dead letter back in the dispatch queue with a fresh set of attempts."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Dead letter requeued"),
+            @ApiResponse(responseCode = "404", description = "Dead letter not found", content = @Content)
+    })
+    @PostMapping(path = "/dead-letters/{id}/requeue")
+    public ResponseEntity<Void> requeue(@PathVariable Long id) {
+        notificationDispatchService.requeue(id);
+        return ResponseEntity.noContent().build();
+    }
+}
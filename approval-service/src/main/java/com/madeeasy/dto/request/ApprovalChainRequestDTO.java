@@ -0,0 +1,15 @@
+package com.madeeasy.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ApprovalChainRequestDTO {
+
+    @Valid
+    @NotEmpty(message = "At least one step is required")
+    private List<ApprovalChainStepRequestDTO> steps; // In approval order
+}
@@ -0,0 +1,22 @@
+package com.madeeasy.dto.request;
+
+import com.madeeasy.entity.ApprovalMode;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class ApprovalChainStepRequestDTO {
+
+    @NotEmpty(message = "At least one approver role is required")
+    private List<@NotBlank(message = "Approver role cannot be blank") String> approverRoles;
+
+    private ApprovalMode approvalMode; // Defaults to ANY
+
+    @DecimalMin(value = "0.00", message = "Minimum amount cannot be negative")
+    private BigDecimal minAmount; // Step applies from this amount on, empty = always
+}
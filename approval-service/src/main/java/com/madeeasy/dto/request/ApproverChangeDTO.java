@@ -0,0 +1,14 @@
+package com.madeeasy.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+// A user/role change reported by auth-service
+@Data
+public class ApproverChangeDTO {
+
+    @NotBlank(message = "Company domain is required")
+    private String companyDomain;
+
+    private String role; // Empty = every role of the company
+}
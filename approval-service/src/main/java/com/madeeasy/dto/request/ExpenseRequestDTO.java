@@ -15,6 +15,8 @@ public class ExpenseRequestDTO {
     @NotNull(message = "Expense ID is required")
     private Long expenseId;
 
+    private String submittedBy; // Email of the employee who submitted the expense, set by expense-service
+
     @NotNull(message = "Company domain is required")
     private String companyDomain;
 
@@ -34,4 +36,6 @@ public class ExpenseRequestDTO {
     @NotNull(message = "Expense date is required")
     @PastOrPresent(message = "Expense date cannot be in the future")
     private LocalDateTime expenseDate; // Employee-provided date
+
+    private Boolean overBudget; // Over the company's category budget, never auto-approved
 }
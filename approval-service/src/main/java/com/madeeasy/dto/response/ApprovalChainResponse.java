@@ -0,0 +1,18 @@
+package com.madeeasy.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApprovalChainResponse {
+    private String companyDomain;
+    private boolean defaultChain; // True when the company has not defined its own chain
+    private List<ApprovalChainStepResponse> steps;
+}
@@ -0,0 +1,21 @@
+package com.madeeasy.dto.response;
+
+import com.madeeasy.entity.ApprovalMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApprovalChainStepResponse {
+    private int stepOrder;
+    private List<String> approverRoles;
+    private ApprovalMode approvalMode;
+    private BigDecimal minAmount;
+}
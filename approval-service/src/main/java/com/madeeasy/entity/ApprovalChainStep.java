@@ -0,0 +1,52 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// A step of a company's approval chain, steps run one after another in stepOrder
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_approval_chain_step_company_order", columnList = "company_domain, step_order"))
+public class ApprovalChainStep {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "approval_chain_step_sequence_generator")
+    @SequenceGenerator(
+            name = "approval_chain_step_sequence_generator",
+            sequenceName = "approval_chain_step_sequence",
+            allocationSize = 1
+    )
+    private Long id;
+
+    @Column(nullable = false)
+    private String companyDomain;
+
+    @Column(nullable = false)
+    private int stepOrder;
+
+    // Roles notified in parallel, e.g. FINANCE and ADMIN
+    @Builder.Default
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "approval_chain_step_role", joinColumns = @JoinColumn(name = "step_id"))
+    @Column(name = "role", nullable = false)
+    private List<String> approverRoles = new ArrayList<>();
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ApprovalMode approvalMode = ApprovalMode.ANY;
+
+    // The step only applies to expenses of at least this amount, null = always
+    @Column(precision = 19, scale = 2)
+    private BigDecimal minAmount;
+}
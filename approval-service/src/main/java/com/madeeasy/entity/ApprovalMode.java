@@ -0,0 +1,7 @@
+package com.madeeasy.entity;
+
+// How many of the approvers notified for a chain step have to approve
+public enum ApprovalMode {
+    ANY, // The first approval completes the step
+    ALL  // Every notified approver has to approve
+}
@@ -3,5 +3,6 @@ package com.madeeasy.entity;
 public enum ApprovalStatus {
     PENDING,
     APPROVED,
-    REJECTED
+    REJECTED,
+    CANCELLED // Another approver of the same step decided first
 }
@@ -0,0 +1,80 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * State machine of one expense going through its approval chain.
+ * <p>
+ * Every decision moves the workflow with a single version-checked update of this row, so two approvers
+ * deciding at the same time cannot both advance the same step.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApprovalWorkflow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "approval_workflow_sequence_generator")
+    @SequenceGenerator(
+            name = "approval_workflow_sequence_generator",
+            sequenceName = "approval_workflow_sequence",
+            allocationSize = 1
+    )
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long expenseId;
+
+    @Column(nullable = false)
+    private String companyDomain;
+
+    @Convert(converter = WorkflowStepListConverter.class)
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private List<WorkflowStep> steps;
+
+    @Column(nullable = false)
+    private int currentStep; // 0-based index into steps
+
+    @Column(nullable = false)
+    private int notifiedApprovers; // Approvers notified for the current step
+
+    @Column(nullable = false)
+    private int requiredApprovals; // Approvals the current step needs, set once its approvers are notified
+
+    @Column(nullable = false)
+    private int receivedApprovals;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WorkflowStatus status;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public WorkflowStep currentStepDefinition() {
+        return steps.get(currentStep);
+    }
+
+    public boolean isLastStep() {
+        return currentStep == steps.size() - 1;
+    }
+
+    // Approval level reported to expense-service for the current step
+    public int approvalLevel() {
+        return currentStep + 1;
+    }
+}
@@ -0,0 +1,8 @@
+package com.madeeasy.entity;
+
+// Mirror of the expense-service status the approval chain moves an expense to
+public enum ExpenseStatus {
+    IN_REVIEW,
+    APPROVED,
+    REJECTED
+}
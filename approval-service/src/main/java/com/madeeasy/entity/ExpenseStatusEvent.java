@@ -0,0 +1,60 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Approval state transition of an expense, written in the same transaction as the approval and relayed to expense-service in the background
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_expense_status_event_status_next_attempt", columnList = "status, next_attempt_at"))
+public class ExpenseStatusEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_status_event_sequence_generator")
+    @SequenceGenerator(
+            name = "expense_status_event_sequence_generator",
+            sequenceName = "expense_status_event_sequence",
+            allocationSize = 1 // The id is the event sequence expense-service orders by, it must follow the commit order
+    )
+    private Long id;
+
+    @Column(nullable = false)
+    private Long expenseId;
+
+    @Column(nullable = false)
+    private String companyDomain;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExpenseStatus expenseStatus;
+
+    @Column(nullable = false)
+    private int approvalLevel; // 0 = auto-approved, n = step n of the approval chain
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    @Column
+    private LocalDateTime sentAt;
+}
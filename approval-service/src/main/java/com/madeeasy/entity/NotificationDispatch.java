@@ -0,0 +1,68 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Approval email queued in the same transaction as its approval request and sent to notification-service in the background
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_notification_dispatch_status_next_attempt", columnList = "status, next_attempt_at"))
+public class NotificationDispatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_dispatch_sequence_generator")
+    @SequenceGenerator(
+            name = "notification_dispatch_sequence_generator",
+            sequenceName = "notification_dispatch_sequence",
+            allocationSize = 50
+    )
+    private Long id;
+
+    @Column(nullable = false)
+    private Long expenseId;
+
+    @Column(nullable = false)
+    private String approverEmail;
+
+    @Column(nullable = false)
+    private String approverRole;
+
+    @Column(nullable = false, length = 8192)
+    private String expenseDetails;
+
+    @Column(nullable = false, length = 8192)
+    private String approveLink;
+
+    @Column(nullable = false, length = 8192)
+    private String rejectLink;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status; // FAILED = dead letter, only sent again when requeued
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime lastAttemptAt;
+
+    @Column
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,7 @@
+package com.madeeasy.entity;
+
+public enum WorkflowStatus {
+    IN_PROGRESS,
+    APPROVED,
+    REJECTED
+}
@@ -0,0 +1,13 @@
+package com.madeeasy.entity;
+
+import java.util.List;
+
+/**
+ * One step of a started approval workflow, copied from the company's chain so later chain changes
+ * do not affect expenses already in review.
+ *
+ * @param roles approver roles notified in parallel for this step
+ * @param mode  whether one or all notified approvers have to approve
+ */
+public record WorkflowStep(List<String> roles, ApprovalMode mode) {
+}
@@ -0,0 +1,36 @@
+package com.madeeasy.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.List;
+
+// Stores the steps of a workflow as JSON, so the whole workflow is read and written as a single row
+@Converter
+public class WorkflowStepListConverter implements AttributeConverter<List<WorkflowStep>, String> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<WorkflowStep>> STEPS_TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(List<WorkflowStep> steps) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(steps);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize workflow steps", e);
+        }
+    }
+
+    @Override
+    public List<WorkflowStep> convertToEntityAttribute(String json) {
+        try {
+            return OBJECT_MAPPER.readValue(json, STEPS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not deserialize workflow steps", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.ApprovalChainStep;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ApprovalChainStepRepository extends JpaRepository<ApprovalChainStep, Long> {
+
+    @Query("SELECT DISTINCT s FROM ApprovalChainStep s LEFT JOIN FETCH s.approverRoles " +
+            "WHERE s.companyDomain = :companyDomain ORDER BY s.stepOrder")
+    List<ApprovalChainStep> findChain(@Param("companyDomain") String companyDomain);
+
+    @Modifying
+    @Query("DELETE FROM ApprovalChainStep s WHERE s.companyDomain = :companyDomain")
+    void deleteChain(@Param("companyDomain") String companyDomain);
+}
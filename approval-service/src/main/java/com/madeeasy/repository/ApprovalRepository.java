@@ -3,9 +3,11 @@ package com.madeeasy.repository;
 import com.madeeasy.entity.Approval;
 import com.madeeasy.entity.ApprovalStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +16,8 @@ public interface ApprovalRepository extends JpaRepository<Approval, Long> {
 
     List<Approval> findByExpenseId(Long expenseId);
 
+    boolean existsByExpenseId(Long expenseId);
+
     List<Approval> findByExpenseIdAndStatus(Long expenseId, ApprovalStatus status);
 
     // Custom query to find approval by expenseId, approvedBy email, and status 'PENDING'
@@ -21,6 +25,14 @@ public interface ApprovalRepository extends JpaRepository<Approval, Long> {
 
     Optional<Approval> findByExpenseIdAndApproverRoleAndStatus(Long expenseId, String role, ApprovalStatus approvalStatus);
 
+    Optional<Approval> findByExpenseIdAndApprovedByAndApproverRoleAndStatus(Long expenseId, String approvedBy, String approverRole, ApprovalStatus status);
+
+    // Closes the requests of the other approvers once a step is decided
+    @Modifying
+    @Query("UPDATE Approval a SET a.status = com.madeeasy.entity.ApprovalStatus.CANCELLED, a.approvalCompletionDate = :now " +
+            "WHERE a.expenseId = :expenseId AND a.status = com.madeeasy.entity.ApprovalStatus.PENDING")
+    int cancelPending(@Param("expenseId") Long expenseId, @Param("now") LocalDateTime now);
+
     boolean existsByExpenseIdAndApprovedByAndStatusIn(Long expenseId, String approvedBy, Collection<ApprovalStatus> approved);
 
     @Query("SELECT a FROM Approval a WHERE a.companyDomain = :companyDomain " +
@@ -0,0 +1,11 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.ApprovalWorkflow;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ApprovalWorkflowRepository extends JpaRepository<ApprovalWorkflow, Long> {
+
+    Optional<ApprovalWorkflow> findByExpenseId(Long expenseId);
+}
@@ -0,0 +1,26 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.ExpenseStatusEvent;
+import com.madeeasy.entity.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ExpenseStatusEventRepository extends JpaRepository<ExpenseStatusEvent, Long> {
+
+    // Claims due events, events locked by another relay instance are skipped (lock timeout -2 = SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM ExpenseStatusEvent e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<ExpenseStatusEvent> findDueForUpdate(@Param("status") OutboxStatus status,
+                                              @Param("now") LocalDateTime now,
+                                              Limit limit);
+}
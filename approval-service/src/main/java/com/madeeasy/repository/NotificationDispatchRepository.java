@@ -0,0 +1,28 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.NotificationDispatch;
+import com.madeeasy.entity.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationDispatchRepository extends JpaRepository<NotificationDispatch, Long> {
+
+    // Claims due notifications, notifications locked by another relay instance are skipped (lock timeout -2 = SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM NotificationDispatch n WHERE n.status = :status AND n.nextAttemptAt <= :now ORDER BY n.id")
+    List<NotificationDispatch> findDueForUpdate(@Param("status") OutboxStatus status,
+                                                @Param("now") LocalDateTime now,
+                                                Limit limit);
+
+    List<NotificationDispatch> findByStatusOrderByIdDesc(OutboxStatus status, Limit limit);
+}
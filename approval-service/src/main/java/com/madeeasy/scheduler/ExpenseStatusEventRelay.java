@@ -0,0 +1,140 @@
+package com.madeeasy.scheduler;
+
+import com.madeeasy.config.StatusEventProperties;
+import com.madeeasy.entity.ExpenseStatusEvent;
+import com.madeeasy.entity.OutboxStatus;
+import com.madeeasy.repository.ExpenseStatusEventRepository;
+import com.madeeasy.security.config.InternalServiceProperties;
+import com.madeeasy.vo.ExpenseStatusEventDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Relays pending {@link ExpenseStatusEvent}s to expense-service in batches.
+ * <p>
+ * A relay run claims the due events by pushing their next attempt past the claim timeout and commits, then sends
+ * them without holding a connection or row locks and records the outcome in a second short transaction.
+ * Batches are sent with the internal service credential, never with an end user's access token.
+ * expense-service ignores events it has already applied, so a batch that failed half-way is simply sent again.
+ * Failed events are retried with exponential backoff and marked FAILED after the configured attempts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExpenseStatusEventRelay {
+
+    private static final String STATUS_EVENTS_URL = "http://expense-service/expense-service/status-events";
+
+    private final ExpenseStatusEventRepository expenseStatusEventRepository;
+    private final RestTemplate restTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatusEventProperties statusEventProperties;
+    private final InternalServiceProperties internalServiceProperties;
+
+    @Scheduled(fixedDelayString = "${approval.status-events.relay-interval:1000}")
+    public void relayPendingEvents() {
+        List<ExpenseStatusEvent> claimed = transactionTemplate.execute(status -> claimDue());
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        String error = sendBatch(claimed);
+        try {
+            transactionTemplate.executeWithoutResult(status -> recordOutcome(claimed, error));
+        } catch (Exception e) {
+            log.error("Failed to record the outcome of {} expense status events, they are sent again after the claim timeout: {}", claimed.size(), e.getMessage());
+        }
+    }
+
+    private List<ExpenseStatusEvent> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ExpenseStatusEvent> due = expenseStatusEventRepository.findDueForUpdate(
+                OutboxStatus.PENDING, now, Limit.of(statusEventProperties.getBatchSize()));
+        LocalDateTime claimedUntil = now.plus(statusEventProperties.getClaimTimeout());
+        due.forEach(event -> event.setNextAttemptAt(claimedUntil));
+        return due;
+    }
+
+    // Returns the error of a failed batch, null when expense-service accepted it
+    private String sendBatch(List<ExpenseStatusEvent> batch) {
+        // Whatever fails here, the events stay in the outbox and are retried later
+        try {
+            List<ExpenseStatusEventDTO> events = new ArrayList<>(batch.size());
+            for (ExpenseStatusEvent event : batch) {
+                events.add(ExpenseStatusEventDTO.builder()
+                        .sequence(event.getId())
+                        .expenseId(event.getExpenseId())
+                        .status(event.getExpenseStatus())
+                        .approvalLevel(event.getApprovalLevel())
+                        .occurredAt(event.getOccurredAt())
+                        .build());
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set(InternalServiceProperties.HEADER, internalServiceProperties.getToken());
+
+            restTemplate.exchange(STATUS_EVENTS_URL, HttpMethod.POST,
+                    new HttpEntity<>(Map.of("events", events), headers), Void.class);
+            return null;
+        } catch (Exception e) {
+            log.error("Failed to relay expense status events: {}", e.getMessage());
+            return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+    }
+
+    private void recordOutcome(List<ExpenseStatusEvent> batch, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = batch.stream().map(ExpenseStatusEvent::getId).toList();
+        for (ExpenseStatusEvent event : expenseStatusEventRepository.findAllById(ids)) {
+            if (event.getStatus() != OutboxStatus.PENDING) {
+                continue;
+            }
+            if (error != null) {
+                markForRetry(event, error, now);
+            } else {
+                event.setStatus(OutboxStatus.SENT);
+                event.setSentAt(now);
+                event.setLastError(null);
+            }
+        }
+        if (error == null) {
+            log.info("Relayed {} expense status events", batch.size());
+        }
+    }
+
+    private void markForRetry(ExpenseStatusEvent event, String error, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+
+        if (attempts >= statusEventProperties.getMaxAttempts()) {
+            event.setStatus(OutboxStatus.FAILED);
+            log.error("Status event {} of expense {} failed after {} attempts", event.getId(), event.getExpenseId(), attempts);
+            return;
+        }
+        event.setNextAttemptAt(now.plus(backoff(attempts)));
+    }
+
+    // initialBackoff * 2^(attempts - 1), capped at maxBackoff
+    private Duration backoff(int attempts) {
+        Duration maxBackoff = statusEventProperties.getMaxBackoff();
+        Duration backoff = statusEventProperties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
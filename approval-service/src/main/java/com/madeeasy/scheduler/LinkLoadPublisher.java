@@ -0,0 +1,42 @@
+package com.madeeasy.scheduler;
+
+import com.madeeasy.config.LinkClickInterceptor;
+import com.madeeasy.vo.ApprovalInstance;
+import com.netflix.appinfo.ApplicationInfoManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Publishes this instance's link load as Eureka metadata, where the power-of-two-choices
+ * link selection of every approval-service instance reads it.
+ * <p>
+ * Eureka replicates metadata changes with the next instance info update, so peers see the value
+ * with the usual registry delay. Nothing is sent while the value stays the same.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LinkLoadPublisher {
+
+    private final LinkClickInterceptor linkClickInterceptor;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+    private int publishedLoad = -1;
+
+    @Scheduled(fixedDelayString = "${approval.link-selection.load-publish-interval:10000}")
+    public void publishLoad() {
+        ApplicationInfoManager manager = applicationInfoManager.getIfAvailable();
+        int load = linkClickInterceptor.takePeakLoad();
+        if (manager == null || load == publishedLoad) {
+            return;
+        }
+        manager.registerAppMetadata(Map.of(ApprovalInstance.LOAD_METADATA, String.valueOf(load)));
+        publishedLoad = load;
+        log.debug("Published link load {}", load);
+    }
+}
@@ -0,0 +1,173 @@
+package com.madeeasy.scheduler;
+
+import com.madeeasy.config.NotificationDispatchProperties;
+import com.madeeasy.entity.NotificationDispatch;
+import com.madeeasy.entity.OutboxStatus;
+import com.madeeasy.repository.NotificationDispatchRepository;
+import com.madeeasy.security.config.InternalServiceProperties;
+import com.madeeasy.vo.NotificationFailure;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sends queued {@link NotificationDispatch}es to notification-service in batches on a worker pool.
+ * <p>
+ * A relay run claims the due notifications by pushing their next attempt past the claim timeout and commits,
+ * so the workers send them without holding locks and a crashed instance's claims are picked up again later.
+ * Batches are sent with the internal service credential, never with an end user's access token.
+ * Failed notifications are retried with exponential backoff and jitter and become dead letters after the configured attempts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatchRelay {
+
+    private static final String NOTIFICATION_BATCH_URL = "http://notification-service/notification-service/batch";
+
+    private final NotificationDispatchRepository notificationDispatchRepository;
+    private final RestTemplate restTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor notificationDispatchExecutor;
+    private final NotificationDispatchProperties notificationDispatchProperties;
+    private final MeterRegistry meterRegistry;
+    private final InternalServiceProperties internalServiceProperties;
+
+    @Scheduled(fixedDelayString = "${approval.notification-dispatch.relay-interval:1000}")
+    public void dispatchPendingNotifications() {
+        List<NotificationDispatch> claimed = transactionTemplate.execute(status -> claimDue());
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        int batchSize = notificationDispatchProperties.getBatchSize();
+        for (int from = 0; from < claimed.size(); from += batchSize) {
+            List<NotificationDispatch> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+            notificationDispatchExecutor.execute(() -> sendBatch(batch));
+        }
+    }
+
+    private List<NotificationDispatch> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationDispatch> due = notificationDispatchRepository.findDueForUpdate(
+                OutboxStatus.PENDING, now, Limit.of(notificationDispatchProperties.getClaimSize()));
+        LocalDateTime claimedUntil = now.plus(notificationDispatchProperties.getClaimTimeout());
+        due.forEach(notification -> notification.setNextAttemptAt(claimedUntil));
+        return due;
+    }
+
+    private void sendBatch(List<NotificationDispatch> batch) {
+        Map<Long, String> failures = new HashMap<>();
+        try {
+            List<Map<String, Object>> requests = new ArrayList<>(batch.size());
+            for (NotificationDispatch notification : batch) {
+                Map<String, Object> request = new HashMap<>();
+                request.put("expenseDetails", notification.getExpenseDetails());
+                request.put("approveLink", notification.getApproveLink());
+                request.put("rejectLink", notification.getRejectLink());
+                requests.add(request);
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set(InternalServiceProperties.HEADER, internalServiceProperties.getToken());
+
+            List<NotificationFailure> failed = restTemplate.exchange(NOTIFICATION_BATCH_URL, HttpMethod.POST,
+                    new HttpEntity<>(requests, headers), new ParameterizedTypeReference<List<NotificationFailure>>() {
+                    }).getBody();
+            if (failed != null) {
+                for (NotificationFailure failure : failed) {
+                    // The index comes from notification-service, one that matches no notification of the batch is ignored
+                    if (failure.getIndex() < 0 || failure.getIndex() >= batch.size()) {
+                        log.warn("Ignoring a failure reported for index {} of a batch of {} notifications", failure.getIndex(), batch.size());
+                        continue;
+                    }
+                    if (failures.putIfAbsent(batch.get(failure.getIndex()).getId(), failure.getError()) != null) {
+                        log.warn("Ignoring a second failure reported for index {} of the batch", failure.getIndex());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // Whatever fails here, the notifications stay in the queue and are retried later
+            log.error("Failed to send {} notifications: {}", batch.size(), e.getMessage());
+            batch.forEach(notification -> failures.put(notification.getId(), e.getMessage()));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> recordOutcome(batch, failures));
+        } catch (Exception e) {
+            log.error("Failed to record the outcome of {} notifications, they are sent again after the claim timeout: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void recordOutcome(List<NotificationDispatch> batch, Map<Long, String> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = batch.stream().map(NotificationDispatch::getId).toList();
+        for (NotificationDispatch notification : notificationDispatchRepository.findAllById(ids)) {
+            if (notification.getStatus() != OutboxStatus.PENDING) {
+                continue;
+            }
+            notification.setLastAttemptAt(now);
+            if (failures.containsKey(notification.getId())) {
+                markForRetry(notification, failures.get(notification.getId()), now);
+            } else {
+                notification.setStatus(OutboxStatus.SENT);
+                notification.setSentAt(now);
+                notification.setLastError(null);
+                countOutcome("sent");
+            }
+        }
+        log.info("Sent {} of {} notifications", batch.size() - failures.size(), batch.size());
+    }
+
+    private void markForRetry(NotificationDispatch notification, String error, LocalDateTime now) {
+        int attempts = notification.getAttempts() + 1;
+        notification.setAttempts(attempts);
+        notification.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+
+        if (attempts >= notificationDispatchProperties.getMaxAttempts()) {
+            notification.setStatus(OutboxStatus.FAILED);
+            countOutcome("dead-letter");
+            log.error("Notification {} of expense {} to {} failed after {} attempts", notification.getId(),
+                    notification.getExpenseId(), notification.getApproverEmail(), attempts);
+            return;
+        }
+        notification.setNextAttemptAt(now.plus(backoff(attempts)));
+        countOutcome("retry");
+    }
+
+    // initialBackoff * 2^(attempts - 1), capped at maxBackoff, then spread by +/- jitter
+    private Duration backoff(int attempts) {
+        Duration maxBackoff = notificationDispatchProperties.getMaxBackoff();
+        Duration backoff = notificationDispatchProperties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        double jitter = notificationDispatchProperties.getJitter();
+        double factor = 1 - jitter + 2 * jitter * ThreadLocalRandom.current().nextDouble();
+        return Duration.ofMillis((long) (backoff.toMillis() * factor));
+    }
+
+    private void countOutcome(String outcome) {
+        meterRegistry.counter("approval.notifications.dispatched", "outcome", outcome).increment();
+    }
+}
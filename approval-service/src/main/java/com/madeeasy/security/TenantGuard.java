@@ -0,0 +1,38 @@
+package com.madeeasy.security;
+
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.util.JwtUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps company-scoped endpoints to the caller's own company, taken from the companyDomain claim of the
+ * access token the request was authenticated with.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantGuard {
+
+    private final JwtUtils jwtUtils;
+    private final HttpServletRequest httpServletRequest;
+
+    public String callerCompanyDomain() {
+        String authHeader = httpServletRequest.getHeader(HttpHeaders.AUTHORIZATION);
+        String companyDomain = authHeader == null || !authHeader.startsWith("Bearer ")
+                ? null : jwtUtils.getCompanyDomainFromToken(authHeader.substring("Bearer ".length()));
+        if (companyDomain == null) {
+            throw new ClientException("The access token is not bound to a company, sign in again after joining one.", HttpStatus.FORBIDDEN);
+        }
+        return companyDomain;
+    }
+
+    // Rejects the request unless the company in the path is the caller's own
+    public void checkCompany(String companyDomain) {
+        if (!callerCompanyDomain().equals(companyDomain)) {
+            throw new ClientException("You are not allowed to access the data of company " + companyDomain + ".", HttpStatus.FORBIDDEN);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.madeeasy.service;
+
+import com.madeeasy.dto.request.ApprovalChainRequestDTO;
+import com.madeeasy.dto.response.ApprovalChainResponse;
+import com.madeeasy.entity.WorkflowStep;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ApprovalChainService {
+
+    ApprovalChainResponse getChain(String companyDomain);
+
+    ApprovalChainResponse replaceChain(String companyDomain, ApprovalChainRequestDTO approvalChainRequestDTO);
+
+    // Drops the company's own chain, it falls back to MANAGER -> FINANCE -> ADMIN
+    void resetChain(String companyDomain);
+
+    /**
+     * Steps an expense of this amount goes through, never empty.
+     */
+    List<WorkflowStep> planFor(String companyDomain, BigDecimal amount);
+}
@@ -0,0 +1,19 @@
+package com.madeeasy.service;
+
+import com.madeeasy.vo.ApprovalInstance;
+
+import java.util.List;
+
+public interface ApprovalInstanceRegistry {
+
+    /**
+     * Healthy approval-service instances, from the last completed probe run.
+     * Never blocks; the returned list is immutable.
+     */
+    List<ApprovalInstance> getHealthyInstances();
+
+    /**
+     * Starts a probe run in the background unless one is already running.
+     */
+    void refresh();
+}
@@ -18,7 +18,6 @@ public interface ApprovalService {
                                  BigDecimal amount,
                                  String category,
                                  String expenseDate,
-                                 String accessToken,
                                  String emailId,
                                  String role);
 
@@ -32,4 +31,6 @@ public interface ApprovalService {
                                 String role);
 
     boolean hasAlreadyResponded(Long expenseId, String employeeEmail);
+
+    boolean hasApprovalRequest(Long expenseId);
 }
@@ -0,0 +1,19 @@
+package com.madeeasy.service;
+
+import com.madeeasy.entity.Approval;
+import com.madeeasy.entity.ApprovalWorkflow;
+
+/**
+ * Sends the approval requests of a workflow's current step: one pending {@link Approval} and one
+ * approve/reject email per approver holding one of the step's roles. The emails are queued and sent
+ * by the notification dispatch relay once the transaction has committed.
+ */
+public interface ApprovalStepNotifier {
+
+    /**
+     * Notifies the approvers of the current step within the caller's transaction.
+     *
+     * @param expense approval row the expense details are copied from
+     */
+    void notifyCurrentStep(ApprovalWorkflow workflow, Approval expense);
+}
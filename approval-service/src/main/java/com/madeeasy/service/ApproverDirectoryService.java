@@ -0,0 +1,27 @@
+package com.madeeasy.service;
+
+import com.madeeasy.dto.response.UserResponse;
+
+import java.util.List;
+
+/**
+ * Approvers per (company, role), cached in memory and kept fresh by auth-service change notifications.
+ */
+public interface ApproverDirectoryService {
+
+    /**
+     * Users of the company holding the role. Never empty: a role nobody holds
+     * is reported as a 404 {@link com.madeeasy.exception.ClientException}.
+     */
+    List<UserResponse> findApprovers(String companyDomain, String role);
+
+    /**
+     * Loads the approvers of every approver role of the company with one auth-service call.
+     */
+    void warmUp(String companyDomain);
+
+    /**
+     * Drops the cached approvers of the role, or of the whole company when role is null.
+     */
+    void invalidate(String companyDomain, String role);
+}
@@ -0,0 +1,20 @@
+package com.madeeasy.service;
+
+import com.madeeasy.config.LinkSelectionStrategy;
+import com.madeeasy.vo.ApprovalInstance;
+
+import java.util.List;
+
+/**
+ * Picks the approval-service instance an approve/reject link points at.
+ */
+public interface InstanceSelectionStrategy {
+
+    LinkSelectionStrategy type();
+
+    /**
+     * @param instances healthy instances, never empty
+     * @param expenseId expense the link belongs to
+     */
+    ApprovalInstance select(List<ApprovalInstance> instances, Long expenseId);
+}
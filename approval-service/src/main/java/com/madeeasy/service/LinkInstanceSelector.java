@@ -0,0 +1,10 @@
+package com.madeeasy.service;
+
+public interface LinkInstanceSelector {
+
+    /**
+     * 'host:port' of the instance the links of this expense should point at,
+     * or null when no healthy instance is known.
+     */
+    String selectInstance(Long expenseId);
+}
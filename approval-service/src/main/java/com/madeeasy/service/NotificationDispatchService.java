@@ -0,0 +1,25 @@
+package com.madeeasy.service;
+
+import com.madeeasy.dto.response.NotificationDeadLetterResponse;
+import com.madeeasy.entity.NotificationDispatch;
+
+import java.util.List;
+
+/**
+ * Queue of approval emails sent to notification-service by the dispatch relay.
+ * Notifications that keep failing end up as dead letters and are only sent again when requeued.
+ */
+public interface NotificationDispatchService {
+
+    /**
+     * Queues the notification within the caller's transaction, it is sent once the transaction has committed.
+     */
+    void enqueue(NotificationDispatch notification);
+
+    List<NotificationDeadLetterResponse> getDeadLetters(int limit);
+
+    /**
+     * Puts a dead letter back in the queue with a fresh set of attempts.
+     */
+    void requeue(Long id);
+}
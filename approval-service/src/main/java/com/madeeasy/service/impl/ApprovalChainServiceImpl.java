@@ -0,0 +1,135 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.config.ApproverDirectoryProperties;
+import com.madeeasy.dto.request.ApprovalChainRequestDTO;
+import com.madeeasy.dto.request.ApprovalChainStepRequestDTO;
+import com.madeeasy.dto.response.ApprovalChainResponse;
+import com.madeeasy.dto.response.ApprovalChainStepResponse;
+import com.madeeasy.entity.ApprovalChainStep;
+import com.madeeasy.entity.ApprovalMode;
+import com.madeeasy.entity.WorkflowStep;
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.repository.ApprovalChainStepRepository;
+import com.madeeasy.security.TenantGuard;
+import com.madeeasy.service.ApprovalChainService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ApprovalChainServiceImpl implements ApprovalChainService {
+
+    // Chain of companies that have not defined their own
+    private static final List<ApprovalChainStep> DEFAULT_CHAIN = List.of(
+            defaultStep(1, "MANAGER"),
+            defaultStep(2, "FINANCE"),
+            defaultStep(3, "ADMIN"));
+
+    private final ApprovalChainStepRepository approvalChainStepRepository;
+    private final ApproverDirectoryProperties approverDirectoryProperties;
+    private final TenantGuard tenantGuard;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ApprovalChainResponse getChain(String companyDomain) {
+        tenantGuard.checkCompany(companyDomain);
+        List<ApprovalChainStep> chain = approvalChainStepRepository.findChain(companyDomain);
+        return toResponse(companyDomain, chain.isEmpty() ? DEFAULT_CHAIN : chain, chain.isEmpty());
+    }
+
+    @Override
+    public ApprovalChainResponse replaceChain(String companyDomain, ApprovalChainRequestDTO approvalChainRequestDTO) {
+        tenantGuard.checkCompany(companyDomain);
+        List<ApprovalChainStepRequestDTO> requestSteps = approvalChainRequestDTO.getSteps();
+        if (requestSteps.contains(null)) {
+            throw new ClientException("Every step needs at least one approver role", HttpStatus.BAD_REQUEST);
+        }
+        if (requestSteps.stream().allMatch(step -> step.getMinAmount() != null)) {
+            throw new ClientException("At least one step must apply to every amount (no minAmount)", HttpStatus.BAD_REQUEST);
+        }
+
+        List<ApprovalChainStep> chain = new ArrayList<>(requestSteps.size());
+        for (int i = 0; i < requestSteps.size(); i++) {
+            ApprovalChainStepRequestDTO requestStep = requestSteps.get(i);
+            LinkedHashSet<String> roles = new LinkedHashSet<>();
+            requestStep.getApproverRoles().forEach(role -> roles.add(role.trim().toUpperCase(Locale.ROOT)));
+            // A role nobody can hold would leave the step without approvers and stall its workflows
+            List<String> unknownRoles = roles.stream()
+                    .filter(role -> !approverDirectoryProperties.getApproverRoles().contains(role))
+                    .toList();
+            if (!unknownRoles.isEmpty()) {
+                throw new ClientException("Step " + (i + 1) + " has unknown approver roles " + unknownRoles +
+                        ", allowed roles are " + approverDirectoryProperties.getApproverRoles(), HttpStatus.BAD_REQUEST);
+            }
+            chain.add(ApprovalChainStep.builder()
+                    .companyDomain(companyDomain)
+                    .stepOrder(i + 1)
+                    .approverRoles(new ArrayList<>(roles))
+                    .approvalMode(requestStep.getApprovalMode() != null ? requestStep.getApprovalMode() : ApprovalMode.ANY)
+                    .minAmount(requestStep.getMinAmount())
+                    .build());
+        }
+
+        // Workflows already started keep their own copy of the steps
+        approvalChainStepRepository.deleteChain(companyDomain);
+        approvalChainStepRepository.saveAll(chain);
+        log.info("Approval chain of {} replaced with {} steps", companyDomain, chain.size());
+        return toResponse(companyDomain, chain, false);
+    }
+
+    @Override
+    public void resetChain(String companyDomain) {
+        tenantGuard.checkCompany(companyDomain);
+        approvalChainStepRepository.deleteChain(companyDomain);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WorkflowStep> planFor(String companyDomain, BigDecimal amount) {
+        List<ApprovalChainStep> chain = approvalChainStepRepository.findChain(companyDomain);
+        if (chain.isEmpty()) {
+            chain = DEFAULT_CHAIN;
+        }
+        List<WorkflowStep> steps = new ArrayList<>(chain.size());
+        for (ApprovalChainStep step : chain) {
+            if (step.getMinAmount() == null || amount.compareTo(step.getMinAmount()) >= 0) {
+                steps.add(new WorkflowStep(List.copyOf(step.getApproverRoles()), step.getApprovalMode()));
+            }
+        }
+        return steps;
+    }
+
+    private static ApprovalChainResponse toResponse(String companyDomain, List<ApprovalChainStep> chain, boolean defaultChain) {
+        return ApprovalChainResponse.builder()
+                .companyDomain(companyDomain)
+                .defaultChain(defaultChain)
+                .steps(chain.stream()
+                        .map(step -> ApprovalChainStepResponse.builder()
+                                .stepOrder(step.getStepOrder())
+                                .approverRoles(List.copyOf(step.getApproverRoles()))
+                                .approvalMode(step.getApprovalMode())
+                                .minAmount(step.getMinAmount())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private static ApprovalChainStep defaultStep(int stepOrder, String role) {
+        return ApprovalChainStep.builder()
+                .stepOrder(stepOrder)
+                .approverRoles(List.of(role))
+                .approvalMode(ApprovalMode.ANY)
+                .build();
+    }
+}
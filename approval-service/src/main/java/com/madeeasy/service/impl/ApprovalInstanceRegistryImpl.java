@@ -0,0 +1,144 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.config.InstanceRegistryProperties;
+import com.madeeasy.service.ApprovalInstanceRegistry;
+import com.madeeasy.vo.ApprovalInstance;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the list of healthy approval-service instances used in the approve/reject links.
+ * <p>
+ * Instances are probed on '/actuator/health' in the background, on a schedule and whenever the
+ * Eureka client sees a different set of instances. Weight and load metadata are taken from the
+ * registry at each probe run. Lookups only read the last published snapshot.
+ * Until the first probe run completes, every discovered instance is returned.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApprovalInstanceRegistryImpl implements ApprovalInstanceRegistry {
+
+    private final DiscoveryClient discoveryClient;
+    private final RestTemplate healthProbeRestTemplate;
+    private final ThreadPoolTaskExecutor instanceProbeExecutor;
+    private final InstanceRegistryProperties instanceRegistryProperties;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile boolean probed;
+    private volatile List<ApprovalInstance> healthyInstances = List.of();
+    // Instances seen by the last refresh, so Eureka cache refreshes that changed nothing do not trigger a probe run
+    private volatile Set<String> knownInstances = Set.of();
+
+    @Override
+    public List<ApprovalInstance> getHealthyInstances() {
+        if (!probed) {
+            return List.copyOf(discoveredInstances().values());
+        }
+        return healthyInstances;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${approval.instance-registry.refresh-interval:10000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    // Published by the Eureka client after every registry fetch
+    @EventListener(HeartbeatEvent.class)
+    public void onDiscoveryHeartbeat() {
+        if (!discoveredInstances().keySet().equals(knownInstances)) {
+            refresh();
+        }
+    }
+
+    @Override
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Map<String, ApprovalInstance> discovered = discoveredInstances();
+            knownInstances = Set.copyOf(discovered.keySet());
+            // Instances that left the registry are dropped right away, new ones only after a successful probe
+            healthyInstances = healthyInstances.stream().filter(instance -> discovered.containsKey(instance.address())).toList();
+
+            List<CompletableFuture<ApprovalInstance>> probes = new ArrayList<>(discovered.size());
+            for (ApprovalInstance instance : discovered.values()) {
+                probes.add(CompletableFuture.supplyAsync(() -> isHealthy(instance.address()) ? instance : null, instanceProbeExecutor));
+            }
+            CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new))
+                    .whenComplete((ignored, error) -> publish(probes));
+        } catch (TaskRejectedException e) {
+            log.error("Could not schedule instance health probes: {}", e.getMessage());
+            refreshing.set(false);
+        }
+    }
+
+    private void publish(List<CompletableFuture<ApprovalInstance>> probes) {
+        try {
+            List<ApprovalInstance> healthy = probes.stream()
+                    .map(probe -> probe.getNow(null))
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (!addresses(healthy).equals(addresses(healthyInstances))) {
+                log.info("Healthy approval-service instances: {}", addresses(healthy));
+            }
+            healthyInstances = healthy;
+            probed = true;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    // Keyed by 'host:port', in discovery order
+    private Map<String, ApprovalInstance> discoveredInstances() {
+        Map<String, ApprovalInstance> instances = new LinkedHashMap<>();
+        for (ServiceInstance serviceInstance : discoveryClient.getInstances(instanceRegistryProperties.getServiceId())) {
+            ApprovalInstance instance = ApprovalInstance.of(serviceInstance);
+            instances.put(instance.address(), instance);
+        }
+        return instances;
+    }
+
+    private static List<String> addresses(List<ApprovalInstance> instances) {
+        return instances.stream().map(ApprovalInstance::address).toList();
+    }
+
+    private boolean isHealthy(String address) {
+        try {
+            ResponseEntity<String> response = healthProbeRestTemplate.exchange(
+                    "http://" + address + "/actuator/health", HttpMethod.GET, null, String.class);
+            return response.getStatusCode() == HttpStatus.OK;
+        } catch (Exception e) {
+            log.debug("Health probe of {} failed: {}", address, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -4,13 +4,22 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.madeeasy.dto.request.ExpenseRequestDTO;
-import com.madeeasy.dto.response.UserResponse;
 import com.madeeasy.entity.Approval;
 import com.madeeasy.entity.ApprovalStatus;
+import com.madeeasy.entity.ApprovalWorkflow;
+import com.madeeasy.entity.ExpenseStatus;
+import com.madeeasy.entity.ExpenseStatusEvent;
+import com.madeeasy.entity.OutboxStatus;
+import com.madeeasy.entity.WorkflowStatus;
 import com.madeeasy.exception.ClientException;
 import com.madeeasy.exception.ResourceException;
 import com.madeeasy.repository.ApprovalRepository;
+import com.madeeasy.repository.ApprovalWorkflowRepository;
+import com.madeeasy.repository.ExpenseStatusEventRepository;
+import com.madeeasy.security.config.InternalServiceProperties;
+import com.madeeasy.service.ApprovalChainService;
 import com.madeeasy.service.ApprovalService;
+import com.madeeasy.service.ApprovalStepNotifier;
 import com.madeeasy.util.JwtUtils;
 import com.madeeasy.vo.CompanyResponseDTO;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -18,9 +27,6 @@ import io.github.resilience4j.retry.annotation.Retry;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.cloud.client.discovery.DiscoveryClient;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,13 +36,8 @@ import org.springframework.web.client.RestTemplate;
 
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Slf4j
 @Service
@@ -44,12 +45,17 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ApprovalServiceImpl implements ApprovalService {
 
+    private static final int AUTO_APPROVAL_LEVEL = 0;
+
     private final ApprovalRepository approvalRepository;
+    private final ExpenseStatusEventRepository expenseStatusEventRepository;
     private final RestTemplate restTemplate;
-    private final RestTemplate localRestTemplate;
     private final JwtUtils jwtUtils;
     private final HttpServletRequest httpServletRequest;
-    private final DiscoveryClient discoveryClient;
+    private final ApprovalWorkflowRepository approvalWorkflowRepository;
+    private final ApprovalChainService approvalChainService;
+    private final ApprovalStepNotifier approvalStepNotifier;
+    private final InternalServiceProperties internalServiceProperties;
 
     //    @Retry(name = "approvalServiceRetry", fallbackMethod = "retryFallback")
 //    @CircuitBreaker(name = "approvalServiceCircuitBreaker", fallbackMethod = "circuitBreakerFallback")
@@ -160,179 +166,14 @@ public class ApprovalServiceImpl implements ApprovalService {
     @CircuitBreaker(name = "approvalServiceCircuitBreaker", fallbackMethod = "circuitBreakerFallback")
     @Override
     public void askForApproval(ExpenseRequestDTO expenseRequestDTO) throws UnsupportedEncodingException {
-
-
-        String authHeader = httpServletRequest.getHeader(HttpHeaders.AUTHORIZATION);
-        String accessToken = authHeader.substring("Bearer ".length());
-
+        // Rest call to company-service to get the approval threshold
+        String companyUrlToGetCompany = "http://company-service/company-service/domain-name/" + expenseRequestDTO.getCompanyDomain();
+        CompanyResponseDTO companyResponse = null;
         try {
-            // Rest call with authorization header to get user details by company domain and role
-            String authUrlToGetUser = "http://auth-service/auth-service/get-user/" + expenseRequestDTO.getCompanyDomain() + "/" + "MANAGER";
-            List<UserResponse> userResponseList = restTemplate.exchange(authUrlToGetUser, HttpMethod.GET,
-                    new HttpEntity<>(createHeaders(accessToken)), new ParameterizedTypeReference<List<UserResponse>>() {
-                    }).getBody();
-
-            // Check if the response is null or empty
-            if (userResponseList == null || userResponseList.isEmpty()) {
-                throw new IllegalStateException("Unable to fetch user information.");
-            }
-
-            // Assuming the list contains only one user for the given role, get the first user
-            UserResponse userResponse = userResponseList.getFirst();  // Get the first element from the list
-            String managerEmail = userResponse.getEmail();  // Access the email property of the first user
-
-
-            // call first company service and get approval threshold start
-
-
-            // Rest call to company-service to get company domain
-            String companyUrlToGetCompany = "http://company-service/company-service/domain-name/" + userResponse.getCompanyDomain();
-            CompanyResponseDTO companyResponse = null;
-            try {
-                companyResponse = restTemplate.exchange(companyUrlToGetCompany, HttpMethod.GET,
-                        new HttpEntity<>(createHeaders(accessToken)), CompanyResponseDTO.class).getBody();
-            } catch (HttpClientErrorException | HttpServerErrorException e) {
-                String responseBody = e.getResponseBodyAsString();
-                // Parse the response body (which is a JSON string)
-                ObjectMapper objectMapper = new ObjectMapper();
-                JsonNode jsonNode = null;
-                try {
-                    jsonNode = objectMapper.readTree(responseBody);
-                } catch (JsonProcessingException ex) {
-                    log.error("Failed to parse response body: {}", ex.getMessage());
-                }
-
-                if (jsonNode != null) {
-                    String message = jsonNode.get("message").asText();
-                    String statusStr = jsonNode.get("status").asText().substring(0, 3);
-
-                    // Convert the status code to integer and map it to HttpStatus
-                    int statusCode = Integer.parseInt(statusStr);
-
-                    // Use HttpStatus.valueOf() with the numeric status code value
-                    HttpStatus status = HttpStatus.resolve(statusCode);
-
-                    log.error("Parsed message: {}", message);
-                    log.error("Parsed status: {}", status);
-
-                    // Re-throw ClientException so that it will be caught by the GlobalExceptionHandler
-                    throw new ClientException(message, status);
-                } else {
-                    log.error("Failed to parse JSON response body.");
-                    throw new ClientException("Authorization failed, unable to parse error response", HttpStatus.INTERNAL_SERVER_ERROR);
-                }
-            }
-
-            if (companyResponse == null) {
-                throw new IllegalStateException("Unable to fetch company information.");
-            }
-            if (expenseRequestDTO.getAmount().compareTo(BigDecimal.valueOf(companyResponse.getAutoApproveThreshold())) <= 0) {
-                String emailId = jwtUtils.getUserName(accessToken);
-                // Auto-approve expense
-                Approval approval = Approval.builder()
-                        .expenseId(expenseRequestDTO.getExpenseId())
-                        .companyDomain(expenseRequestDTO.getCompanyDomain())
-                        .approverRole("AUTO_APPROVER")
-                        .approvedBy(emailId)
-                        .status(ApprovalStatus.APPROVED)
-                        .expenseDate(expenseRequestDTO.getExpenseDate())
-                        .approvalInitiationDate(LocalDateTime.now())
-                        .approvalCompletionDate(LocalDateTime.now())
-                        .title(expenseRequestDTO.getTitle())
-                        .description(expenseRequestDTO.getDescription())
-                        .amount(expenseRequestDTO.getAmount())
-                        .category(expenseRequestDTO.getCategory())
-                        .build();
-                // Save the expense to the database
-                this.approvalRepository.save(approval);
-                log.info("Expense auto-approved: {} by user {}", expenseRequestDTO.getAmount(), userResponse.getEmail());
-            } else {
-                // Prepare the expense details as query parameters
-                String expenseDetails = "expenseId=" + URLEncoder.encode(String.valueOf(expenseRequestDTO.getExpenseId()), StandardCharsets.UTF_8) +
-                        "&title=" + URLEncoder.encode(expenseRequestDTO.getTitle(), StandardCharsets.UTF_8) +
-                        "&description=" + URLEncoder.encode(expenseRequestDTO.getDescription(), StandardCharsets.UTF_8) +
-                        "&amount=" + URLEncoder.encode(String.valueOf(expenseRequestDTO.getAmount()), StandardCharsets.UTF_8) +
-                        "&category=" + URLEncoder.encode(String.valueOf(expenseRequestDTO.getCategory()), StandardCharsets.UTF_8) +
-                        "&expenseDate=" + URLEncoder.encode(expenseRequestDTO.getExpenseDate().toString(), StandardCharsets.UTF_8) +
-                        "&accessToken=" + URLEncoder.encode(accessToken, StandardCharsets.UTF_8) +
-                        "&emailId=" + URLEncoder.encode(managerEmail, StandardCharsets.UTF_8);// in future call to auth-service and by company domain get manager emailId and set here
-                // Get healthy approval service URLs
-                List<String> healthyServiceUrls = getApprovalServiceUrls();
-
-                if (healthyServiceUrls.isEmpty()) {
-                    // Handle error (e.g., no healthy instances available)
-                    return;
-                }
-
-                // Pick a random URL from the healthy services list
-                String approvalServiceUrl = healthyServiceUrls.getFirst();  // You can add more logic for load balancing if needed
-
-
-                // Send email to Manager for approval
-//            String approveLink = "http://approval-service/approval-service/approve?" + expenseDetails + "&emailId=" + managerEmail + "&role=MANAGER";
-//            String rejectLink = "http://approval-service/approval-service/reject?" + expenseDetails + "&emailId=" + managerEmail + "&role=MANAGER";
-                // Construct the approval and rejection links
-                String approveLink = "http://" + approvalServiceUrl + "/approval-service/approve?" + expenseDetails + "&emailId=" + managerEmail + "&role=MANAGER";
-                String rejectLink = "http://" + approvalServiceUrl + "/approval-service/reject?" + expenseDetails + "&emailId=" + managerEmail + "&role=MANAGER";
-
-
-                // Create the request body, including expense details and links
-                Map<String, Object> requestBody = new HashMap<>();
-                requestBody.put("expenseDetails", expenseDetails);  // Sending full expense details
-                requestBody.put("approveLink", approveLink);        // Approval link
-                requestBody.put("rejectLink", rejectLink);          // Rejection link
-
-                // Rest call to notification-services to send email
-                String notificationUrl = "http://notification-service/notification-service/";
-                try {
-                    // Prepare headers
-                    HttpHeaders headers = new HttpHeaders();
-                    headers.set("Authorization", "Bearer " + accessToken);  // Add the accessToken as Bearer token
-
-                    // Your logic to call the notification service
-                    // Wrap the body and headers into an HttpEntity
-                    HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-                    restTemplate.exchange(notificationUrl, HttpMethod.POST, entity, Void.class);
-                } catch (HttpClientErrorException | HttpServerErrorException e) {
-                    // Log the error details
-                    log.error("Error while calling notification service: {}", e.getMessage());
-
-                    // Check if the status is 503 (Service Unavailable) and handle it
-                    if (e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
-                        // Return a more specific error response
-                        throw new ResourceException("Notification service is currently unavailable. Please try again later.");
-                    }
-
-                    // If it’s some other type of error, you can throw a different exception or handle accordingly
-                    throw new ResourceException("An error occurred while accessing the notification service.");
-                }
-
-
-                // Save the approval request in the database (Approval table)
-                Approval approval = Approval.builder()
-                        .expenseId(expenseRequestDTO.getExpenseId())
-                        .companyDomain(expenseRequestDTO.getCompanyDomain())
-                        .approverRole("MANAGER")
-                        .approvedBy(managerEmail)
-                        .status(ApprovalStatus.PENDING)
-                        .expenseDate(expenseRequestDTO.getExpenseDate())
-                        .approvalInitiationDate(LocalDateTime.now())
-                        .title(expenseRequestDTO.getTitle())
-                        .description(expenseRequestDTO.getDescription())
-                        .amount(expenseRequestDTO.getAmount())
-                        .category(expenseRequestDTO.getCategory())
-                        .build();
-                this.approvalRepository.save(approval);
-            }
-            // call first company service and get approval threshold end
-
-        } catch (HttpClientErrorException.Unauthorized e) {
-            log.error("Authorization failed: {}", e.getResponseBodyAsString());
-
-            // Get the response body (JSON) from the exception
+            companyResponse = restTemplate.exchange(companyUrlToGetCompany, HttpMethod.GET,
+                    new HttpEntity<>(createHeaders()), CompanyResponseDTO.class).getBody();
+        } catch (HttpClientErrorException | HttpServerErrorException e) {
             String responseBody = e.getResponseBodyAsString();
-
             // Parse the response body (which is a JSON string)
             ObjectMapper objectMapper = new ObjectMapper();
             JsonNode jsonNode = null;
@@ -344,62 +185,75 @@ public class ApprovalServiceImpl implements ApprovalService {
 
             if (jsonNode != null) {
                 String message = jsonNode.get("message").asText();
-                String status = jsonNode.get("status").asText();
+                String statusStr = jsonNode.get("status").asText().substring(0, 3);
+
+                // Convert the status code to integer and map it to HttpStatus
+                int statusCode = Integer.parseInt(statusStr);
 
-                HttpStatus httpStatus;
-                try {
-                    httpStatus = HttpStatus.valueOf(status); // Convert status string to HttpStatus
-                } catch (IllegalArgumentException e2) {
-                    log.error("Invalid status '{}' found, defaulting to HttpStatus.UNAUTHORIZED", status);
-                    httpStatus = HttpStatus.UNAUTHORIZED;
-                }
+                // Use HttpStatus.valueOf() with the numeric status code value
+                HttpStatus status = HttpStatus.resolve(statusCode);
 
                 log.error("Parsed message: {}", message);
                 log.error("Parsed status: {}", status);
 
                 // Re-throw ClientException so that it will be caught by the GlobalExceptionHandler
-                throw new ClientException(message, httpStatus);
+                throw new ClientException(message, status);
             } else {
                 log.error("Failed to parse JSON response body.");
                 throw new ClientException("Authorization failed, unable to parse error response", HttpStatus.INTERNAL_SERVER_ERROR);
             }
-        } catch (HttpClientErrorException e) {
-            log.error("HTTP error occurred: {}", e.getResponseBodyAsString());
-
-            // Get the response body (JSON) from the exception
-            String responseBody = e.getResponseBodyAsString();
-
-            // Parse the response body (which is a JSON string)
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode jsonNode = null;
-            try {
-                jsonNode = objectMapper.readTree(responseBody);
-            } catch (JsonProcessingException ex) {
-                log.error("Failed to parse response body: {}", ex.getMessage());
-            }
+        }
 
-            // Extract message and status
-            String message = jsonNode.get("message").asText();
-            String status = jsonNode.get("status").asText();
-
-            // Check the status to decide whether it's 401 or 404, etc.
-            HttpStatus httpStatus = HttpStatus.valueOf(status); // Convert the status string to HttpStatus
-
-            // Handle 404 NOT_FOUND specifically
-            if (httpStatus == HttpStatus.NOT_FOUND) {
-                log.error("User not found: {}", message);
-                // Here we throw a ClientException with 404 status
-                throw new ClientException("Manager has not been created.  Please check before Proceeding", httpStatus);
-            } else if (httpStatus == HttpStatus.UNAUTHORIZED) {
-                log.error("Authorization failed: {}", message);
-                // Handle unauthorized error as you did earlier
-                throw new ClientException(message, httpStatus);
-            } else {
-                // If it's another error, we might still want to use a ResourceException
-                throw new ResourceException("An error occurred while accessing auth-service.");
-            }
+        if (companyResponse == null) {
+            throw new IllegalStateException("Unable to fetch company information.");
         }
+        // An expense over its category budget always goes through the approval chain
+        boolean overBudget = Boolean.TRUE.equals(expenseRequestDTO.getOverBudget());
+        if (!overBudget && expenseRequestDTO.getAmount().compareTo(BigDecimal.valueOf(companyResponse.getAutoApproveThreshold())) <= 0) {
+            String emailId = submitterOf(expenseRequestDTO);
+            // Auto-approve expense
+            Approval approval = Approval.builder()
+                    .expenseId(expenseRequestDTO.getExpenseId())
+                    .companyDomain(expenseRequestDTO.getCompanyDomain())
+                    .approverRole("AUTO_APPROVER")
+                    .approvedBy(emailId)
+                    .status(ApprovalStatus.APPROVED)
+                    .expenseDate(expenseRequestDTO.getExpenseDate())
+                    .approvalInitiationDate(LocalDateTime.now())
+                    .approvalCompletionDate(LocalDateTime.now())
+                    .title(expenseRequestDTO.getTitle())
+                    .description(expenseRequestDTO.getDescription())
+                    .amount(expenseRequestDTO.getAmount())
+                    .category(expenseRequestDTO.getCategory())
+                    .build();
+            // Save the expense to the database
+            this.approvalRepository.save(approval);
+            publishStatus(approval, ExpenseStatus.APPROVED, AUTO_APPROVAL_LEVEL);
+            log.info("Expense auto-approved: {} by user {}", expenseRequestDTO.getAmount(), emailId);
+        } else {
+            // Expense details the approval requests of every step are created from
+            Approval expense = Approval.builder()
+                    .expenseId(expenseRequestDTO.getExpenseId())
+                    .companyDomain(expenseRequestDTO.getCompanyDomain())
+                    .expenseDate(expenseRequestDTO.getExpenseDate())
+                    .title(expenseRequestDTO.getTitle())
+                    .description(expenseRequestDTO.getDescription())
+                    .amount(expenseRequestDTO.getAmount())
+                    .category(expenseRequestDTO.getCategory())
+                    .build();
 
+            // Start the company's approval chain, routed by amount, and notify the approvers of its first step
+            ApprovalWorkflow workflow = ApprovalWorkflow.builder()
+                    .expenseId(expenseRequestDTO.getExpenseId())
+                    .companyDomain(expenseRequestDTO.getCompanyDomain())
+                    .steps(approvalChainService.planFor(expenseRequestDTO.getCompanyDomain(), expenseRequestDTO.getAmount()))
+                    .currentStep(0)
+                    .status(WorkflowStatus.IN_PROGRESS)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            approvalStepNotifier.notifyCurrentStep(workflow, expense);
+            publishStatus(expense, ExpenseStatus.IN_REVIEW, workflow.approvalLevel());
+        }
     }
 
     @Override
@@ -411,46 +265,6 @@ public class ApprovalServiceImpl implements ApprovalService {
     }
 
 
-    // Method to check if a service is healthy
-    private boolean isServiceHealthy(String host, int port) {
-        try {
-            // Send a GET request to the health check endpoint of the service
-            String healthCheckUrl = "http://" + host + ":" + port + "/actuator/health"; // Assuming Actuator is used for health check
-            ResponseEntity<String> response = this.localRestTemplate.exchange(healthCheckUrl, HttpMethod.GET, null, String.class);
-
-            // If status code is 200 OK, the service is healthy
-            return response.getStatusCode() == HttpStatus.OK;
-        } catch (Exception e) {
-            // In case of any error (e.g., service is down), consider the service unhealthy
-            return false;
-        }
-    }
-
-    // Method to get the approval service URLs with health checks
-    public List<String> getApprovalServiceUrls() {
-        // Get all instances of 'approval-service' registered in Eureka
-        List<ServiceInstance> serviceInstances = discoveryClient.getInstances("approval-service");
-
-        // Create a list to store the URLs in the format 'localhost:port'
-        List<String> serviceUrls = new ArrayList<>();
-
-        // Iterate over the instances and extract the host and port
-        for (ServiceInstance instance : serviceInstances) {
-            String host = instance.getHost();  // Get the IP address or hostname of the instance
-            int port = instance.getPort();       // Get the port number of the instance
-
-            if (isServiceHealthy(host, port)) {
-                // Build the URL in the format 'localhost:port'
-                String serviceUrl = host + ":" + port;
-                serviceUrls.add(serviceUrl);  // Add the URL to the list
-                log.info("host: {}, port: {}", host, port);
-            }
-        }
-
-        return serviceUrls;  // Return only healthy services
-    }
-
-
     // Fallback method for retry
     public void retryFallback(ExpenseRequestDTO expenseRequestDTO, UnsupportedEncodingException e) {
         log.error("Retry failed after multiple attempts for askForApproval: {}", e.getMessage());
@@ -492,342 +306,95 @@ public class ApprovalServiceImpl implements ApprovalService {
         }
     }
 
-    private HttpHeaders createHeaders(String accessToken) {
+    // Other services are called with the internal service credential, an expense relayed by expense-service comes without a user token
+    private HttpHeaders createHeaders() {
         HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+        headers.set(InternalServiceProperties.HEADER, internalServiceProperties.getToken());
         return headers;
     }
 
+    // The caller itself when an employee asks directly, otherwise the submitter named by expense-service
+    private String submitterOf(ExpenseRequestDTO expenseRequestDTO) {
+        String authHeader = httpServletRequest.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return jwtUtils.getUserName(authHeader.substring("Bearer ".length()));
+        }
+        return expenseRequestDTO.getSubmittedBy();
+    }
+
     @Override
+    @Retry(name = "approvalStepRetry")
     public void approveExpenseFromEmail(Long expenseId,
                                         String title,
                                         String description,
                                         BigDecimal amount,
                                         String category,
                                         String expenseDate,
-                                        String accessToken,
                                         String emailId,
                                         String role) {
-        List<Approval> approval = approvalRepository.findByExpenseId(expenseId);
-        if (approval.isEmpty()) {
-            throw new RuntimeException("No pending approval found for this expense.");
+        ApprovalWorkflow workflow = findWorkflow(expenseId);
+        Approval currentApproval = findPendingRequest(workflow, emailId, role);
+        LocalDateTime now = LocalDateTime.now();
+        currentApproval.setStatus(ApprovalStatus.APPROVED);
+        currentApproval.setApprovalCompletionDate(now);
+
+        workflow.setReceivedApprovals(workflow.getReceivedApprovals() + 1);
+        workflow.setUpdatedAt(now);
+        if (workflow.getReceivedApprovals() < workflow.getRequiredApprovals()) {
+            // Step needs every approver, wait for the others
+            return;
         }
-        Approval currentApproval = approval.stream()
-                .filter(a -> a.getApproverRole().equals(role) && a.getStatus() == ApprovalStatus.PENDING)
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("No pending approval found for this expense for this role."));
-        /**
-         * in future call auth-service and there by company domain get finance/admin emailId and make the below dynamic email
-         */
-        if (role.equals("MANAGER")) {
-            currentApproval.setStatus(ApprovalStatus.APPROVED);
-            currentApproval.setApprovalCompletionDate(LocalDateTime.now());
-            this.approvalRepository.save(currentApproval);
-            // rest call with authorization herader to get user details by company domain and role
-            String authUrlToGetUser = "http://auth-service/auth-service/get-user/" + currentApproval.getCompanyDomain() + "/" + "FINANCE";
-            String financeEmail = null;  // Access the email property of the first user
-            try {
-                List<UserResponse> userResponseList = restTemplate.exchange(authUrlToGetUser, HttpMethod.GET,
-                        new HttpEntity<>(createHeaders(accessToken)), new ParameterizedTypeReference<List<UserResponse>>() {
-                        }).getBody();
-                // Check if the response is null or empty
-                if (userResponseList == null || userResponseList.isEmpty()) {
-                    throw new IllegalStateException("Unable to fetch user information.");
-                }
-
-                // Assuming the list contains only one user for the given role, get the first user
-                UserResponse userResponse = userResponseList.getFirst();  // Get the first element from the list
-                financeEmail = userResponse.getEmail();
-            } catch (HttpClientErrorException.Unauthorized e) {
-                log.error("Authorization failed: {}", e.getResponseBodyAsString());
-
-                // Get the response body (JSON) from the exception
-                String responseBody = e.getResponseBodyAsString();
-
-                // Parse the response body (which is a JSON string)
-                ObjectMapper objectMapper = new ObjectMapper();
-                JsonNode jsonNode = null;
-                try {
-                    jsonNode = objectMapper.readTree(responseBody);
-                } catch (JsonProcessingException ex) {
-                    log.error("Failed to parse response body: {}", ex.getMessage());
-                }
-
-                if (jsonNode != null) {
-                    String message = jsonNode.get("message").asText();
-                    String status = jsonNode.get("status").asText();
-
-                    HttpStatus httpStatus;
-                    try {
-                        httpStatus = HttpStatus.valueOf(status); // Convert status string to HttpStatus
-                    } catch (IllegalArgumentException e2) {
-                        log.error("Invalid status '{}' found, defaulting to HttpStatus.UNAUTHORIZED", status);
-                        httpStatus = HttpStatus.UNAUTHORIZED;
-                    }
-
-                    log.error("Parsed message: {}", message);
-                    log.error("Parsed status: {}", status);
-
-                    // Re-throw ClientException so that it will be caught by the GlobalExceptionHandler
-                    throw new ClientException(message, httpStatus);
-                } else {
-                    log.error("Failed to parse JSON response body.");
-                    throw new ClientException("Authorization failed, unable to parse error response", HttpStatus.INTERNAL_SERVER_ERROR);
-                }
-            } catch (HttpClientErrorException e) {
-                log.error("HTTP error occurred: {}", e.getResponseBodyAsString());
-
-                // Get the response body (JSON) from the exception
-                String responseBody = e.getResponseBodyAsString();
-
-                // Parse the response body (which is a JSON string)
-                ObjectMapper objectMapper = new ObjectMapper();
-                JsonNode jsonNode = null;
-                try {
-                    jsonNode = objectMapper.readTree(responseBody);
-                } catch (JsonProcessingException ex) {
-                    log.error("Failed to parse response body: {}", ex.getMessage());
-                }
-
-                // Extract message and status
-                String message = jsonNode.get("message").asText();
-                String status = jsonNode.get("status").asText();
-
-                // Check the status to decide whether it's 401 or 404, etc.
-                HttpStatus httpStatus = HttpStatus.valueOf(status); // Convert the status string to HttpStatus
-
-                // Handle 404 NOT_FOUND specifically
-                if (httpStatus == HttpStatus.NOT_FOUND) {
-                    log.error("User not found: {}", message);
-                    // Here we throw a ClientException with 404 status
-                    throw new ClientException("Finance has not been created , Please check before Proceeding", httpStatus);
-                } else if (httpStatus == HttpStatus.UNAUTHORIZED) {
-                    log.error("Authorization failed: {}", message);
-                    // Handle unauthorized error as you did earlier
-                    throw new ClientException(message, httpStatus);
-                } else {
-                    // If it's another error, we might still want to use a ResourceException
-                    throw new ResourceException("An error occurred while accessing auth-service.");
-                }
-            }
-
-            // Save the approval request in the database (Approval table)
-            Approval finaceApproval = Approval.builder()
-                    .expenseId(currentApproval.getExpenseId())
-                    .companyDomain(currentApproval.getCompanyDomain())
-                    .approverRole("FINANCE")
-                    .approvedBy(financeEmail)
-                    .status(ApprovalStatus.PENDING)
-                    .expenseDate(currentApproval.getExpenseDate())
-                    .approvalInitiationDate(LocalDateTime.now())
-                    .title(currentApproval.getTitle())
-                    .description(currentApproval.getDescription())
-                    .amount(currentApproval.getAmount())
-                    .category(currentApproval.getCategory())
-                    .build();
-            this.approvalRepository.save(finaceApproval);
-            sendNextApproval(expenseId, title, description, amount, category, expenseDate, accessToken, financeEmail, "FINANCE");
-        } else if (role.equals("FINANCE")) {
-            currentApproval.setStatus(ApprovalStatus.APPROVED);
-            currentApproval.setApprovalCompletionDate(LocalDateTime.now());
-            this.approvalRepository.save(currentApproval);
-            // rest call with authorization herader to get user details by company domain and role
-            String authUrlToGetUser = "http://auth-service/auth-service/get-user/" + currentApproval.getCompanyDomain() + "/" + "ADMIN";
-            String adminEmail = null;  // Access the email property of the first user
-            try {
-                List<UserResponse> userResponseList = restTemplate.exchange(authUrlToGetUser, HttpMethod.GET,
-                        new HttpEntity<>(createHeaders(accessToken)), new ParameterizedTypeReference<List<UserResponse>>() {
-                        }).getBody();
-                // Check if the response is null or empty
-                if (userResponseList == null || userResponseList.isEmpty()) {
-                    throw new IllegalStateException("Unable to fetch user information.");
-                }
-
-                // Assuming the list contains only one user for the given role, get the first user
-                UserResponse userResponse = userResponseList.getFirst();  // Get the first element from the list
-                adminEmail = userResponse.getEmail();
-            } catch (HttpClientErrorException.Unauthorized e) {
-                log.error("Authorization failed: {}", e.getResponseBodyAsString());
-
-                // Get the response body (JSON) from the exception
-                String responseBody = e.getResponseBodyAsString();
-
-                // Parse the response body (which is a JSON string)
-                ObjectMapper objectMapper = new ObjectMapper();
-                JsonNode jsonNode = null;
-                try {
-                    jsonNode = objectMapper.readTree(responseBody);
-                } catch (JsonProcessingException ex) {
-                    log.error("Failed to parse response body: {}", ex.getMessage());
-                }
-
-                if (jsonNode != null) {
-                    String message = jsonNode.get("message").asText();
-                    String status = jsonNode.get("status").asText();
-
-                    HttpStatus httpStatus;
-                    try {
-                        httpStatus = HttpStatus.valueOf(status); // Convert status string to HttpStatus
-                    } catch (IllegalArgumentException e2) {
-                        log.error("Invalid status '{}' found, defaulting to HttpStatus.UNAUTHORIZED", status);
-                        httpStatus = HttpStatus.UNAUTHORIZED;
-                    }
-
-                    log.error("Parsed message: {}", message);
-                    log.error("Parsed status: {}", status);
-
-                    // Re-throw ClientException so that it will be caught by the GlobalExceptionHandler
-                    throw new ClientException(message, httpStatus);
-                } else {
-                    log.error("Failed to parse JSON response body.");
-                    throw new ClientException("Authorization failed, unable to parse error response", HttpStatus.INTERNAL_SERVER_ERROR);
-                }
-            } catch (HttpClientErrorException e) {
-                log.error("HTTP error occurred: {}", e.getResponseBodyAsString());
-
-                // Get the response body (JSON) from the exception
-                String responseBody = e.getResponseBodyAsString();
-
-                // Parse the response body (which is a JSON string)
-                ObjectMapper objectMapper = new ObjectMapper();
-                JsonNode jsonNode = null;
-                try {
-                    jsonNode = objectMapper.readTree(responseBody);
-                } catch (JsonProcessingException ex) {
-                    log.error("Failed to parse response body: {}", ex.getMessage());
-                }
-
-                // Extract message and status
-                String message = jsonNode.get("message").asText();
-                String status = jsonNode.get("status").asText();
-
-                // Check the status to decide whether it's 401 or 404, etc.
-                HttpStatus httpStatus = HttpStatus.valueOf(status); // Convert the status string to HttpStatus
-
-                // Handle 404 NOT_FOUND specifically
-                if (httpStatus == HttpStatus.NOT_FOUND) {
-                    log.error("User not found: {}", message);
-                    // Here we throw a ClientException with 404 status
-                    throw new ClientException("Admin has not been created.  Please check before Proceeding", httpStatus);
-                } else if (httpStatus == HttpStatus.UNAUTHORIZED) {
-                    log.error("Authorization failed: {}", message);
-                    // Handle unauthorized error as you did earlier
-                    throw new ClientException(message, httpStatus);
-                } else {
-                    // If it's another error, we might still want to use a ResourceException
-                    throw new ResourceException("An error occurred while accessing auth-service.");
-                }
-            }
-            // Save the approval request in the database (Approval table)
-            Approval finaceApproval = Approval.builder()
-                    .expenseId(currentApproval.getExpenseId())
-                    .companyDomain(currentApproval.getCompanyDomain())
-                    .approverRole("ADMIN")
-                    .approvedBy(adminEmail)
-                    .status(ApprovalStatus.PENDING)
-                    .expenseDate(currentApproval.getExpenseDate())
-                    .approvalInitiationDate(LocalDateTime.now())
-                    .title(currentApproval.getTitle())
-                    .description(currentApproval.getDescription())
-                    .amount(currentApproval.getAmount())
-                    .category(currentApproval.getCategory())
-                    .build();
-            this.approvalRepository.save(finaceApproval);
-            // Approve and send to Admin
-            sendNextApproval(expenseId, title, description, amount, category, expenseDate, accessToken, adminEmail, "ADMIN");
-        } else if (role.equals("ADMIN")) {
-            // Final approval
-            currentApproval.setStatus(ApprovalStatus.APPROVED);
-            currentApproval.setApprovalCompletionDate(LocalDateTime.now());
-            approvalRepository.save(currentApproval);
+        if (workflow.getNotifiedApprovers() > workflow.getReceivedApprovals()) {
+            this.approvalRepository.cancelPending(expenseId, now);
         }
-    }
-
 
-    public void sendNextApproval(Long expenseId,
-                                 String title,
-                                 String description,
-                                 BigDecimal amount,
-                                 String category,
-                                 String expenseDate,
-                                 String accessToken,
-                                 String emailId,
-                                 String role) {
-
-        // Prepare the expense details as query parameters
-
-        String expenseDetails = "";
-        try {
-            expenseDetails = "expenseId=" + URLEncoder.encode(String.valueOf(expenseId), StandardCharsets.UTF_8) +
-                    "&amount=" + URLEncoder.encode(amount.toString(), StandardCharsets.UTF_8) +
-                    "&category=" + URLEncoder.encode(category, StandardCharsets.UTF_8) +
-                    "&description=" + URLEncoder.encode(description, StandardCharsets.UTF_8) +
-                    "&title=" + URLEncoder.encode(title, StandardCharsets.UTF_8) +
-                    "&expenseDate=" + URLEncoder.encode(expenseDate, StandardCharsets.UTF_8) +
-                    "&accessToken=" + URLEncoder.encode(accessToken, StandardCharsets.UTF_8) +
-                    "&emailId=" + URLEncoder.encode(emailId, StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            System.out.println(e.getMessage());
-
-        }
-
-        System.out.println("Encoded expense details: " + expenseDetails);
-
-        // Get healthy approval service URLs
-        List<String> healthyServiceUrls = getApprovalServiceUrls();
-
-        if (healthyServiceUrls.isEmpty()) {
-            // Handle error (e.g., no healthy instances available)
+        if (workflow.isLastStep()) {
+            // Final approval
+            workflow.setStatus(WorkflowStatus.APPROVED);
+            publishStatus(currentApproval, ExpenseStatus.APPROVED, workflow.approvalLevel());
             return;
         }
 
-        // Pick a random URL from the healthy services list
-        String approvalServiceUrl = healthyServiceUrls.getFirst();  // You can add more logic for load balancing if needed
-
-
-        // Prepare the approval/rejection links with the expense details and the role for the next approver
-        String approveLink = "http://" + approvalServiceUrl + "/approval-service/approve?" + expenseDetails + "&emailId=" + emailId + "&role=" + role;
-        String rejectLink = "http://" + approvalServiceUrl + "/approval-service/reject?" + expenseDetails + "&emailId=" + emailId + "&role=" + role;
-
-        System.out.println("Inside sendNextApproval method !!");
-        System.out.println("approveLink " + approveLink + " rejectLink " + rejectLink);
-        // Create the request body, including expense details and links
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("expenseDetails", expenseDetails);  // Sending full expense details
-        requestBody.put("approveLink", approveLink);        // Approval link
-        requestBody.put("rejectLink", rejectLink);          // Rejection link
-
-        System.out.println("Ready to sent another notification");
-        // Send the notification to the next approver
-        String notificationUrl = "http://notification-service/notification-service/";
-        try {
-            // Prepare headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + accessToken);  // Add the accessToken as Bearer token
-
-            // Your logic to call the notification service
-            // Wrap the body and headers into an HttpEntity
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            restTemplate.exchange(notificationUrl, HttpMethod.POST, entity, Void.class);
+        // Move on to the next step, its approvers are notified within this decision so a failed lookup rolls it back and the approver can retry
+        workflow.setCurrentStep(workflow.getCurrentStep() + 1);
+        workflow.setNotifiedApprovers(0);
+        workflow.setRequiredApprovals(0);
+        workflow.setReceivedApprovals(0);
+        publishStatus(currentApproval, ExpenseStatus.IN_REVIEW, workflow.approvalLevel());
+        approvalStepNotifier.notifyCurrentStep(workflow, currentApproval);
+    }
 
-        } catch (HttpClientErrorException | HttpServerErrorException e) {
-            // Log the error details
-            log.error("Error while calling notification service: {}", e.getMessage());
+    // Queues the status change for expense-service, ExpenseStatusEventRelay sends it once this transaction commits
+    private void publishStatus(Approval approval, ExpenseStatus expenseStatus, int approvalLevel) {
+        LocalDateTime now = LocalDateTime.now();
+        this.expenseStatusEventRepository.save(ExpenseStatusEvent.builder()
+                .expenseId(approval.getExpenseId())
+                .companyDomain(approval.getCompanyDomain())
+                .expenseStatus(expenseStatus)
+                .approvalLevel(approvalLevel)
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .occurredAt(now)
+                .build());
+    }
 
-            // Check if the status is 503 (Service Unavailable) and handle it
-            if (e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
-                // Return a more specific error response
-                throw new ResourceException("Notification service is currently unavailable. Please try again later.");
-            }
+    private ApprovalWorkflow findWorkflow(Long expenseId) {
+        return approvalWorkflowRepository.findByExpenseId(expenseId)
+                .orElseThrow(() -> new RuntimeException("No pending approval found for this expense."));
+    }
 
-            // If it’s some other type of error, you can throw a different exception or handle accordingly
-            throw new ResourceException("An error occurred while accessing the notification service.");
+    private Approval findPendingRequest(ApprovalWorkflow workflow, String emailId, String role) {
+        if (workflow.getStatus() != WorkflowStatus.IN_PROGRESS) {
+            throw new RuntimeException("The approval of this expense is already " + workflow.getStatus() + ".");
         }
-        System.out.println("Notification sent");
+        return approvalRepository.findByExpenseIdAndApprovedByAndApproverRoleAndStatus(
+                        workflow.getExpenseId(), emailId, role, ApprovalStatus.PENDING)
+                .orElseThrow(() -> new RuntimeException("No pending approval found for this expense for this role."));
     }
 
     @Override
+    @Retry(name = "approvalStepRetry")
     public void rejectExpenseFromEmail(Long expenseId,
                                        String title,
                                        String description,
@@ -836,33 +403,19 @@ public class ApprovalServiceImpl implements ApprovalService {
                                        String expenseDate,
                                        String emailId,
                                        String role) {
-
-        // Fetch the expense approval request from the database
-        List<Approval> approvals = approvalRepository.findByExpenseIdAndStatus(expenseId, ApprovalStatus.PENDING);
-        if (approvals.isEmpty()) {
-            throw new RuntimeException("No pending approval found for this expense.");
-        }
-
-        // Handle rejection based on role
-        Approval currentApproval = approvals.stream()
-                .filter(a -> a.getApproverRole().equals(role))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("No approval found for role: " + role));
-
-        if (role.equals("MANAGER")) {
-            // Update the status to REJECTED
-            currentApproval.setStatus(ApprovalStatus.REJECTED);
-            currentApproval.setApprovalCompletionDate(LocalDateTime.now());
-            approvalRepository.save(currentApproval);
-        } else if (role.equals("FINANCE")) {
-            currentApproval.setStatus(ApprovalStatus.REJECTED);
-            currentApproval.setApprovalCompletionDate(LocalDateTime.now());
-            this.approvalRepository.save(currentApproval);
-        } else if (role.equals("ADMIN")) {
-            currentApproval.setStatus(ApprovalStatus.REJECTED);
-            currentApproval.setApprovalCompletionDate(LocalDateTime.now());
-            this.approvalRepository.save(currentApproval);
+        ApprovalWorkflow workflow = findWorkflow(expenseId);
+        Approval currentApproval = findPendingRequest(workflow, emailId, role);
+        LocalDateTime now = LocalDateTime.now();
+        currentApproval.setStatus(ApprovalStatus.REJECTED);
+        currentApproval.setApprovalCompletionDate(now);
+
+        // A single rejection ends the whole chain
+        workflow.setStatus(WorkflowStatus.REJECTED);
+        workflow.setUpdatedAt(now);
+        if (workflow.getNotifiedApprovers() > 1) {
+            this.approvalRepository.cancelPending(expenseId, now);
         }
+        publishStatus(currentApproval, ExpenseStatus.REJECTED, workflow.approvalLevel());
     }
 
     @Override
@@ -871,4 +424,9 @@ public class ApprovalServiceImpl implements ApprovalService {
         return this.approvalRepository.existsByExpenseIdAndApprovedByAndStatusIn(expenseId, employeeEmail, statusList);
     }
 
+    @Override
+    public boolean hasApprovalRequest(Long expenseId) {
+        return this.approvalRepository.existsByExpenseId(expenseId);
+    }
+
 }
@@ -0,0 +1,102 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.dto.response.UserResponse;
+import com.madeeasy.entity.Approval;
+import com.madeeasy.entity.ApprovalMode;
+import com.madeeasy.entity.ApprovalStatus;
+import com.madeeasy.entity.ApprovalWorkflow;
+import com.madeeasy.entity.NotificationDispatch;
+import com.madeeasy.entity.WorkflowStep;
+import com.madeeasy.exception.ResourceException;
+import com.madeeasy.repository.ApprovalRepository;
+import com.madeeasy.repository.ApprovalWorkflowRepository;
+import com.madeeasy.service.ApprovalStepNotifier;
+import com.madeeasy.service.ApproverDirectoryService;
+import com.madeeasy.service.LinkInstanceSelector;
+import com.madeeasy.service.NotificationDispatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApprovalStepNotifierImpl implements ApprovalStepNotifier {
+
+    private final ApprovalRepository approvalRepository;
+    private final ApprovalWorkflowRepository approvalWorkflowRepository;
+    private final ApproverDirectoryService approverDirectoryService;
+    private final LinkInstanceSelector linkInstanceSelector;
+    private final NotificationDispatchService notificationDispatchService;
+
+    @Override
+    public void notifyCurrentStep(ApprovalWorkflow workflow, Approval expense) {
+        WorkflowStep step = workflow.currentStepDefinition();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Approval> requests = new ArrayList<>();
+        for (String role : step.roles()) {
+            for (UserResponse approver : approverDirectoryService.findApprovers(workflow.getCompanyDomain(), role)) {
+                requests.add(Approval.builder()
+                        .expenseId(expense.getExpenseId())
+                        .companyDomain(expense.getCompanyDomain())
+                        .approverRole(role)
+                        .approvedBy(approver.getEmail())
+                        .status(ApprovalStatus.PENDING)
+                        .expenseDate(expense.getExpenseDate())
+                        .approvalInitiationDate(now)
+                        .title(expense.getTitle())
+                        .description(expense.getDescription())
+                        .amount(expense.getAmount())
+                        .category(expense.getCategory())
+                        .build());
+            }
+        }
+
+        String approvalServiceUrl = linkInstanceSelector.selectInstance(workflow.getExpenseId());
+        if (approvalServiceUrl == null) {
+            throw new ResourceException("No approval-service instance is available for the approval links. Please try again later.");
+        }
+
+        approvalRepository.saveAll(requests);
+        workflow.setNotifiedApprovers(requests.size());
+        workflow.setRequiredApprovals(step.mode() == ApprovalMode.ALL ? requests.size() : 1);
+        workflow.setReceivedApprovals(0);
+        workflow.setUpdatedAt(now);
+        approvalWorkflowRepository.save(workflow);
+
+        for (Approval request : requests) {
+            enqueueNotification(approvalServiceUrl, request);
+        }
+        log.info("Expense {} step {} queued for {} approver(s)", workflow.getExpenseId(), workflow.approvalLevel(), requests.size());
+    }
+
+    private void enqueueNotification(String approvalServiceUrl, Approval request) {
+        String expenseDetails = "expenseId=" + URLEncoder.encode(String.valueOf(request.getExpenseId()), StandardCharsets.UTF_8) +
+                "&title=" + URLEncoder.encode(request.getTitle(), StandardCharsets.UTF_8) +
+                "&description=" + URLEncoder.encode(request.getDescription(), StandardCharsets.UTF_8) +
+                "&amount=" + URLEncoder.encode(String.valueOf(request.getAmount()), StandardCharsets.UTF_8) +
+                "&category=" + URLEncoder.encode(String.valueOf(request.getCategory()), StandardCharsets.UTF_8) +
+                "&expenseDate=" + URLEncoder.encode(request.getExpenseDate().toString(), StandardCharsets.UTF_8) +
+                "&emailId=" + URLEncoder.encode(request.getApprovedBy(), StandardCharsets.UTF_8);
+
+        String approveLink = "http://" + approvalServiceUrl + "/approval-service/approve?" + expenseDetails + "&emailId=" + request.getApprovedBy() + "&role=" + request.getApproverRole();
+        String rejectLink = "http://" + approvalServiceUrl + "/approval-service/reject?" + expenseDetails + "&emailId=" + request.getApprovedBy() + "&role=" + request.getApproverRole();
+
+        // Sent by the dispatch relay once this transaction has committed
+        notificationDispatchService.enqueue(NotificationDispatch.builder()
+                .expenseId(request.getExpenseId())
+                .approverEmail(request.getApprovedBy())
+                .approverRole(request.getApproverRole())
+                .expenseDetails(expenseDetails)
+                .approveLink(approveLink)
+                .rejectLink(rejectLink)
+                .build());
+    }
+}
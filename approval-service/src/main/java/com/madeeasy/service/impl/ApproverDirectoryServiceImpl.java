@@ -0,0 +1,210 @@
+package com.madeeasy.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.madeeasy.config.ApproverDirectoryProperties;
+import com.madeeasy.dto.response.UserResponse;
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.exception.ResourceException;
+import com.madeeasy.security.config.InternalServiceProperties;
+import com.madeeasy.service.ApproverDirectoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches approvers per (company, role) so approval steps do not call auth-service every time.
+ * <p>
+ * A miss on one of the approver roles loads every approver role of the company with a single
+ * auth-service call. Roles nobody holds are cached as empty, so they do not hit auth-service either.
+ * auth-service reports user and role changes, which drop the affected entries. The TTL bounds how
+ * stale an entry gets when such a report is lost.
+ */
+@Slf4j
+@Service
+public class ApproverDirectoryServiceImpl implements ApproverDirectoryService {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final RestTemplate restTemplate;
+    private final ApproverDirectoryProperties properties;
+    private final InternalServiceProperties internalServiceProperties;
+    private final Cache<ApproverKey, List<UserResponse>> approvers;
+    // Bumped on every invalidation, a load that overlapped one is not cached as it may hold the old users
+    private final AtomicLong generation = new AtomicLong();
+
+    public ApproverDirectoryServiceImpl(RestTemplate restTemplate,
+                                        ApproverDirectoryProperties properties,
+                                        InternalServiceProperties internalServiceProperties,
+                                        MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.properties = properties;
+        this.internalServiceProperties = internalServiceProperties;
+        this.approvers = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, approvers, "approval.approver-directory");
+    }
+
+    @Override
+    public List<UserResponse> findApprovers(String companyDomain, String role) {
+        ApproverKey key = new ApproverKey(companyDomain, role);
+        List<UserResponse> users = approvers.getIfPresent(key);
+        if (users == null) {
+            if (properties.getApproverRoles().contains(role)) {
+                users = loadCompany(companyDomain).get(key);
+            } else {
+                long loadGeneration = generation.get();
+                users = loadRole(companyDomain, role);
+                cacheIfCurrent(Map.of(key, users), loadGeneration);
+            }
+        }
+        if (users == null || users.isEmpty()) {
+            throw new ClientException(notCreatedMessage(role), HttpStatus.NOT_FOUND);
+        }
+        return users;
+    }
+
+    @Override
+    public void warmUp(String companyDomain) {
+        Map<ApproverKey, List<UserResponse>> loaded = loadCompany(companyDomain);
+        log.info("Approver directory of {} warmed up with {} roles", companyDomain, loaded.size());
+    }
+
+    @Override
+    public void invalidate(String companyDomain, String role) {
+        generation.incrementAndGet();
+        if (role == null || role.isBlank()) {
+            approvers.asMap().keySet().removeIf(key -> key.companyDomain().equals(companyDomain));
+        } else {
+            approvers.invalidate(new ApproverKey(companyDomain, role.trim().toUpperCase(Locale.ROOT)));
+        }
+        log.debug("Approver directory entries of {} role {} invalidated", companyDomain, role);
+    }
+
+    // Every approver role of the company in one call; roles nobody holds map to an empty list
+    private Map<ApproverKey, List<UserResponse>> loadCompany(String companyDomain) {
+        long loadGeneration = generation.get();
+        List<String> roles = properties.getApproverRoles();
+        String authUrlToGetUsers = UriComponentsBuilder.fromUriString("http://auth-service/auth-service/get-users/{companyDomain}")
+                .queryParam("roles", roles.toArray())
+                .buildAndExpand(companyDomain)
+                .toUriString();
+        List<UserResponse> users;
+        try {
+            users = restTemplate.exchange(authUrlToGetUsers, HttpMethod.GET,
+                    new HttpEntity<>(authorizationHeaders()), new ParameterizedTypeReference<List<UserResponse>>() {
+                    }).getBody();
+        } catch (HttpClientErrorException e) {
+            log.error("HTTP error occurred: {}", e.getResponseBodyAsString());
+            throw translate(e, String.join("/", roles));
+        }
+
+        Map<ApproverKey, List<UserResponse>> byRole = new HashMap<>();
+        for (String role : roles) {
+            byRole.put(new ApproverKey(companyDomain, role), new ArrayList<>());
+        }
+        if (users != null) {
+            for (UserResponse user : users) {
+                List<UserResponse> roleUsers = byRole.get(new ApproverKey(companyDomain, user.getRole()));
+                if (roleUsers != null) {
+                    roleUsers.add(user);
+                }
+            }
+        }
+        byRole.replaceAll((key, roleUsers) -> List.copyOf(roleUsers));
+        cacheIfCurrent(byRole, loadGeneration);
+        return byRole;
+    }
+
+    private List<UserResponse> loadRole(String companyDomain, String role) {
+        String authUrlToGetUser = "http://auth-service/auth-service/get-user/" + companyDomain + "/" + role;
+        try {
+            List<UserResponse> userResponseList = restTemplate.exchange(authUrlToGetUser, HttpMethod.GET,
+                    new HttpEntity<>(authorizationHeaders()), new ParameterizedTypeReference<List<UserResponse>>() {
+                    }).getBody();
+            return userResponseList != null ? List.copyOf(userResponseList) : List.of();
+        } catch (HttpClientErrorException.NotFound e) {
+            // Nobody holds the role
+            return List.of();
+        } catch (HttpClientErrorException e) {
+            log.error("HTTP error occurred: {}", e.getResponseBodyAsString());
+            throw translate(e, role);
+        }
+    }
+
+    private void cacheIfCurrent(Map<ApproverKey, List<UserResponse>> entries, long loadGeneration) {
+        if (generation.get() == loadGeneration) {
+            approvers.putAll(entries);
+        }
+    }
+
+    // auth-service is called with the internal service credential, lookups never depend on a user's token
+    private HttpHeaders authorizationHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(InternalServiceProperties.HEADER, internalServiceProperties.getToken());
+        return headers;
+    }
+
+    // Maps the auth-service error body ({"status": ..., "message": ...}) to the exception the GlobalExceptionHandler expects
+    private static RuntimeException translate(HttpClientErrorException e, String role) {
+        JsonNode jsonNode = null;
+        try {
+            jsonNode = OBJECT_MAPPER.readTree(e.getResponseBodyAsString());
+        } catch (JsonProcessingException ex) {
+            log.error("Failed to parse response body: {}", ex.getMessage());
+        }
+        if (jsonNode == null || !jsonNode.hasNonNull("message") || !jsonNode.hasNonNull("status")) {
+            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+                return new ClientException("Authorization failed, unable to parse error response", HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            return new ResourceException("An error occurred while accessing auth-service.");
+        }
+
+        String message = jsonNode.get("message").asText();
+        HttpStatus httpStatus;
+        try {
+            httpStatus = HttpStatus.valueOf(jsonNode.get("status").asText());
+        } catch (IllegalArgumentException e2) {
+            httpStatus = HttpStatus.resolve(e.getStatusCode().value());
+        }
+
+        if (httpStatus == HttpStatus.NOT_FOUND) {
+            log.error("User not found: {}", message);
+            return new ClientException(notCreatedMessage(role), httpStatus);
+        } else if (httpStatus == HttpStatus.UNAUTHORIZED) {
+            log.error("Authorization failed: {}", message);
+            return new ClientException(message, httpStatus);
+        }
+        return new ResourceException("An error occurred while accessing auth-service.");
+    }
+
+    private static String notCreatedMessage(String role) {
+        String name = role.charAt(0) + role.substring(1).toLowerCase(Locale.ROOT);
+        return name + " has not been created. Please check before Proceeding";
+    }
+
+    private record ApproverKey(String companyDomain, String role) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.config.LinkSelectionProperties;
+import com.madeeasy.config.LinkSelectionStrategy;
+import com.madeeasy.service.InstanceSelectionStrategy;
+import com.madeeasy.vo.ApprovalInstance;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Maps every expense to the same instance as long as that instance stays healthy, so the
+ * manager, finance and admin links of one expense land on the same replica.
+ * <p>
+ * Each instance owns {@code virtualNodes * weight} points on a hash ring; when an instance
+ * joins or leaves, only the expenses next to its points move.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConsistentHashSelectionStrategy implements InstanceSelectionStrategy {
+
+    private final LinkSelectionProperties linkSelectionProperties;
+
+    // Rebuilt only when an instance joins, leaves or changes weight, load changes leave the ring as it is
+    private volatile Ring ring = new Ring(Set.of(), new TreeMap<>());
+
+    @Override
+    public LinkSelectionStrategy type() {
+        return LinkSelectionStrategy.CONSISTENT_HASH;
+    }
+
+    @Override
+    public ApprovalInstance select(List<ApprovalInstance> instances, Long expenseId) {
+        Ring current = ring;
+        Set<Node> nodes = instances.stream()
+                .map(instance -> new Node(instance.address(), instance.weight()))
+                .collect(Collectors.toUnmodifiableSet());
+        if (!current.nodes().equals(nodes)) {
+            current = buildRing(instances, nodes);
+            ring = current;
+        }
+        Map.Entry<Long, ApprovalInstance> entry = current.points().ceilingEntry(hash("expense-" + expenseId));
+        return entry != null ? entry.getValue() : current.points().firstEntry().getValue();
+    }
+
+    private Ring buildRing(List<ApprovalInstance> instances, Set<Node> nodes) {
+        TreeMap<Long, ApprovalInstance> points = new TreeMap<>();
+        for (ApprovalInstance instance : instances) {
+            int count = linkSelectionProperties.getVirtualNodes() * instance.weight();
+            for (int i = 0; i < count; i++) {
+                points.put(hash(instance.address() + "#" + i), instance);
+            }
+        }
+        return new Ring(nodes, points);
+    }
+
+    // First 8 bytes of the MD5 digest, spread evenly over the ring unlike String.hashCode
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+
+    // What the points of an instance depend on
+    private record Node(String address, int weight) {
+    }
+
+    private record Ring(Set<Node> nodes, TreeMap<Long, ApprovalInstance> points) {
+    }
+}
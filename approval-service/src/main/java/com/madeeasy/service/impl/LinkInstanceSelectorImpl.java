@@ -0,0 +1,59 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.config.LinkSelectionProperties;
+import com.madeeasy.config.LinkSelectionStrategy;
+import com.madeeasy.service.ApprovalInstanceRegistry;
+import com.madeeasy.service.InstanceSelectionStrategy;
+import com.madeeasy.service.LinkInstanceSelector;
+import com.madeeasy.vo.ApprovalInstance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chooses the instance of the approve/reject links with the configured {@link LinkSelectionStrategy}
+ * and counts the links handed out per instance ('approval.links.issued').
+ */
+@Slf4j
+@Service
+public class LinkInstanceSelectorImpl implements LinkInstanceSelector {
+
+    private final ApprovalInstanceRegistry approvalInstanceRegistry;
+    private final LinkSelectionProperties linkSelectionProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<LinkSelectionStrategy, InstanceSelectionStrategy> strategies = new EnumMap<>(LinkSelectionStrategy.class);
+
+    public LinkInstanceSelectorImpl(ApprovalInstanceRegistry approvalInstanceRegistry,
+                                    LinkSelectionProperties linkSelectionProperties,
+                                    MeterRegistry meterRegistry,
+                                    List<InstanceSelectionStrategy> strategies) {
+        this.approvalInstanceRegistry = approvalInstanceRegistry;
+        this.linkSelectionProperties = linkSelectionProperties;
+        this.meterRegistry = meterRegistry;
+        strategies.forEach(strategy -> this.strategies.put(strategy.type(), strategy));
+    }
+
+    @Override
+    public String selectInstance(Long expenseId) {
+        List<ApprovalInstance> instances = approvalInstanceRegistry.getHealthyInstances();
+        if (instances.isEmpty()) {
+            log.warn("No healthy approval-service instance for the links of expense {}", expenseId);
+            return null;
+        }
+        LinkSelectionStrategy type = linkSelectionProperties.getStrategy();
+        ApprovalInstance instance = strategies.get(type).select(instances, expenseId);
+
+        Counter.builder("approval.links.issued")
+                .description("Approve/reject links handed out, per target instance")
+                .tag("instance", instance.address())
+                .tag("strategy", type.name())
+                .register(meterRegistry)
+                .increment();
+        return instance.address();
+    }
+}
@@ -0,0 +1,66 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.dto.response.NotificationDeadLetterResponse;
+import com.madeeasy.entity.NotificationDispatch;
+import com.madeeasy.entity.OutboxStatus;
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.repository.NotificationDispatchRepository;
+import com.madeeasy.service.NotificationDispatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationDispatchServiceImpl implements NotificationDispatchService {
+
+    private final NotificationDispatchRepository notificationDispatchRepository;
+
+    @Override
+    @Transactional
+    public void enqueue(NotificationDispatch notification) {
+        LocalDateTime now = LocalDateTime.now();
+        notification.setStatus(OutboxStatus.PENDING);
+        notification.setAttempts(0);
+        notification.setNextAttemptAt(now);
+        notification.setCreatedAt(now);
+        notificationDispatchRepository.save(notification);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotificationDeadLetterResponse> getDeadLetters(int limit) {
+        return notificationDispatchRepository.findByStatusOrderByIdDesc(OutboxStatus.FAILED, Limit.of(limit)).stream()
+                .map(notification -> NotificationDeadLetterResponse.builder()
+                        .id(notification.getId())
+                        .expenseId(notification.getExpenseId())
+                        .approverEmail(notification.getApproverEmail())
+                        .approverRole(notification.getApproverRole())
+                        .attempts(notification.getAttempts())
+                        .lastError(notification.getLastError())
+                        .createdAt(notification.getCreatedAt())
+                        .lastAttemptAt(notification.getLastAttemptAt())
+                        .build())
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void requeue(Long id) {
+        NotificationDispatch notification = notificationDispatchRepository.findById(id)
+                .filter(found -> found.getStatus() == OutboxStatus.FAILED)
+                .orElseThrow(() -> new ClientException("Dead letter not found with id : " + id, HttpStatus.NOT_FOUND));
+
+        notification.setStatus(OutboxStatus.PENDING);
+        notification.setAttempts(0);
+        notification.setNextAttemptAt(LocalDateTime.now());
+        log.info("Notification {} of expense {} requeued", id, notification.getExpenseId());
+    }
+}
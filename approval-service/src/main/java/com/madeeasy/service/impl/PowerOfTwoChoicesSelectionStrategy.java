@@ -0,0 +1,40 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.config.LinkSelectionStrategy;
+import com.madeeasy.service.InstanceSelectionStrategy;
+import com.madeeasy.vo.ApprovalInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples two distinct instances at random and takes the one with the lower published load.
+ * <p>
+ * Load reaches this instance through Eureka metadata and is therefore a few tens of seconds old;
+ * comparing only two random candidates keeps every node from piling onto the same "least loaded"
+ * instance until the next update arrives.
+ */
+@Component
+public class PowerOfTwoChoicesSelectionStrategy implements InstanceSelectionStrategy {
+
+    @Override
+    public LinkSelectionStrategy type() {
+        return LinkSelectionStrategy.POWER_OF_TWO_CHOICES;
+    }
+
+    @Override
+    public ApprovalInstance select(List<ApprovalInstance> instances, Long expenseId) {
+        int size = instances.size();
+        if (size == 1) {
+            return instances.getFirst();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        // Second pick skips the first one
+        int second = (first + 1 + random.nextInt(size - 1)) % size;
+        ApprovalInstance a = instances.get(first);
+        ApprovalInstance b = instances.get(second);
+        return b.load() < a.load() ? b : a;
+    }
+}
@@ -0,0 +1,47 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.config.LinkSelectionStrategy;
+import com.madeeasy.service.InstanceSelectionStrategy;
+import com.madeeasy.vo.ApprovalInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Smooth weighted round-robin: every pick adds each instance's weight to its running score,
+ * takes the highest score and subtracts the total weight from it. Weights 5/1/1 give
+ * a, a, b, a, c, a, a rather than five a's in a row.
+ */
+@Component
+public class WeightedRoundRobinSelectionStrategy implements InstanceSelectionStrategy {
+
+    // Running score per 'host:port'; entries of instances that left are dropped on the next pick
+    private final Map<String, Integer> scores = new HashMap<>();
+
+    @Override
+    public LinkSelectionStrategy type() {
+        return LinkSelectionStrategy.WEIGHTED_ROUND_ROBIN;
+    }
+
+    @Override
+    public synchronized ApprovalInstance select(List<ApprovalInstance> instances, Long expenseId) {
+        if (scores.size() > instances.size()) {
+            scores.keySet().retainAll(instances.stream().map(ApprovalInstance::address).toList());
+        }
+        ApprovalInstance best = null;
+        int bestScore = Integer.MIN_VALUE;
+        int totalWeight = 0;
+        for (ApprovalInstance instance : instances) {
+            int score = scores.merge(instance.address(), instance.weight(), Integer::sum);
+            totalWeight += instance.weight();
+            if (score > bestScore) {
+                best = instance;
+                bestScore = score;
+            }
+        }
+        scores.put(best.address(), bestScore - totalWeight);
+        return best;
+    }
+}
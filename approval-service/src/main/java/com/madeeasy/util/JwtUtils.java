@@ -107,6 +107,12 @@ public class JwtUtils {
     }
 
 
+    // Company the user belonged to when signing in, null for tokens issued before joining a company
+    public String getCompanyDomainFromToken(String token) {
+        Object companyDomain = getAllClaims(token).get("companyDomain");
+        return companyDomain instanceof String ? (String) companyDomain : null;
+    }
+
     public String getRoleFromToken(String token) {
         Claims claims = getAllClaims(token);
 
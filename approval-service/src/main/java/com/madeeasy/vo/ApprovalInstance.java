@@ -0,0 +1,37 @@
+package com.madeeasy.vo;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Map;
+
+/**
+ * A healthy approval-service instance that approve/reject links can point at.
+ *
+ * @param address 'host:port' used in the links
+ * @param weight  relative share for weighted round-robin, from the 'weight' Eureka metadata (default 1)
+ * @param load    recent peak of link clicks in flight on the instance, from the 'link-load' Eureka metadata
+ */
+public record ApprovalInstance(String address, int weight, int load) {
+
+    public static final String WEIGHT_METADATA = "weight";
+    public static final String LOAD_METADATA = "link-load";
+
+    public static ApprovalInstance of(ServiceInstance instance) {
+        Map<String, String> metadata = instance.getMetadata();
+        return new ApprovalInstance(instance.getHost() + ":" + instance.getPort(),
+                Math.max(1, intMetadata(metadata, WEIGHT_METADATA, 1)),
+                Math.max(0, intMetadata(metadata, LOAD_METADATA, 0)));
+    }
+
+    private static int intMetadata(Map<String, String> metadata, String key, int defaultValue) {
+        String value = metadata != null ? metadata.get(key) : null;
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
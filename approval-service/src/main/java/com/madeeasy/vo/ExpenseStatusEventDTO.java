@@ -0,0 +1,21 @@
+package com.madeeasy.vo;
+
+import com.madeeasy.entity.ExpenseStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseStatusEventDTO {
+    private Long sequence;
+    private Long expenseId;
+    private ExpenseStatus status;
+    private Integer approvalLevel;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,13 @@
+package com.madeeasy.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationFailure {
+    private int index; // Position of the failed notification in the batch sent to notification-service
+    private String error;
+}
@@ -0,0 +1,33 @@
+package com.madeeasy.config;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class ApproverDirectoryConfig {
+
+    // Not load-balanced: a change has to reach every approval-service instance, not one of them
+    @Bean
+    public RestTemplate approverChangeRestTemplate(RestTemplateBuilder builder, ApproverDirectoryProperties properties) {
+        return builder
+                .connectTimeout(properties.getTimeout())
+                .readTimeout(properties.getTimeout())
+                .build();
+    }
+
+    // Changes are sent after the user's transaction commits, a full queue drops them and the approval-service TTL takes over
+    @Bean
+    public ThreadPoolTaskExecutor approverChangeExecutor(ApproverDirectoryProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("approver-change-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
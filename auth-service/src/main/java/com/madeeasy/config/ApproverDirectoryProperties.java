@@ -0,0 +1,17 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.approver-directory")
+public class ApproverDirectoryProperties {
+    private String serviceId = "approval-service"; // Every instance of it caches approvers and is told about changes
+    private Duration timeout = Duration.ofSeconds(2);
+    private int poolSize = 2;
+    private int queueCapacity = 1000;
+}
@@ -18,6 +18,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -193,6 +194,29 @@ public class AuthController {
         return ResponseEntity.ok(authService.getUserDetailsByCompanyDomainAndRole(companyDomain, role.toUpperCase()));
     }
 
+    @Tag(
+            name = "User Management",
+            description = "Manages user-related operations such as fetching user details, updating profiles, and retrieving users based on company and role. These endpoints allow administrators to handle user profiles, including partial updates and retrieval of users for a specific company or role."
+    )
+    @Operation(
+            summary = "Get Users by Company and Roles",
+            description = "Fetch the users of a company holding any of the given roles in one call. Returns an empty list when nobody holds them.",
+            tags = {"User Management"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid roles provided", content = @Content(schema = @Schema(implementation = String.class)))
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/get-users/{companyDomain}")
+    public ResponseEntity<List<AuthResponse>> getUsersByCompanyAndRoles(
+            @Parameter(description = "Company domain", required = true)
+            @PathVariable String companyDomain,
+            @Parameter(description = "User roles", required = true)
+            @RequestParam List<String> roles) {
+        return ResponseEntity.ok(authService.getUserDetailsByCompanyDomainAndRoles(companyDomain, roles));
+    }
+
     @Tag(
             name = "User Management",
             description = "Manages user-related operations such as fetching user details, updating profiles, and retrieving users based on company and role. These endpoints allow administrators to handle user profiles, including partial updates and retrieval of users for a specific company or role."
@@ -5,6 +5,7 @@ import com.madeeasy.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByCompanyDomainAndRole(String companyDomain, Role role);
 
+    List<User> findByCompanyDomainAndRoleIn(String companyDomain, Collection<Role> roles);
+
     boolean existsByEmail(String email);
 
     boolean existsByPhone(String phone);
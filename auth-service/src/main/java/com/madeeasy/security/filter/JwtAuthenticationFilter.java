@@ -6,6 +6,7 @@ import com.madeeasy.entity.User;
 import com.madeeasy.exception.TokenException;
 import com.madeeasy.repository.TokenRepository;
 import com.madeeasy.repository.UserRepository;
+import com.madeeasy.security.config.InternalServiceProperties;
 import com.madeeasy.security.config.SecurityConfigProperties;
 import com.madeeasy.util.JwtUtils;
 import jakarta.servlet.FilterChain;
@@ -43,11 +44,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final TokenRepository tokenRepository;
     private final ObjectMapper objectMapper;
     private final SecurityConfigProperties securityConfigProperties;
+    private final InternalServiceProperties internalServiceProperties;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
+        // Calls from other services carry the internal credential instead of a user's access token
+        String internalToken = request.getHeader(InternalServiceProperties.HEADER);
+        if (internalToken != null) {
+            if (!internalServiceProperties.matches(internalToken)) {
+                handleInvalidToken(response, "Invalid internal service credential.");
+                return; // Exit the filter chain
+            }
+            UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                    InternalServiceProperties.PRINCIPAL, null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + InternalServiceProperties.ROLE)));
+            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
 
         // Check if the request URI requires authorization and validate method
         if (requiresAuthorization(request)) {
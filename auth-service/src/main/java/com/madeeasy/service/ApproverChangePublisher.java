@@ -0,0 +1,13 @@
+package com.madeeasy.service;
+
+/**
+ * Tells every approval-service instance that the users holding a role of a company changed,
+ * so their cached approvers are reloaded.
+ */
+public interface ApproverChangePublisher {
+
+    /**
+     * Reported once the current transaction commits; role null means every role of the company.
+     */
+    void userChanged(String companyDomain, String role);
+}
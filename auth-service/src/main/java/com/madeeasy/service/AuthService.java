@@ -25,4 +25,6 @@ public interface AuthService {
 
     void updateEmployeeDomains(DomainUpdateRequest domainUpdateRequest);
     List<AuthResponse> getUserDetailsByCompanyDomainAndRole(String companyDomain, String role);
+
+    List<AuthResponse> getUserDetailsByCompanyDomainAndRoles(String companyDomain, List<String> roles);
 }
@@ -0,0 +1,105 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.config.ApproverDirectoryProperties;
+import com.madeeasy.security.config.InternalServiceProperties;
+import com.madeeasy.service.ApproverChangePublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApproverChangePublisherImpl implements ApproverChangePublisher {
+
+    private final DiscoveryClient discoveryClient;
+    private final RestTemplate approverChangeRestTemplate;
+    private final ThreadPoolTaskExecutor approverChangeExecutor;
+    private final ApproverDirectoryProperties properties;
+    private final InternalServiceProperties internalServiceProperties;
+
+    @Override
+    public void userChanged(String companyDomain, String role) {
+        if (companyDomain == null || companyDomain.isBlank()) {
+            // Users without a company are never approvers
+            return;
+        }
+        Change change = new Change(companyDomain, role);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(Set.of(change));
+            return;
+        }
+
+        // Changes of one transaction go out together once it commits
+        @SuppressWarnings("unchecked")
+        Set<Change> pending = (Set<Change>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            Set<Change> changes = pending;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ApproverChangePublisherImpl.this);
+                }
+            });
+        }
+        pending.add(change);
+    }
+
+    private void send(Set<Change> changes) {
+        List<Map<String, String>> body = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            Map<String, String> entry = new HashMap<>();
+            entry.put("companyDomain", change.companyDomain());
+            entry.put("role", change.role());
+            body.add(entry);
+        }
+        try {
+            approverChangeExecutor.execute(() -> broadcast(body));
+        } catch (TaskRejectedException e) {
+            log.warn("Approver change dropped, approval-service picks it up when its cache expires: {}", body);
+        }
+    }
+
+    private void broadcast(List<Map<String, String>> body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(InternalServiceProperties.HEADER, internalServiceProperties.getToken());
+        HttpEntity<List<Map<String, String>>> entity = new HttpEntity<>(body, headers);
+
+        for (ServiceInstance instance : discoveryClient.getInstances(properties.getServiceId())) {
+            String url = instance.getUri() + "/approval-service/approver-directory/invalidate";
+            try {
+                approverChangeRestTemplate.postForEntity(url, entity, Void.class);
+            } catch (Exception e) {
+                log.warn("Could not report approver change to {}: {}", instance.getUri(), e.getMessage());
+            }
+        }
+    }
+
+    private record Change(String companyDomain, String role) {
+    }
+}
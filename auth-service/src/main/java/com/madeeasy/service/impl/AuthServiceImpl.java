@@ -13,6 +13,7 @@ import com.madeeasy.exception.ClientException;
 import com.madeeasy.exception.TokenException;
 import com.madeeasy.repository.TokenRepository;
 import com.madeeasy.repository.UserRepository;
+import com.madeeasy.service.ApproverChangePublisher;
 import com.madeeasy.service.AuthService;
 import com.madeeasy.util.JwtUtils;
 import com.madeeasy.vo.Company;
@@ -50,6 +51,7 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final RestTemplate restTemplate;
     private final HttpServletRequest httpServletRequest;
+    private final ApproverChangePublisher approverChangePublisher;
 
     @Override
     public AuthResponse singUp(AuthRequest authRequest) {
@@ -158,6 +160,7 @@ public class AuthServiceImpl implements AuthService {
             if (isCompanyExists) {
                 user.setCompanyDomain(company.getDomain());
                 User savedUser = userRepository.save(user);
+                approverChangePublisher.userChanged(savedUser.getCompanyDomain(), savedUser.getRole().name());
 
 
                 String accessToken = jwtUtils.generateAccessTokenWithCompanyDomain(user.getEmail(), user.getRole().name(), user.getCompanyDomain());
@@ -362,6 +365,9 @@ public class AuthServiceImpl implements AuthService {
                 });
 
         User user = userRepository.findByEmail(emailId).orElseThrow(() -> new UsernameNotFoundException("Email not found"));
+        // Approvers cached under the previous company and role have to be dropped as well
+        String previousCompanyDomain = user.getCompanyDomain();
+        Role previousRole = user.getRole();
 
         if (userRequest.getFullName() != null && !userRequest.getFullName().isBlank()) {
             user.setFullName(userRequest.getFullName());
@@ -438,6 +444,8 @@ public class AuthServiceImpl implements AuthService {
         if (companyServiceHeader != null && companyServiceHeader.equals("expense-tracker-app")) {
             user.setCompanyDomain(userRequest.getCompanyDomain());
             userRepository.save(user);
+            approverChangePublisher.userChanged(previousCompanyDomain, previousRole.name());
+            approverChangePublisher.userChanged(user.getCompanyDomain(), user.getRole().name());
 
             return AuthResponse.builder()
                     .status(HttpStatus.OK)
@@ -524,6 +532,8 @@ public class AuthServiceImpl implements AuthService {
         if (isCompanyExists) {
             user.setCompanyDomain(company.getDomain());
             User savedUser = userRepository.save(user);
+            approverChangePublisher.userChanged(previousCompanyDomain, previousRole.name());
+            approverChangePublisher.userChanged(savedUser.getCompanyDomain(), savedUser.getRole().name());
 
             if (userRequest.getRole() != null || userRequest.getEmail() != null) {
 
@@ -620,6 +630,8 @@ public class AuthServiceImpl implements AuthService {
         }
         // Save the updated users
         userRepository.saveAll(users);
+        approverChangePublisher.userChanged(domainUpdateRequest.getOldDomain(), null);
+        approverChangePublisher.userChanged(domainUpdateRequest.getNewDomain(), null);
     }
 
     @Override
@@ -641,4 +653,26 @@ public class AuthServiceImpl implements AuthService {
                         .build())
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public List<AuthResponse> getUserDetailsByCompanyDomainAndRoles(String companyDomain, List<String> roles) {
+        List<Role> requestedRoles;
+        try {
+            requestedRoles = roles.stream().map(role -> Role.valueOf(role.trim().toUpperCase())).toList();
+        } catch (IllegalArgumentException e) {
+            throw new ClientException("Invalid roles provided. Allowed roles are " + Arrays.toString(Role.values()), HttpStatus.BAD_REQUEST);
+        }
+
+        // Empty when nobody holds the roles, callers cache that too
+        return this.userRepository.findByCompanyDomainAndRoleIn(companyDomain, requestedRoles).stream()
+                .map(user -> AuthResponse.builder()
+                        .id(user.getId())
+                        .fullName(user.getFullName())
+                        .email(user.getEmail())
+                        .phone(user.getPhone())
+                        .companyDomain(user.getCompanyDomain())
+                        .role(user.getRole().name())
+                        .build())
+                .collect(Collectors.toList());
+    }
 }
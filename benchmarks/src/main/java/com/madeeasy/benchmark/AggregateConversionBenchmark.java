@@ -0,0 +1,62 @@
+package com.madeeasy.benchmark;
+
+import com.madeeasy.dto.response.ExpenseCategoryBreakdown;
+import com.madeeasy.dto.response.ExpenseTrend;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.util.ExpenseMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Conversion of the trend and breakdown Object[] rows into response DTOs
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AggregateConversionBenchmark {
+
+    @Param({"120", "10000"})
+    private int rows;
+
+    private List<Object[]> monthlyRows;
+    private List<Object[]> yearlyRows;
+    private List<Object[]> breakdownRows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(ExpenseFixture.SEED);
+        ExpenseCategory[] categories = ExpenseCategory.values();
+        monthlyRows = new ArrayList<>(rows);
+        yearlyRows = new ArrayList<>(rows);
+        breakdownRows = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int year = 2000 + i / 12;
+            int month = 1 + i % 12;
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(100_000_000), 2);
+            monthlyRows.add(new Object[]{year, month, amount});
+            yearlyRows.add(new Object[]{2000 + i, amount});
+            breakdownRows.add(new Object[]{month, year, categories[i % categories.length], amount});
+        }
+    }
+
+    @Benchmark
+    public List<ExpenseTrend> monthlyTrends() {
+        return ExpenseMapper.toMonthlyTrends(monthlyRows);
+    }
+
+    @Benchmark
+    public List<ExpenseTrend> yearlyTrends() {
+        return ExpenseMapper.toYearlyTrends(yearlyRows);
+    }
+
+    @Benchmark
+    public List<ExpenseCategoryBreakdown> categoryBreakdown() {
+        return ExpenseMapper.toCategoryBreakdown(breakdownRows);
+    }
+}
@@ -0,0 +1,62 @@
+package com.madeeasy.benchmark;
+
+import com.madeeasy.analytics.ExpenseLedger;
+import com.madeeasy.dto.response.ExpenseCategoryBreakdown;
+import com.madeeasy.dto.response.ExpenseTotals;
+import com.madeeasy.dto.response.ExpenseTrend;
+import com.madeeasy.entity.Expense;
+import com.madeeasy.repository.ExpenseFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Trend, breakdown and totals queries against the in-memory long-cents ledger of one company
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AnalyticsLedgerBenchmark {
+
+    private static final String COMPANY_DOMAIN = "benchmark.com";
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    private ExpenseLedger ledger;
+    private ExpenseFilter allTime;
+    private ExpenseFilter oneYear;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ledger = new ExpenseLedger(0);
+        for (Expense expense : ExpenseFixture.expenses(COMPANY_DOMAIN, rows)) {
+            ledger.add(expense.getExpenseDate().getYear(), expense.getExpenseDate().getMonthValue(), expense.getCategory(),
+                    expense.getEmployeeId(), ExpenseLedger.toCents(expense.getAmount()), 1);
+        }
+        allTime = new ExpenseFilter(COMPANY_DOMAIN, null, null, null, null, null);
+        oneYear = new ExpenseFilter(COMPANY_DOMAIN, 2023, 2023, null, null, null);
+    }
+
+    @Benchmark
+    public List<ExpenseTrend> monthlyTrends() {
+        return ledger.monthlyTrends(allTime);
+    }
+
+    @Benchmark
+    public List<ExpenseTrend> yearlyTrends() {
+        return ledger.yearlyTrends(allTime);
+    }
+
+    @Benchmark
+    public List<ExpenseCategoryBreakdown> categoryBreakdown() {
+        return ledger.categoryBreakdown(oneYear);
+    }
+
+    @Benchmark
+    public ExpenseTotals employeeTotals() {
+        return ledger.totals(allTime, 7L);
+    }
+}
@@ -0,0 +1,118 @@
+package com.madeeasy.benchmark;
+
+import com.madeeasy.ExpenseServiceApplication;
+import com.madeeasy.entity.Expense;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.entity.ExpenseStatus;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boots expense-service against a private in-memory H2 database and loads synthetic expenses.
+ * The data is generated from a fixed seed, so every run and every commit measures the same rows.
+ */
+public class ExpenseFixture implements AutoCloseable {
+
+    public static final long SEED = 42L;
+    private static final LocalDateTime FIRST_EXPENSE_DATE = LocalDateTime.of(2022, 1, 1, 9, 0);
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final ConfigurableApplicationContext context;
+
+    private ExpenseFixture(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static ExpenseFixture start() {
+        Path searchIndex;
+        try {
+            searchIndex = Files.createTempDirectory("expense-search-benchmark"); // A fresh index for the fresh database
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Command line arguments take precedence over application.yaml
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ExpenseServiceApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--eureka.client.enabled=false",
+                        "--spring.cloud.discovery.enabled=false",
+                        "--management.tracing.enabled=false",
+                        "--expense.outbox.relay-interval=3600000",
+                        "--expense.search.directory=" + searchIndex,
+                        "--logging.level.root=WARN");
+        return new ExpenseFixture(context);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // Inserts the rows with plain JDBC, JPA auditing needs an authenticated user
+    public void load(String companyDomain, int rows) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String sql = "INSERT INTO expense (id, employee_id, company_domain, title, description, amount, category, status, " +
+                "expense_date, submission_date, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (Expense expense : expenses(companyDomain, rows)) {
+            batch.add(new Object[]{
+                    expense.getId(), expense.getEmployeeId(), expense.getCompanyDomain(), expense.getTitle(),
+                    expense.getDescription(), expense.getAmount(), expense.getCategory().name(), expense.getStatus().name(),
+                    Timestamp.valueOf(expense.getExpenseDate()), Timestamp.valueOf(expense.getSubmissionDate()), "BENCHMARK"
+            });
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    // Synthetic expenses spread over three years and all categories
+    public static List<Expense> expenses(String companyDomain, int rows) {
+        Random random = new Random(SEED);
+        ExpenseCategory[] categories = ExpenseCategory.values();
+        List<Expense> expenses = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            Expense expense = new Expense();
+            expense.setId((long) i);
+            expense.setEmployeeId(1L + random.nextInt(200));
+            expense.setCompanyDomain(companyDomain);
+            expense.setTitle("Expense " + i);
+            expense.setDescription("Synthetic expense number " + i + " for benchmarking");
+            expense.setAmount(BigDecimal.valueOf(1 + random.nextInt(500_000), 2).setScale(2, RoundingMode.UNNECESSARY));
+            expense.setCategory(categories[random.nextInt(categories.length)]);
+            expense.setStatus(ExpenseStatus.SUBMITTED);
+            LocalDateTime expenseDate = FIRST_EXPENSE_DATE.plusMinutes(random.nextInt(3 * 365 * 24 * 60));
+            expense.setExpenseDate(expenseDate);
+            expense.setSubmissionDate(expenseDate.plusDays(1));
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
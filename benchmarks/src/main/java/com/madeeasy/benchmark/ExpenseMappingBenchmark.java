@@ -0,0 +1,39 @@
+package com.madeeasy.benchmark;
+
+import com.madeeasy.dto.response.ExpenseResponseDTO;
+import com.madeeasy.entity.Expense;
+import com.madeeasy.util.ExpenseMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity to ExpenseResponseDTO mapping, as done for every expense returned by the service
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExpenseMappingBenchmark {
+
+    @Param({"100", "10000"})
+    private int rows;
+
+    private List<Expense> expenses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        expenses = ExpenseFixture.expenses("benchmark.com", rows);
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDTO> toResponse() {
+        List<ExpenseResponseDTO> responses = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            responses.add(ExpenseMapper.toResponse(expense));
+        }
+        return responses;
+    }
+}
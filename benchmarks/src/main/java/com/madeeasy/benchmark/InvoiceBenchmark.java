@@ -0,0 +1,41 @@
+package com.madeeasy.benchmark;
+
+import com.madeeasy.service.ExpenseService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// ExpenseServiceImpl.generateExpenseInvoice end to end: filtered query, streaming read and PDF rendering
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class InvoiceBenchmark {
+
+    private static final String COMPANY_DOMAIN = "benchmark.com";
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private ExpenseFixture fixture;
+    private ExpenseService expenseService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = ExpenseFixture.start();
+        fixture.load(COMPANY_DOMAIN, rows);
+        expenseService = fixture.getBean(ExpenseService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public byte[] generateExpenseInvoice() {
+        return expenseService.generateExpenseInvoice(COMPANY_DOMAIN, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,77 @@
+package com.madeeasy.benchmark;
+
+import com.madeeasy.dto.response.ExpenseResponseDTO;
+import com.madeeasy.repository.ExpenseRepository;
+import com.madeeasy.service.ExpenseService;
+import com.madeeasy.util.ExpenseMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expense reads through the DTO projection in read-only transactions, against the former path
+ * that loaded managed entities in a read-write transaction and mapped them afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ReadPathBenchmark {
+
+    private static final String COMPANY_DOMAIN = "benchmark.com";
+
+    @Param({"10000"})
+    private int rows;
+
+    private ExpenseFixture fixture;
+    private ExpenseService expenseService;
+    private ExpenseRepository expenseRepository;
+    private TransactionTemplate readWriteTransaction;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = ExpenseFixture.start();
+        fixture.load(COMPANY_DOMAIN, rows);
+        expenseService = fixture.getBean(ExpenseService.class);
+        expenseRepository = fixture.getBean(ExpenseRepository.class);
+        readWriteTransaction = new TransactionTemplate(fixture.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    // Ids cycle over the fixture so that lookups are not served by a single hot row
+    private long nextId() {
+        nextId = nextId % rows + 1;
+        return nextId;
+    }
+
+    @Benchmark
+    public ExpenseResponseDTO byIdProjectionReadOnly() {
+        return expenseService.getExpenseById(nextId());
+    }
+
+    @Benchmark
+    public ExpenseResponseDTO byIdEntityReadWrite() {
+        long id = nextId();
+        return readWriteTransaction.execute(status -> ExpenseMapper.toResponse(expenseRepository.findById(id).orElseThrow()));
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDTO> allProjectionReadOnly() {
+        return expenseService.getAllExpenses();
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDTO> allEntityReadWrite() {
+        return readWriteTransaction.execute(status -> expenseRepository.findAll().stream().map(ExpenseMapper::toResponse).toList());
+    }
+}
@@ -0,0 +1,73 @@
+package com.madeeasy.security.filter;
+
+import com.madeeasy.security.config.InternalServiceProperties;
+import com.madeeasy.security.config.SecurityConfigProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilter.requiresAuthorization against the paths configured in expense-service's application.yaml.
+ * Lives in the filter's package because the method is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RequiresAuthorizationBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest firstPathRequest;
+    private MockHttpServletRequest lastPathRequest;
+    private MockHttpServletRequest unmatchedRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yaml"))
+                .forEach(environment.getPropertySources()::addLast);
+        SecurityConfigProperties properties = Binder.get(environment)
+                .bind("security.authorization", SecurityConfigProperties.class)
+                .get();
+
+        filter = new JwtAuthenticationFilter(null, null, null, properties, new InternalServiceProperties());
+
+        SecurityConfigProperties.PathConfig first = properties.getPaths().getFirst();
+        SecurityConfigProperties.PathConfig last = properties.getPaths().getLast();
+        firstPathRequest = request(first.getMethod().split(",")[0].trim(), concrete(first.getPath()));
+        lastPathRequest = request(last.getMethod().split(",")[0].trim(), concrete(last.getPath()));
+        unmatchedRequest = request("GET", "/expense-service/not-a-configured-path/42");
+    }
+
+    @Benchmark
+    public boolean firstConfiguredPath() {
+        return filter.requiresAuthorization(firstPathRequest);
+    }
+
+    @Benchmark
+    public boolean lastConfiguredPath() {
+        return filter.requiresAuthorization(lastPathRequest);
+    }
+
+    @Benchmark
+    public boolean unmatchedPath() {
+        return filter.requiresAuthorization(unmatchedRequest);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+
+    // Replaces the wildcards of a configured pattern with a concrete segment
+    private static String concrete(String pattern) {
+        return pattern.replace("/**", "/42").replace("*", "42");
+    }
+}
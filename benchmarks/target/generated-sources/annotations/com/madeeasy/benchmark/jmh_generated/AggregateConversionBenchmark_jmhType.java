@@ -0,0 +1,4 @@
+package com.madeeasy.benchmark.jmh_generated;
+public class AggregateConversionBenchmark_jmhType extends AggregateConversionBenchmark_jmhType_B3 {
+}
+
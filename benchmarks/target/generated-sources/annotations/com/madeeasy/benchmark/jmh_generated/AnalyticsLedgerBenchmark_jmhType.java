@@ -0,0 +1,4 @@
+package com.madeeasy.benchmark.jmh_generated;
+public class AnalyticsLedgerBenchmark_jmhType extends AnalyticsLedgerBenchmark_jmhType_B3 {
+}
+
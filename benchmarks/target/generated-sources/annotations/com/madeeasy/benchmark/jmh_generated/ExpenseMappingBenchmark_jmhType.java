@@ -0,0 +1,4 @@
+package com.madeeasy.benchmark.jmh_generated;
+public class ExpenseMappingBenchmark_jmhType extends ExpenseMappingBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.madeeasy.benchmark.jmh_generated;
+public class InvoiceBenchmark_jmhType extends InvoiceBenchmark_jmhType_B3 {
+}
+
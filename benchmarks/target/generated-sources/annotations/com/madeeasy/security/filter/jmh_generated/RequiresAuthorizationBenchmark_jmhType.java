@@ -0,0 +1,4 @@
+package com.madeeasy.security.filter.jmh_generated;
+public class RequiresAuthorizationBenchmark_jmhType extends RequiresAuthorizationBenchmark_jmhType_B3 {
+}
+
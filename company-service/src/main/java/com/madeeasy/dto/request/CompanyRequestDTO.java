@@ -1,10 +1,15 @@
 package com.madeeasy.dto.request;
 
+import com.madeeasy.entity.BudgetPolicy;
+import com.madeeasy.entity.ExpenseCategory;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
+import java.math.BigDecimal;
+import java.util.Map;
+
 @Data
 public class CompanyRequestDTO {
 
@@ -20,4 +25,9 @@ public class CompanyRequestDTO {
     @NotNull(message = "Auto-approve threshold is required")
     @Positive(message = "Auto-approve threshold must be a positive value")
     private Double autoApproveThreshold;
+
+    // Optional, replaces all budgets of the company when given
+    private Map<ExpenseCategory, @NotNull @Positive(message = "Category budget must be a positive value") BigDecimal> categoryBudgets;
+
+    private BudgetPolicy budgetPolicy;
 }
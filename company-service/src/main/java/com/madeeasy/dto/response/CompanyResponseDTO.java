@@ -1,8 +1,13 @@
 package com.madeeasy.dto.response;
 
+import com.madeeasy.entity.BudgetPolicy;
+import com.madeeasy.entity.ExpenseCategory;
 import lombok.Builder;
 import lombok.Data;
 
+import java.math.BigDecimal;
+import java.util.Map;
+
 @Data
 @Builder
 public class CompanyResponseDTO {
@@ -11,4 +16,6 @@ public class CompanyResponseDTO {
     private String name;
     private String domain;
     private Double autoApproveThreshold;
+    private Map<ExpenseCategory, BigDecimal> categoryBudgets;
+    private BudgetPolicy budgetPolicy;
 }
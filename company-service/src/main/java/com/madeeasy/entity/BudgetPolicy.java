@@ -0,0 +1,7 @@
+package com.madeeasy.entity;
+
+// What expense-service does with a submission that takes a category over its monthly budget
+public enum BudgetPolicy {
+    FLAG, // Accepted, marked as over budget and never auto-approved
+    REJECT
+}
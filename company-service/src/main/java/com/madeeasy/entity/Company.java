@@ -5,6 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
 @Data
 @Entity
 @NoArgsConstructor
@@ -32,4 +36,16 @@ public class Company {
 
     @Column(nullable = false)
     private Double autoApproveThreshold;
+
+    // Monthly spend limit per expense category, categories without one are unlimited
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "company_category_budget", joinColumns = @JoinColumn(name = "company_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "category")
+    @Column(name = "monthly_limit", nullable = false)
+    private Map<ExpenseCategory, BigDecimal> categoryBudgets = new HashMap<>();
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BudgetPolicy budgetPolicy = BudgetPolicy.FLAG;
 }
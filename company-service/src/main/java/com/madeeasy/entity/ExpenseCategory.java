@@ -0,0 +1,5 @@
+package com.madeeasy.entity;
+
+public enum ExpenseCategory {
+    TRAVEL, FOOD, OFFICE_SUPPLIES;
+}
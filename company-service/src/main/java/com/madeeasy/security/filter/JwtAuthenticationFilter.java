@@ -2,6 +2,7 @@ package com.madeeasy.security.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.madeeasy.exception.TokenValidationException;
+import com.madeeasy.security.config.InternalServiceProperties;
 import com.madeeasy.security.config.SecurityConfigProperties;
 import com.madeeasy.util.JwtUtils;
 import jakarta.servlet.FilterChain;
@@ -41,11 +42,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final SecurityConfigProperties securityConfigProperties;
+    private final InternalServiceProperties internalServiceProperties;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
+        // Calls from other services carry the internal credential instead of a user's access token
+        String internalToken = request.getHeader(InternalServiceProperties.HEADER);
+        if (internalToken != null) {
+            if (!internalServiceProperties.matches(internalToken)) {
+                handleInvalidToken(response, "Invalid internal service credential.");
+                return; // Exit the filter chain
+            }
+            UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                    InternalServiceProperties.PRINCIPAL, null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + InternalServiceProperties.ROLE)));
+            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         String token = null;
         String userName = null;
@@ -49,6 +49,12 @@ public class CompanyServiceImpl implements CompanyService {
         company.setName(companyRequestDTO.getName());
         company.setDomain(companyRequestDTO.getDomain());
         company.setAutoApproveThreshold(companyRequestDTO.getAutoApproveThreshold());
+        if (companyRequestDTO.getCategoryBudgets() != null) {
+            company.getCategoryBudgets().putAll(companyRequestDTO.getCategoryBudgets());
+        }
+        if (companyRequestDTO.getBudgetPolicy() != null) {
+            company.setBudgetPolicy(companyRequestDTO.getBudgetPolicy());
+        }
         log.info("before saving : {}", company);
         Company savedCompany = this.companyRepository.save(company);
         log.info("after saving : {}", savedCompany);
@@ -151,6 +157,8 @@ public class CompanyServiceImpl implements CompanyService {
                 .name(savedCompany.getName())
                 .domain(savedCompany.getDomain())
                 .autoApproveThreshold(savedCompany.getAutoApproveThreshold())
+                .categoryBudgets(savedCompany.getCategoryBudgets())
+                .budgetPolicy(savedCompany.getBudgetPolicy())
                 .build();
     }
 
@@ -202,6 +210,13 @@ public class CompanyServiceImpl implements CompanyService {
             }
             company.setAutoApproveThreshold(companyRequestDTO.getAutoApproveThreshold());
         }
+        if (companyRequestDTO.getCategoryBudgets() != null) {
+            company.getCategoryBudgets().clear();
+            company.getCategoryBudgets().putAll(companyRequestDTO.getCategoryBudgets());
+        }
+        if (companyRequestDTO.getBudgetPolicy() != null) {
+            company.setBudgetPolicy(companyRequestDTO.getBudgetPolicy());
+        }
     }
 
     /**
@@ -302,6 +317,8 @@ public class CompanyServiceImpl implements CompanyService {
                 .name(company.getName())
                 .domain(company.getDomain())
                 .autoApproveThreshold(company.getAutoApproveThreshold())
+                .categoryBudgets(company.getCategoryBudgets())
+                .budgetPolicy(company.getBudgetPolicy())
                 .build();
     }
 
@@ -315,6 +332,8 @@ public class CompanyServiceImpl implements CompanyService {
                 .name(foundCompany.getName())
                 .domain(foundCompany.getDomain())
                 .autoApproveThreshold(foundCompany.getAutoApproveThreshold())
+                .categoryBudgets(foundCompany.getCategoryBudgets())
+                .budgetPolicy(foundCompany.getBudgetPolicy())
                 .build();
     }
 }
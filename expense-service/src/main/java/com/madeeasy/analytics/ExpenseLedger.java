@@ -0,0 +1,288 @@
+package com.madeeasy.analytics;
+
+import com.madeeasy.dto.response.ExpenseCategoryBreakdown;
+import com.madeeasy.dto.response.ExpenseTotals;
+import com.madeeasy.dto.response.ExpenseTrend;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.repository.ExpenseFilter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Expense totals of one company held as {@code long} cents in flat primitive arrays.
+ * <p>
+ * Months are counted as {@code year * 12 + (month - 1)}; the cell of a (month, category) pair is at
+ * {@code (month - firstMonth) * CATEGORY_COUNT + category.ordinal()}. Every employee has arrays of the
+ * same layout. Queries walk the arrays under a read lock and only allocate the response objects,
+ * amounts are turned into {@link BigDecimal} at that point.
+ */
+public class ExpenseLedger {
+
+    private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+    private static final int CATEGORY_COUNT = CATEGORIES.length;
+    private static final int GROWTH_MONTHS = 12;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int firstMonth;
+    private int monthCount;
+    private long[] cents = new long[0];
+    private int[] counts = new int[0];
+    private final Map<Long, Integer> employeeSlots = new HashMap<>();
+    private long[][] employeeCents = new long[0][];
+    private int[][] employeeCounts = new int[0][];
+
+    private volatile long version; // Company data version the ledger reflects
+    private volatile long checkedAtNanos; // When the version was last compared with the database
+
+    public ExpenseLedger(long version) {
+        this.version = version;
+        this.checkedAtNanos = System.nanoTime();
+    }
+
+    public void add(int year, int month, ExpenseCategory category, long employeeId, long amountCents, int count) {
+        lock.writeLock().lock();
+        try {
+            int epochMonth = epochMonth(year, month);
+            ensureMonth(epochMonth);
+            int index = (epochMonth - firstMonth) * CATEGORY_COUNT + category.ordinal();
+            cents[index] += amountCents;
+            counts[index] += count;
+
+            int slot = employeeSlot(employeeId);
+            employeeCents[slot][index] += amountCents;
+            employeeCounts[slot][index] += count;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Months with expenses, newest first; the category filter does not apply
+    public List<ExpenseTrend> monthlyTrends(ExpenseFilter filter) {
+        lock.readLock().lock();
+        try {
+            List<ExpenseTrend> trends = new ArrayList<>();
+            for (int m = upperMonth(filter); m >= lowerMonth(filter); m--) {
+                if (!inResidualMonths(m, filter)) {
+                    continue;
+                }
+                int base = (m - firstMonth) * CATEGORY_COUNT;
+                long total = 0;
+                int count = 0;
+                for (int c = 0; c < CATEGORY_COUNT; c++) {
+                    total += cents[base + c];
+                    count += counts[base + c];
+                }
+                if (count > 0) {
+                    trends.add(ExpenseTrend.builder().year(m / 12).month(m % 12 + 1).totalAmount(toAmount(total)).build());
+                }
+            }
+            return trends;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Years with expenses, newest first; only the year bounds of the filter apply
+    public List<ExpenseTrend> yearlyTrends(ExpenseFilter filter) {
+        lock.readLock().lock();
+        try {
+            List<ExpenseTrend> trends = new ArrayList<>();
+            if (monthCount == 0) {
+                return trends;
+            }
+            int lastMonth = firstMonth + monthCount - 1;
+            int upperYear = filter.endYear() != null ? Math.min(filter.endYear(), lastMonth / 12) : lastMonth / 12;
+            int lowerYear = filter.startYear() != null ? Math.max(filter.startYear(), firstMonth / 12) : firstMonth / 12;
+            for (int year = upperYear; year >= lowerYear; year--) {
+                int from = Math.max(year * 12, firstMonth) - firstMonth;
+                int to = Math.min(year * 12 + 11, lastMonth) - firstMonth;
+                long total = 0;
+                int count = 0;
+                for (int i = from * CATEGORY_COUNT; i < (to + 1) * CATEGORY_COUNT; i++) {
+                    total += cents[i];
+                    count += counts[i];
+                }
+                if (count > 0) {
+                    trends.add(ExpenseTrend.builder().year(year).totalAmount(toAmount(total)).build());
+                }
+            }
+            return trends;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // (month, category) pairs with expenses, newest first
+    public List<ExpenseCategoryBreakdown> categoryBreakdown(ExpenseFilter filter) {
+        lock.readLock().lock();
+        try {
+            List<ExpenseCategoryBreakdown> breakdown = new ArrayList<>();
+            for (int m = upperMonth(filter); m >= lowerMonth(filter); m--) {
+                if (!inResidualMonths(m, filter)) {
+                    continue;
+                }
+                int base = (m - firstMonth) * CATEGORY_COUNT;
+                for (int c = 0; c < CATEGORY_COUNT; c++) {
+                    if ((filter.category() == null || filter.category().ordinal() == c) && counts[base + c] > 0) {
+                        breakdown.add(ExpenseCategoryBreakdown.builder()
+                                .month(m % 12 + 1)
+                                .year(m / 12)
+                                .category(CATEGORIES[c])
+                                .totalAmount(toAmount(cents[base + c]))
+                                .build());
+                    }
+                }
+            }
+            return breakdown;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Total of the matching expenses, of one employee when employeeId is given
+    public ExpenseTotals totals(ExpenseFilter filter, Long employeeId) {
+        lock.readLock().lock();
+        try {
+            long[] sourceCents = cents;
+            int[] sourceCounts = counts;
+            if (employeeId != null) {
+                Integer slot = employeeSlots.get(employeeId);
+                if (slot == null) {
+                    return ExpenseTotals.builder().totalAmount(toAmount(0)).expenseCount(0).build();
+                }
+                sourceCents = employeeCents[slot];
+                sourceCounts = employeeCounts[slot];
+            }
+
+            long total = 0;
+            long count = 0;
+            for (int m = upperMonth(filter); m >= lowerMonth(filter); m--) {
+                if (!inResidualMonths(m, filter)) {
+                    continue;
+                }
+                int base = (m - firstMonth) * CATEGORY_COUNT;
+                for (int c = 0; c < CATEGORY_COUNT; c++) {
+                    if (filter.category() == null || filter.category().ordinal() == c) {
+                        total += sourceCents[base + c];
+                        count += sourceCounts[base + c];
+                    }
+                }
+            }
+            return ExpenseTotals.builder().totalAmount(toAmount(total)).expenseCount(count).build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long version() {
+        return version;
+    }
+
+    // A committed local write bumped the company data version once
+    public void advanceVersion() {
+        version++;
+        checkedAtNanos = 0; // Compare with the database on the next read
+    }
+
+    public boolean isCheckDue(long intervalNanos) {
+        return System.nanoTime() - checkedAtNanos >= intervalNanos;
+    }
+
+    public void markChecked() {
+        checkedAtNanos = System.nanoTime();
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static int epochMonth(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    // Inclusive bounds of the filter's year range, clamped to the months held
+    private int lowerMonth(ExpenseFilter filter) {
+        if (filter.startYear() == null) {
+            return firstMonth;
+        }
+        return Math.max(firstMonth, epochMonth(filter.startYear(), filter.startMonth() != null ? filter.startMonth() : 1));
+    }
+
+    private int upperMonth(ExpenseFilter filter) {
+        int lastMonth = firstMonth + monthCount - 1;
+        if (filter.endYear() == null) {
+            return lastMonth;
+        }
+        return Math.min(lastMonth, epochMonth(filter.endYear(), filter.endMonth() != null ? filter.endMonth() : 12));
+    }
+
+    private static boolean inResidualMonths(int epochMonth, ExpenseFilter filter) {
+        int month = epochMonth % 12 + 1;
+        Integer startMonth = filter.residualStartMonth();
+        Integer endMonth = filter.residualEndMonth();
+        return (startMonth == null || month >= startMonth) && (endMonth == null || month <= endMonth);
+    }
+
+    private void ensureMonth(int month) {
+        if (monthCount == 0) {
+            resize(month, GROWTH_MONTHS);
+        } else if (month < firstMonth) {
+            int newFirstMonth = Math.min(month, firstMonth - GROWTH_MONTHS);
+            resize(newFirstMonth, monthCount + firstMonth - newFirstMonth);
+        } else if (month >= firstMonth + monthCount) {
+            resize(firstMonth, Math.max(month - firstMonth + 1, monthCount + GROWTH_MONTHS));
+        }
+    }
+
+    private void resize(int newFirstMonth, int newMonthCount) {
+        int offset = monthCount == 0 ? 0 : (firstMonth - newFirstMonth) * CATEGORY_COUNT;
+        cents = shift(cents, offset, newMonthCount * CATEGORY_COUNT);
+        counts = shift(counts, offset, newMonthCount * CATEGORY_COUNT);
+        for (int slot = 0; slot < employeeSlots.size(); slot++) {
+            employeeCents[slot] = shift(employeeCents[slot], offset, newMonthCount * CATEGORY_COUNT);
+            employeeCounts[slot] = shift(employeeCounts[slot], offset, newMonthCount * CATEGORY_COUNT);
+        }
+        firstMonth = newFirstMonth;
+        monthCount = newMonthCount;
+    }
+
+    private int employeeSlot(long employeeId) {
+        Integer slot = employeeSlots.get(employeeId);
+        if (slot != null) {
+            return slot;
+        }
+        int newSlot = employeeSlots.size();
+        if (newSlot == employeeCents.length) {
+            int capacity = Math.max(16, newSlot * 2);
+            employeeCents = Arrays.copyOf(employeeCents, capacity);
+            employeeCounts = Arrays.copyOf(employeeCounts, capacity);
+        }
+        employeeCents[newSlot] = new long[monthCount * CATEGORY_COUNT];
+        employeeCounts[newSlot] = new int[monthCount * CATEGORY_COUNT];
+        employeeSlots.put(employeeId, newSlot);
+        return newSlot;
+    }
+
+    private static long[] shift(long[] source, int offset, int length) {
+        long[] target = new long[length];
+        System.arraycopy(source, 0, target, offset, source.length);
+        return target;
+    }
+
+    private static int[] shift(int[] source, int offset, int length) {
+        int[] target = new int[length];
+        System.arraycopy(source, 0, target, offset, source.length);
+        return target;
+    }
+}
@@ -0,0 +1,16 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "expense.analytics")
+public class AnalyticsProperties {
+    private long maxCompanies = 1_000; // Ledgers kept in memory, least recently used ones are dropped
+    private Duration idleTimeout = Duration.ofHours(1);
+    private Duration versionCheckInterval = Duration.ofSeconds(1); // How often a ledger is compared with the company data version
+}
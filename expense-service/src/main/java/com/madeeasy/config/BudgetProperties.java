@@ -0,0 +1,12 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "expense.budget")
+public class BudgetProperties {
+    private int warmMonths = 3; // Months, the current one included, whose spend is loaded at startup and kept in step with the database
+}
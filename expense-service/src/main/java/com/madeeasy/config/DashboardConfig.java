@@ -0,0 +1,28 @@
+package com.madeeasy.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class DashboardConfig {
+
+    // A stream has at most one send queued or running, so the queue never holds more than one task per subscriber
+    @Bean
+    public ThreadPoolTaskExecutor dashboardSenderExecutor(DashboardProperties properties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getSenderPoolSize());
+        executor.setMaxPoolSize(properties.getSenderPoolSize());
+        executor.setQueueCapacity(properties.getMaxSubscribers());
+        executor.setThreadNamePrefix("dashboard-sse-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+
+        Gauge.builder("expense.dashboard.sends.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Dashboard streams waiting for a sender thread")
+                .register(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,17 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "expense.dashboard")
+public class DashboardProperties {
+    private int maxSubscribers = 1_000; // Open streams across all companies, further subscriptions are refused
+    private int senderPoolSize = 4; // Threads writing events to the open streams
+    private Duration streamTimeout = Duration.ofMinutes(30); // A dashboard reconnects after this, as any SSE client does
+    private Duration resyncInterval = Duration.ofSeconds(10); // How often streams are compared with the ledger without a local write, picks up other instances
+}
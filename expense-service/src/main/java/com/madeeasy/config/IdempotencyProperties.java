@@ -0,0 +1,15 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "expense.idempotency")
+public class IdempotencyProperties {
+    private long maximumSize = 100_000; // Responses kept in memory, the database holds the rest
+    private Duration ttl = Duration.ofHours(24); // How long a key is honoured, in memory and in the database
+}
@@ -0,0 +1,14 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "expense.invoice-cache")
+public class InvoiceCacheProperties {
+    private String directory = System.getProperty("java.io.tmpdir") + "/expense-invoice-cache";
+    private DataSize maxSize = DataSize.ofMegabytes(512); // Least recently used invoices are deleted beyond this
+}
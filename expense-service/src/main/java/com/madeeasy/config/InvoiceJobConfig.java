@@ -0,0 +1,28 @@
+package com.madeeasy.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class InvoiceJobConfig {
+
+    // Bounded pool and queue, a full queue rejects the task instead of growing without limit
+    @Bean
+    public ThreadPoolTaskExecutor invoiceJobExecutor(InvoiceJobProperties properties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("invoice-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+
+        Gauge.builder("expense.invoice.jobs.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Invoice jobs waiting for a worker")
+                .register(meterRegistry);
+        return executor;
+    }
+}
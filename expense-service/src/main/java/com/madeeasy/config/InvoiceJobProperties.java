@@ -0,0 +1,17 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "expense.invoice-jobs")
+public class InvoiceJobProperties {
+    private int poolSize = 2;
+    private int queueCapacity = 20; // Submissions beyond this are rejected with 429
+    private String storageDir = System.getProperty("java.io.tmpdir") + "/expense-invoices";
+    private Duration retention = Duration.ofHours(24); // Jobs and their files are purged after this
+}
@@ -0,0 +1,17 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "expense.lookup-cache")
+public class LookupCacheProperties {
+    private long maximumSize = 10_000;
+    private Duration userTtl = Duration.ofMinutes(5);
+    private Duration companyTtl = Duration.ofMinutes(30);
+    private Duration negativeTtl = Duration.ofSeconds(30); // How long a 404 is remembered
+}
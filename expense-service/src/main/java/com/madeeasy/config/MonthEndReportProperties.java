@@ -0,0 +1,13 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "expense.month-end")
+public class MonthEndReportProperties {
+    private String storageDir = System.getProperty("java.io.tmpdir") + "/expense-month-end";
+    private int maxConcurrentTenants = 4; // Companies processed at once, each holds one DB connection, keep it below the pool size
+}
@@ -0,0 +1,18 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "expense.outbox")
+public class OutboxProperties {
+    private int batchSize = 100;
+    private Duration claimTimeout = Duration.ofMinutes(2); // A claimed row is relayed again when its outcome has not been recorded by then
+    private int maxAttempts = 10;
+    private Duration initialBackoff = Duration.ofSeconds(2);
+    private Duration maxBackoff = Duration.ofMinutes(5);
+}
@@ -0,0 +1,17 @@
+package com.madeeasy.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "expense.search")
+public class SearchProperties {
+    private String directory = System.getProperty("java.io.tmpdir") + "/expense-search-index";
+    private double ramBufferMb = 64; // Indexing buffer before a segment is flushed to disk
+    private Duration catchUpLag = Duration.ofMinutes(1); // Catch-up scans reach back this far, covering transactions that committed late
+    private int maxResults = 10_000; // Deepest hit a page may reach
+}
@@ -1,12 +1,28 @@
 package com.madeeasy.controller;
 
+import com.madeeasy.dto.request.ExpenseBatchRequestDTO;
 import com.madeeasy.dto.request.ExpensePartialRequestDTO;
 import com.madeeasy.dto.request.ExpenseRequestDTO;
+import com.madeeasy.dto.request.ExpenseStatusEventBatchDTO;
 import com.madeeasy.dto.response.ExpenseCategoryBreakdown;
 import com.madeeasy.dto.response.ExpenseTrend;
+import com.madeeasy.dto.response.InvoiceJobResponse;
+import com.madeeasy.dto.response.MonthEndReportResponse;
 import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.security.TenantGuard;
+import com.madeeasy.service.ExpenseDashboardService;
+import com.madeeasy.service.ExpenseExportService;
+import com.madeeasy.service.ExpenseRollupService;
+import com.madeeasy.service.ExpenseSearchService;
 import com.madeeasy.service.ExpenseService;
+import com.madeeasy.service.ExpenseStatusService;
+import com.madeeasy.service.InvoiceCacheService;
+import com.madeeasy.service.InvoiceJobService;
+import com.madeeasy.service.LookupCache;
+import com.madeeasy.service.MonthEndReportService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,26 +30,61 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping(path = "/expense-service")
 @RequiredArgsConstructor
 public class ExpenseController {
     private final ExpenseService expenseService;
+    private final ExpenseRollupService expenseRollupService;
+    private final LookupCache lookupCache;
+    private final InvoiceJobService invoiceJobService;
+    private final InvoiceCacheService invoiceCacheService;
+    private final ExpenseExportService expenseExportService;
+    private final ExpenseSearchService expenseSearchService;
+    private final ExpenseStatusService expenseStatusService;
+    private final ExpenseDashboardService expenseDashboardService;
+    private final MonthEndReportService monthEndReportService;
+    private final TenantGuard tenantGuard;
 
-    @Operation(summary = "Submit a new expense", description = "Registers a new expense entry.", tags = {"Expense Management"})
-    @ApiResponse(responseCode = "201", description = "Expense submitted successfully")
+    @Operation(summary = "Submit a new expense", description = "Registers a new expense entry. The approval workflow is started asynchronously. A retry carrying the same Idempotency-Key returns the original response instead of submitting again.", tags = {"Expense Management"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Expense submitted successfully, approval pending"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "The Idempotency-Key was already used for a different expense")
+    })
+    @Parameter(in = ParameterIn.HEADER, name = "Idempotency-Key", description = "Client-generated key that makes retries of this submission safe", schema = @Schema(type = "string", maxLength = 255))
     @PostMapping(path = "/submit")
     @SecurityRequirement(name = "Bearer Authentication")
     public ResponseEntity<?> submitExpense(@Valid @RequestBody ExpenseRequestDTO request) {
-        this.expenseService.submitExpense(request);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(this.expenseService.submitExpense(request));
+    }
+
+    @Operation(summary = "Submit expenses in bulk", description = "Registers up to 10000 expenses of the current employee in one request. The approval workflow is started asynchronously.", tags = {"Expense Management"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Expenses submitted successfully, approval pending"),
+            @ApiResponse(responseCode = "400", description = "Invalid expense in the batch")
+    })
+    @PostMapping(path = "/submit-batch")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> submitExpenses(@Valid @RequestBody ExpenseBatchRequestDTO request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(this.expenseService.submitExpenses(request));
     }
 
     @Operation(summary = "Get an expense by ID", description = "Fetches details of a specific expense by its ID.", tags = {"Expense Management"})
@@ -44,7 +95,8 @@ public class ExpenseController {
         return ResponseEntity.ok(this.expenseService.getExpenseById(id));
     }
 
-    @Operation(summary = "Get all expenses", description = "Retrieves a list of all expenses.", tags = {"Expense Management"})
+    @Deprecated
+    @Operation(summary = "Get all expenses", description = "Retrieves a list of all expenses. Deprecated, use /get-expenses/{companyDomain} instead.", tags = {"Expense Management"})
     @ApiResponse(responseCode = "200", description = "List of expenses retrieved successfully")
     @GetMapping(path = "/get-all-expenses")
     @SecurityRequirement(name = "Bearer Authentication")
@@ -52,6 +104,20 @@ public class ExpenseController {
         return ResponseEntity.ok(this.expenseService.getAllExpenses());
     }
 
+    @Operation(summary = "Get expenses of a company", description = "Retrieves one page of the caller's company's expenses, newest first. Pass the returned 'nextCursor' as 'cursor' to fetch the next page.", tags = {"Expense Management"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of expenses retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor provided"),
+            @ApiResponse(responseCode = "403", description = "The company is not the caller's own")
+    })
+    @GetMapping(path = "/get-expenses/{companyDomain}")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> getExpenses(@PathVariable String companyDomain,
+                                         @RequestParam(required = false) Integer size,
+                                         @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(this.expenseService.getExpenses(companyDomain, size, cursor));
+    }
+
     @Operation(summary = "Delete an expense", description = "Removes an expense by its ID.", tags = {"Expense Management"})
     @ApiResponse(responseCode = "204", description = "Expense deleted successfully")
     @DeleteMapping(path = "/delete/{id}")
@@ -69,7 +135,7 @@ public class ExpenseController {
         return ResponseEntity.ok(this.expenseService.updateExpense(id, expensePartialRequestDTO));
     }
 
-    @Operation(summary = "Generate expense invoice", description = "Generates a PDF invoice for expenses based on filters.", tags = {"Expense Reports"})
+    @Operation(summary = "Generate expense invoice", description = "Generates a PDF invoice for expenses based on filters. Invoices are cached until an expense of the company changes, send the returned ETag as If-None-Match to revalidate.", tags = {"Expense Reports"})
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
@@ -79,21 +145,210 @@ public class ExpenseController {
                             schema = @Schema(type = "string", format = "binary")  // Indicate binary data
                     )
             ),
+            @ApiResponse(responseCode = "304", description = "Invoice not modified since the given ETag"),
             @ApiResponse(responseCode = "400", description = "Invalid request data")
     })
     @GetMapping("/generate/invoice/{domainName}")
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<byte[]> generateInvoice(@PathVariable String domainName,
-                                                  @RequestParam(required = false) Integer startYear,
-                                                  @RequestParam(required = false) Integer endYear,
-                                                  @RequestParam(required = false) Integer startMonth,
-                                                  @RequestParam(required = false) Integer endMonth,
-                                                  @RequestParam(required = false) String category) {
-        byte[] pdfBytes = expenseService.generateExpenseInvoice(domainName, startYear, endYear, startMonth, endMonth, category);
+    public ResponseEntity<Resource> generateInvoice(@PathVariable String domainName,
+                                                    @RequestParam(required = false) Integer startYear,
+                                                    @RequestParam(required = false) Integer endYear,
+                                                    @RequestParam(required = false) Integer startMonth,
+                                                    @RequestParam(required = false) Integer endMonth,
+                                                    @RequestParam(required = false) String category,
+                                                    WebRequest webRequest) {
+        // Revalidation only costs a data version lookup, no query and no rendering
+        String eTag = invoiceCacheService.getETag(domainName, startYear, endYear, startMonth, endMonth, category);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        InvoiceCacheService.CachedInvoice invoice = invoiceCacheService.getInvoice(domainName, startYear, endYear, startMonth, endMonth, category);
         HttpHeaders headers = new HttpHeaders();
         headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Expense_Invoice.pdf");
         headers.set(HttpHeaders.CONTENT_TYPE, "application/pdf");
-        return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+        headers.setETag(invoice.eTag());
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        return new ResponseEntity<>(new FileSystemResource(invoice.file()), headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Export expenses as CSV", description = "Streams the filtered expenses as CSV, gzip-compressed when the client accepts it.", tags = {"Expense Reports"})
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Expenses exported successfully",
+                    content = @Content(mediaType = "text/csv", schema = @Schema(type = "string", format = "binary"))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "403", description = "The company is not the caller's own")
+    })
+    @GetMapping("/export/csv/{domainName}")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<StreamingResponseBody> exportCsv(@PathVariable String domainName,
+                                                           @RequestParam(required = false) Integer startYear,
+                                                           @RequestParam(required = false) Integer endYear,
+                                                           @RequestParam(required = false) Integer startMonth,
+                                                           @RequestParam(required = false) Integer endMonth,
+                                                           @RequestParam(required = false) String category,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Checked up front, the body only runs once the 200 and its headers are committed
+        tenantGuard.checkCompany(domainName);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        // Rows are written to the response as they are read, the response is sent chunked
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192, true);
+                expenseExportService.writeCsv(domainName, startYear, endYear, startMonth, endMonth, category, gzipOutputStream);
+                gzipOutputStream.finish();
+            } else {
+                expenseExportService.writeCsv(domainName, startYear, endYear, startMonth, endMonth, category, outputStream);
+            }
+        };
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Expenses.csv");
+        headers.set(HttpHeaders.CONTENT_TYPE, "text/csv; charset=UTF-8");
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Export expenses as XLSX", description = "Streams the filtered expenses as an Excel workbook. XLSX is already zip-compressed, so it is never gzipped.", tags = {"Expense Reports"})
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Expenses exported successfully",
+                    content = @Content(mediaType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", schema = @Schema(type = "string", format = "binary"))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "403", description = "The company is not the caller's own")
+    })
+    @GetMapping("/export/xlsx/{domainName}")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<StreamingResponseBody> exportXlsx(@PathVariable String domainName,
+                                                            @RequestParam(required = false) Integer startYear,
+                                                            @RequestParam(required = false) Integer endYear,
+                                                            @RequestParam(required = false) Integer startMonth,
+                                                            @RequestParam(required = false) Integer endMonth,
+                                                            @RequestParam(required = false) String category) {
+        tenantGuard.checkCompany(domainName);
+        StreamingResponseBody body = outputStream ->
+                expenseExportService.writeXlsx(domainName, startYear, endYear, startMonth, endMonth, category, outputStream);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Expenses.xlsx");
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Submit an invoice job", description = "Queues the generation of a PDF invoice for the same filters as /generate/invoice. Poll the returned job and download the invoice once it is completed. An identical job that is still running is returned instead of a new one.", tags = {"Expense Reports"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Invoice job queued"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "403", description = "The company is not the caller's own"),
+            @ApiResponse(responseCode = "429", description = "Too many invoice jobs queued")
+    })
+    @PostMapping("/invoice-jobs/{domainName}")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> submitInvoiceJob(@PathVariable String domainName,
+                                              @RequestParam(required = false) Integer startYear,
+                                              @RequestParam(required = false) Integer endYear,
+                                              @RequestParam(required = false) Integer startMonth,
+                                              @RequestParam(required = false) Integer endMonth,
+                                              @RequestParam(required = false) String category) {
+        InvoiceJobResponse job = invoiceJobService.submitInvoiceJob(domainName, startYear, endYear, startMonth, endMonth, category);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/expense-service/invoice-jobs/" + job.getJobId())
+                .body(job);
+    }
+
+    @Operation(summary = "Get an invoice job", description = "Returns the status of an invoice job of the caller's company.", tags = {"Expense Reports"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Invoice job found"),
+            @ApiResponse(responseCode = "404", description = "Invoice job not found")
+    })
+    @GetMapping("/invoice-jobs/{jobId}")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> getInvoiceJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(invoiceJobService.getInvoiceJob(jobId));
+    }
+
+    @Operation(summary = "Download the invoice of a job", description = "Downloads the PDF rendered by a completed invoice job of the caller's company.", tags = {"Expense Reports"})
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Invoice downloaded successfully",
+                    content = @Content(mediaType = "application/pdf", schema = @Schema(type = "string", format = "binary"))
+            ),
+            @ApiResponse(responseCode = "404", description = "Invoice job not found"),
+            @ApiResponse(responseCode = "409", description = "Invoice job is not completed")
+    })
+    @GetMapping("/invoice-jobs/{jobId}/download")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Resource> downloadInvoice(@PathVariable String jobId) {
+        Resource invoice = new FileSystemResource(invoiceJobService.getInvoiceFile(jobId));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Expense_Invoice.pdf");
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/pdf");
+        return new ResponseEntity<>(invoice, headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Start a month-end report", description = "Starts the month-end report of every company: monthly trend of the year so far, category breakdown and invoice of the month, in one zip archive per company. Poll the returned report for progress. A report of the same month that is still running is returned instead of a new one.", tags = {"Expense Reports"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Month-end report started"),
+            @ApiResponse(responseCode = "400", description = "Invalid year or month")
+    })
+    @PostMapping("/month-end-reports")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> startMonthEndReport(@RequestParam Integer year, @RequestParam Integer month) {
+        MonthEndReportResponse report = monthEndReportService.startReport(year, month);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/expense-service/month-end-reports/" + report.getReportId())
+                .body(report);
+    }
+
+    @Operation(summary = "Get a month-end report", description = "Returns the status and progress of a month-end report.", tags = {"Expense Reports"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Month-end report found"),
+            @ApiResponse(responseCode = "404", description = "Month-end report not found")
+    })
+    @GetMapping("/month-end-reports/{reportId}")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> getMonthEndReport(@PathVariable String reportId) {
+        return ResponseEntity.ok(monthEndReportService.getReport(reportId));
+    }
+
+    @Operation(summary = "Resume a month-end report", description = "Retries the companies of a failed month-end report, companies that were completed are kept.", tags = {"Expense Reports"})
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Month-end report resumed"),
+            @ApiResponse(responseCode = "404", description = "Month-end report not found"),
+            @ApiResponse(responseCode = "409", description = "Month-end report has not failed")
+    })
+    @PostMapping("/month-end-reports/{reportId}/resume")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> resumeMonthEndReport(@PathVariable String reportId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(monthEndReportService.resumeReport(reportId));
+    }
+
+    @Operation(summary = "Download a month-end report", description = "Downloads the zip archive of the caller's company from a completed month-end report.", tags = {"Expense Reports"})
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Archive downloaded successfully",
+                    content = @Content(mediaType = "application/zip", schema = @Schema(type = "string", format = "binary"))
+            ),
+            @ApiResponse(responseCode = "403", description = "Access token is not bound to a company"),
+            @ApiResponse(responseCode = "404", description = "Month-end report not found, or it has no data of the caller's company"),
+            @ApiResponse(responseCode = "409", description = "Month-end report is not completed")
+    })
+    @GetMapping("/month-end-reports/{reportId}/download")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<Resource> downloadMonthEndReport(@PathVariable String reportId) {
+        Resource archive = new FileSystemResource(monthEndReportService.getReportArchive(reportId));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=Month_End_Report.zip");
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/zip");
+        return new ResponseEntity<>(archive, headers, HttpStatus.OK);
     }
 
     // 📌 1️⃣ Monthly Expense Trends Endpoint
@@ -182,4 +437,158 @@ public class ExpenseController {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No expense breakdown found for the given criteria.");
     }
 
+    @Operation(
+            summary = "Stream live expense breakdown",
+            description = "Opens a Server-Sent Events stream of the company's monthly category totals. The first 'snapshot' event carries every month and category, " +
+                    "each 'delta' event carries the months and categories whose total changed since the previous event, a total of 0 means the cell is gone. " +
+                    "Writes are coalesced into at most one event per flush interval, idle streams receive heartbeat comments.",
+            tags = {"Expense Breakdown"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "403", description = "The company is not the caller's own"),
+            @ApiResponse(responseCode = "503", description = "Too many open streams")
+    })
+    @GetMapping(path = "/dashboard/stream/{companyDomain}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @SecurityRequirement(name = "Bearer Authentication")
+    public SseEmitter streamDashboard(@PathVariable String companyDomain) {
+        return this.expenseDashboardService.subscribe(companyDomain);
+    }
+
+    @Operation(
+            summary = "Get expense totals",
+            description = "Fetches the total amount and number of expenses of a company, optionally filtered by year, month, category and employee.",
+            tags = {"Expense Trends"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Expense totals retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid category provided"),
+            @ApiResponse(responseCode = "403", description = "The company is not the caller's own")
+    })
+    @GetMapping("/expense-totals/{companyDomain}")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> getExpenseTotals(
+            @PathVariable String companyDomain,
+            @RequestParam(required = false) Integer startYear,
+            @RequestParam(required = false) Integer endYear,
+            @RequestParam(required = false) Integer startMonth,
+            @RequestParam(required = false) Integer endMonth,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long employeeId) {
+
+        ExpenseCategory categoryEnum = null;
+        if (category != null) {
+            try {
+                categoryEnum = ExpenseCategory.valueOf(category.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid category provided.");
+            }
+        }
+        return ResponseEntity.ok(this.expenseService.getExpenseTotals(companyDomain, startYear, endYear, startMonth, endMonth, categoryEnum, employeeId));
+    }
+
+    @Operation(
+            summary = "Apply approval status events",
+            description = "Receives a batch of approval state transitions from approval-service and updates the status and approval level of the expenses. " +
+                    "Events older than the last one applied to an expense are ignored, so batches can be redelivered. " +
+                    "Internal endpoint, only accepted with the internal service credential in the X-Internal-Service-Token header.",
+            tags = {"Expense Management"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Status events applied successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid status events"),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid internal service credential")
+    })
+    @PostMapping("/status-events")
+    public ResponseEntity<?> applyStatusEvents(@Valid @RequestBody ExpenseStatusEventBatchDTO request) {
+        return ResponseEntity.ok(this.expenseStatusService.applyStatusEvents(request.getEvents()));
+    }
+
+    @Operation(
+            summary = "Search expenses",
+            description = "Full-text search over the title and description of a company's expenses, ranked by relevance, optionally filtered by category and expense date. " +
+                    "Without keywords the matches are listed newest first. The response carries hit counts per category and per month.",
+            tags = {"Expense Management"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid category, dates or page provided"),
+            @ApiResponse(responseCode = "403", description = "The company is not the caller's own")
+    })
+    @GetMapping("/search/{companyDomain}")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> searchExpenses(
+            @PathVariable String companyDomain,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+
+        ExpenseCategory categoryEnum = null;
+        if (category != null) {
+            try {
+                categoryEnum = ExpenseCategory.valueOf(category.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid category provided.");
+            }
+        }
+        return ResponseEntity.ok(this.expenseSearchService.search(companyDomain, q, categoryEnum, fromDate, toDate, page, size));
+    }
+
+    @Operation(
+            summary = "Rebuild the expense search index",
+            description = "Replaces the local full-text index with the current expense table, dropping expenses deleted through other instances.",
+            tags = {"Expense Management"}
+    )
+    @ApiResponse(responseCode = "200", description = "Search index rebuilt successfully")
+    @PostMapping("/search/rebuild")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> rebuildSearchIndex() {
+        long indexed = this.expenseSearchService.rebuild();
+        return ResponseEntity.ok("Search index rebuilt with " + indexed + " expenses.");
+    }
+
+    @Operation(
+            summary = "Rebuild the monthly expense rollup",
+            description = "Recomputes the pre-aggregated monthly totals table from the raw expenses, for one company or for all of them.",
+            tags = {"Expense Trends"}
+    )
+    @ApiResponse(responseCode = "200", description = "Monthly rollup rebuilt successfully")
+    @PostMapping("/rollup/rebuild")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> rebuildRollup(@RequestParam(required = false) String companyDomain) {
+        if (companyDomain != null && !companyDomain.isBlank()) {
+            this.expenseRollupService.rebuild(companyDomain);
+        } else {
+            this.expenseRollupService.rebuildAll();
+        }
+        return ResponseEntity.ok("Monthly expense rollup rebuilt successfully.");
+    }
+
+    @Operation(
+            summary = "Evict cached user and company lookups",
+            description = "Drops the locally cached auth-service user and company-service company of the given email and/or domain, or every cached lookup when neither is given.",
+            tags = {"Expense Management"}
+    )
+    @ApiResponse(responseCode = "200", description = "Lookup cache evicted successfully")
+    @PostMapping("/cache/evict")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<?> evictLookupCache(@RequestParam(required = false) String emailId,
+                                              @RequestParam(required = false) String companyDomain) {
+        boolean hasEmail = emailId != null && !emailId.isBlank();
+        boolean hasDomain = companyDomain != null && !companyDomain.isBlank();
+        if (hasEmail) {
+            this.lookupCache.evictUser(emailId);
+        }
+        if (hasDomain) {
+            this.lookupCache.evictCompany(companyDomain);
+        }
+        if (!hasEmail && !hasDomain) {
+            this.lookupCache.evictAll();
+        }
+        return ResponseEntity.ok("Lookup cache evicted successfully.");
+    }
+
 }
@@ -0,0 +1,15 @@
+package com.madeeasy.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ExpenseBatchRequestDTO {
+    @NotEmpty(message = "At least one expense is required")
+    @Size(max = 10000, message = "A batch can contain at most 10000 expenses")
+    private List<@Valid ExpenseRequestDTO> expenses;
+}
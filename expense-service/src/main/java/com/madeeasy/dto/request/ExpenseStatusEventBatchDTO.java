@@ -0,0 +1,15 @@
+package com.madeeasy.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ExpenseStatusEventBatchDTO {
+    @NotEmpty(message = "At least one event is required")
+    @Size(max = 1000, message = "A batch can contain at most 1000 events")
+    private List<@Valid ExpenseStatusEventDTO> events;
+}
@@ -0,0 +1,26 @@
+package com.madeeasy.dto.request;
+
+import com.madeeasy.entity.ExpenseStatus;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Approval state transition published by approval-service
+@Data
+public class ExpenseStatusEventDTO {
+    @NotNull(message = "Sequence is required")
+    private Long sequence; // Increases with every event, orders the events of an expense
+
+    @NotNull(message = "Expense id is required")
+    private Long expenseId;
+
+    @NotNull(message = "Status is required")
+    private ExpenseStatus status;
+
+    @Min(value = 0, message = "Approval level must not be negative")
+    private Integer approvalLevel; // Step of the company's approval chain, chains have no fixed length
+
+    private LocalDateTime occurredAt;
+}
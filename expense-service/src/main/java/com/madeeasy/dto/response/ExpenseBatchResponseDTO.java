@@ -0,0 +1,17 @@
+package com.madeeasy.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBatchResponseDTO {
+    private int submitted;
+    private List<Long> expenseIds; // In the order of the request, approval is requested asynchronously
+}
@@ -0,0 +1,17 @@
+package com.madeeasy.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExpensePage {
+    private List<ExpenseResponseDTO> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor; // Opaque token, pass it back as 'cursor' to fetch the next page
+}
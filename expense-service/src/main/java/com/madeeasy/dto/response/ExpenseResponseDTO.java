@@ -2,14 +2,18 @@ package com.madeeasy.dto.response;
 
 import com.madeeasy.entity.ExpenseCategory;
 import com.madeeasy.entity.ExpenseStatus;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ExpenseResponseDTO {
 
     private Long id;
@@ -20,6 +24,8 @@ public class ExpenseResponseDTO {
     private BigDecimal amount;
     private ExpenseCategory category;
     private ExpenseStatus status;
+    private Integer approvalLevel;
+    private Boolean overBudget;
     private LocalDateTime expenseDate;
 }
 
@@ -0,0 +1,11 @@
+package com.madeeasy.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ExpenseSearchHit {
+    private float score; // Relevance, NaN when no keywords were given and hits are ordered by date
+    private ExpenseResponseDTO expense;
+}
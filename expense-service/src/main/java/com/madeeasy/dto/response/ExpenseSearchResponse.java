@@ -0,0 +1,18 @@
+package com.madeeasy.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class ExpenseSearchResponse {
+    private long totalHits;
+    private int page;
+    private int size;
+    private List<ExpenseSearchHit> hits;
+    private Map<String, Long> categories; // Category -> hits, over all matches
+    private Map<String, Long> months; // yyyy-MM -> hits, over all matches
+}
@@ -0,0 +1,12 @@
+package com.madeeasy.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ExpenseStatusUpdateResponse {
+    private int received;
+    private int applied;
+    private int ignored; // Superseded by a newer event, repeated, or of an unknown expense
+}
@@ -0,0 +1,13 @@
+package com.madeeasy.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class ExpenseTotals {
+    private BigDecimal totalAmount;
+    private long expenseCount;
+}
@@ -0,0 +1,22 @@
+package com.madeeasy.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.madeeasy.entity.InvoiceJobStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InvoiceJobResponse {
+    private String jobId;
+    private InvoiceJobStatus status;
+    private String companyDomain;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private Long fileSize;
+    private String error;
+    private String downloadUrl; // Only set once the job is completed
+}
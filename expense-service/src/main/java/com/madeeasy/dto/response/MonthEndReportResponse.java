@@ -0,0 +1,26 @@
+package com.madeeasy.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.madeeasy.entity.MonthEndReportStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MonthEndReportResponse {
+    private String reportId;
+    private Integer year;
+    private Integer month;
+    private MonthEndReportStatus status;
+    private Integer totalTenants;
+    private Long completedTenants;
+    private Long failedTenants;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private Long fileSize;
+    private String error;
+    private String downloadUrl; // Only set once the report is completed
+}
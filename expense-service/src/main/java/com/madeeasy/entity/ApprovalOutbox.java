@@ -0,0 +1,56 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Approval hand-off of a submitted expense, written in the same transaction as the expense and relayed in the background
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_approval_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+public class ApprovalOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "approval_outbox_sequence_generator")
+    @SequenceGenerator(
+            name = "approval_outbox_sequence_generator",
+            sequenceName = "approval_outbox_sequence",
+            allocationSize = 50
+    )
+    private Long id;
+
+    @Column(nullable = false)
+    private Long expenseId;
+
+    @Column(nullable = false)
+    private String companyDomain;
+
+    @Column(nullable = false, length = 4000)
+    private String payload; // ApprovalRequestDTO as JSON
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime sentAt;
+}
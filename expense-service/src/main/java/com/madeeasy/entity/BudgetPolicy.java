@@ -0,0 +1,6 @@
+package com.madeeasy.entity;
+
+// What happens to a submission that takes a category over the company's monthly budget
+public enum BudgetPolicy {
+    FLAG, REJECT;
+}
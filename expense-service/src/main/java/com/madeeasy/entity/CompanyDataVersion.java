@@ -0,0 +1,22 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Counter bumped in the same transaction as every expense write of a company, derived data keyed by it is never stale
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyDataVersion {
+
+    @Id
+    private String companyDomain;
+
+    @Column(nullable = false)
+    private long version;
+}
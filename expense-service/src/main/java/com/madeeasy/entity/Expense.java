@@ -12,6 +12,11 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_expense_company_date", columnList = "company_domain, expense_date"),
+        @Index(name = "idx_expense_company_category_date", columnList = "company_domain, category, expense_date"),
+        @Index(name = "idx_expense_updated_at", columnList = "updated_at") // Catch-up scans of the search index
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Expense extends AuditModel implements Serializable {
@@ -21,7 +26,7 @@ public class Expense extends AuditModel implements Serializable {
     @SequenceGenerator(
             name = "expense_sequence_generator",
             sequenceName = "expense_sequence",
-            allocationSize = 1
+            allocationSize = 50 // Pooled optimizer, one sequence round trip per 50 ids
     )
     private Long id;
 
@@ -48,6 +53,15 @@ public class Expense extends AuditModel implements Serializable {
     @Column(nullable = false)
     private ExpenseStatus status = ExpenseStatus.SUBMITTED;
 
+    @Column
+    private Integer approvalLevel; // 0 = auto-approved, n = step n of the company's approval chain
+
+    @Column
+    private Long statusVersion; // Sequence of the last applied approval event, older events are ignored
+
+    @Column(nullable = false)
+    private Boolean overBudget = false; // Submitted while its category was over the company's monthly budget
+
     @Column(nullable = false)
     private LocalDateTime expenseDate;
 
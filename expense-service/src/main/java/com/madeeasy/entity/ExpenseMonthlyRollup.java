@@ -0,0 +1,30 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// Pre-aggregated expense totals per (company, year, month, category), kept in step with every expense write
+@Data
+@Entity
+@Table(name = "expense_monthly_rollup")
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseMonthlyRollup implements Serializable {
+
+    @EmbeddedId
+    private ExpenseMonthlyRollupId id;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private Long expenseCount;
+}
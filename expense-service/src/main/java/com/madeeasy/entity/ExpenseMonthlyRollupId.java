@@ -0,0 +1,31 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseMonthlyRollupId implements Serializable {
+
+    @Column(nullable = false)
+    private String companyDomain;
+
+    @Column(name = "expense_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "expense_month", nullable = false)
+    private Integer month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExpenseCategory category;
+}
@@ -1,5 +1,8 @@
 package com.madeeasy.entity;
 
 public enum ExpenseStatus {
-    SUBMITTED
-}
\ No newline at end of file
+    SUBMITTED,
+    IN_REVIEW, // Waiting for the approver of Expense.approvalLevel
+    APPROVED,
+    REJECTED
+}
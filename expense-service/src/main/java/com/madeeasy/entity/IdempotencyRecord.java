@@ -0,0 +1,49 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Response of a submission made with an Idempotency-Key, written in the same transaction as the expense
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_record_email_key", columnNames = {"email_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "created_at")
+)
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_record_sequence_generator")
+    @SequenceGenerator(
+            name = "idempotency_record_sequence_generator",
+            sequenceName = "idempotency_record_sequence",
+            allocationSize = 50
+    )
+    private Long id;
+
+    @Column(nullable = false)
+    private String emailId; // Keys are scoped to the submitting employee
+
+    @Column(nullable = false)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash; // SHA-256 of the request body, a key reused for another body is rejected
+
+    @Column(nullable = false)
+    private Long expenseId;
+
+    @Column(nullable = false, length = 4000)
+    private String response; // ExpenseResponseDTO as JSON
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
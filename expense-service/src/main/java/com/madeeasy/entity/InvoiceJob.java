@@ -0,0 +1,50 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Background rendering of an expense invoice, the PDF itself lives in the invoice file store
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_invoice_job_status_created", columnList = "status, created_at"))
+public class InvoiceJob {
+
+    @Id
+    @Column(length = 36)
+    private String id; // Random UUID, it is also the name of the stored file
+
+    @Column(nullable = false)
+    private String companyDomain;
+
+    private Integer startYear;
+    private Integer endYear;
+    private Integer startMonth;
+    private Integer endMonth;
+    private String category;
+
+    @Column(nullable = false)
+    private String requestKey; // Normalized filters, identical in-flight requests share one job
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InvoiceJobStatus status;
+
+    private Long fileSize;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
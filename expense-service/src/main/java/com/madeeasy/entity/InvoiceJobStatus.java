@@ -0,0 +1,8 @@
+package com.madeeasy.entity;
+
+public enum InvoiceJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,46 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Month-end report across every company, the archive itself lives in the month-end file store
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_month_end_report_period", columnList = "report_year, report_month, status"))
+public class MonthEndReport {
+
+    @Id
+    @Column(length = 36)
+    private String id; // Random UUID, it is also the name of the archive and of its working directory
+
+    @Column(name = "report_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "report_month", nullable = false)
+    private Integer month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MonthEndReportStatus status;
+
+    @Column(nullable = false)
+    private Integer totalTenants;
+
+    private Long fileSize;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+}
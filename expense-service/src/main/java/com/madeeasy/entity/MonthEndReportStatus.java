@@ -0,0 +1,7 @@
+package com.madeeasy.entity;
+
+public enum MonthEndReportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED // Some companies failed, the report can be resumed
+}
@@ -0,0 +1,48 @@
+package com.madeeasy.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Progress of one company in a month-end report, completed companies are skipped when the report is resumed
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_month_end_tenant_report_domain", columnNames = {"report_id", "company_domain"}))
+public class MonthEndTenant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "month_end_tenant_sequence_generator")
+    @SequenceGenerator(
+            name = "month_end_tenant_sequence_generator",
+            sequenceName = "month_end_tenant_sequence",
+            allocationSize = 50
+    )
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String reportId;
+
+    @Column(nullable = false)
+    private String companyDomain;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MonthEndTenantStatus status;
+
+    private Long expenseCount; // Expenses of the report month
+
+    private BigDecimal totalAmount;
+
+    @Column(length = 1000)
+    private String error;
+
+    private LocalDateTime completedAt;
+}
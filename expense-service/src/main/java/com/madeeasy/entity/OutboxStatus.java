@@ -0,0 +1,5 @@
+package com.madeeasy.entity;
+
+public enum OutboxStatus {
+    PENDING, SENT, FAILED
+}
@@ -0,0 +1,30 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.ApprovalOutbox;
+import com.madeeasy.entity.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ApprovalOutboxRepository extends JpaRepository<ApprovalOutbox, Long> {
+
+    // Claims due rows, rows locked by another relay instance are skipped (lock timeout -2 = SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM ApprovalOutbox o WHERE o.status = :status AND o.nextAttemptAt <= :now ORDER BY o.id")
+    List<ApprovalOutbox> findDueForUpdate(@Param("status") OutboxStatus status,
+                                          @Param("now") LocalDateTime now,
+                                          Limit limit);
+
+    long countByStatus(OutboxStatus status);
+}
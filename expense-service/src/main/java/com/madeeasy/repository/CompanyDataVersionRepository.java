@@ -0,0 +1,16 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.CompanyDataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CompanyDataVersionRepository extends JpaRepository<CompanyDataVersion, String> {
+
+    @Modifying
+    @Query("UPDATE CompanyDataVersion v SET v.version = v.version + 1 WHERE v.companyDomain = :companyDomain")
+    int increment(@Param("companyDomain") String companyDomain);
+}
@@ -0,0 +1,60 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.exception.ClientException;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Optional year/month/category filters of the expense queries.
+ * <p>
+ * Year bounds (with their month, when given) are turned into a half-open
+ * {@code [from, to)} range on {@code expenseDate} so the
+ * {@code (company_domain, expense_date)} index can be used. A month bound without
+ * its year cannot be expressed as a range and stays a month-of-year predicate.
+ */
+public record ExpenseFilter(String companyDomain,
+                            Integer startYear,
+                            Integer endYear,
+                            Integer startMonth,
+                            Integer endMonth,
+                            ExpenseCategory category) {
+
+    public ExpenseFilter {
+        validateMonth(startMonth, "startMonth");
+        validateMonth(endMonth, "endMonth");
+    }
+
+    // Inclusive lower bound, or null when there is no start year
+    public LocalDateTime from() {
+        if (startYear == null) {
+            return null;
+        }
+        return LocalDate.of(startYear, startMonth != null ? startMonth : 1, 1).atStartOfDay();
+    }
+
+    // Exclusive upper bound, or null when there is no end year
+    public LocalDateTime to() {
+        if (endYear == null) {
+            return null;
+        }
+        return LocalDate.of(endYear, endMonth != null ? endMonth : 12, 1).plusMonths(1).atStartOfDay();
+    }
+
+    // Month-of-year bound that is not covered by the date range
+    public Integer residualStartMonth() {
+        return startYear == null ? startMonth : null;
+    }
+
+    public Integer residualEndMonth() {
+        return endYear == null ? endMonth : null;
+    }
+
+    private static void validateMonth(Integer month, String name) {
+        if (month != null && (month < 1 || month > 12)) {
+            throw new ClientException(name + " must be between 1 and 12", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.entity.ExpenseMonthlyRollup;
+import com.madeeasy.entity.ExpenseMonthlyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface ExpenseMonthlyRollupRepository extends JpaRepository<ExpenseMonthlyRollup, ExpenseMonthlyRollupId>, ExpenseMonthlyRollupRepositoryCustom {
+
+    // Atomic in-place increment, returns 0 when the rollup row does not exist yet
+    @Modifying
+    @Query("UPDATE ExpenseMonthlyRollup r SET r.totalAmount = r.totalAmount + :amount, r.expenseCount = r.expenseCount + :count " +
+            "WHERE r.id.companyDomain = :companyDomain AND r.id.year = :year AND r.id.month = :month AND r.id.category = :category")
+    int increment(@Param("companyDomain") String companyDomain,
+                  @Param("year") Integer year,
+                  @Param("month") Integer month,
+                  @Param("category") ExpenseCategory category,
+                  @Param("amount") BigDecimal amount,
+                  @Param("count") long count);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseMonthlyRollup r WHERE r.id.companyDomain = :companyDomain")
+    int deleteByCompanyDomain(@Param("companyDomain") String companyDomain);
+
+    // Rows of [companyDomain, year, month, category, totalAmount] of every month from fromPeriod (year * 100 + month) on
+    @Query("SELECT r.id.companyDomain, r.id.year, r.id.month, r.id.category, r.totalAmount FROM ExpenseMonthlyRollup r " +
+            "WHERE (r.id.year * 100 + r.id.month) >= :fromPeriod")
+    List<Object[]> findTotalsFrom(@Param("fromPeriod") int fromPeriod);
+
+    @Query("SELECT DISTINCT r.id.companyDomain FROM ExpenseMonthlyRollup r")
+    List<String> findDistinctCompanyDomains();
+}
@@ -0,0 +1,16 @@
+package com.madeeasy.repository;
+
+import java.util.List;
+
+// Analytics answered from the monthly rollup, same row shapes as the raw-table queries in ExpenseRepositoryCustom
+public interface ExpenseMonthlyRollupRepositoryCustom {
+
+    // Rows of [year, month, totalAmount], newest first
+    List<Object[]> findMonthlyExpenseTrends(ExpenseFilter filter);
+
+    // Rows of [year, totalAmount], newest first
+    List<Object[]> findYearlyExpenseTrends(ExpenseFilter filter);
+
+    // Rows of [month, year, category, totalAmount], newest first
+    List<Object[]> findExpenseCategoryBreakdown(ExpenseFilter filter);
+}
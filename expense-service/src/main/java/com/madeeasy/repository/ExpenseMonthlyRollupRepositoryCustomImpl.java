@@ -0,0 +1,80 @@
+package com.madeeasy.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ExpenseMonthlyRollupRepositoryCustomImpl implements ExpenseMonthlyRollupRepositoryCustom {
+
+    // A month is addressed as year * 100 + month so range bounds compare as plain integers
+    private static final String PERIOD = "(r.id.year * 100 + r.id.month)";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Object[]> findMonthlyExpenseTrends(ExpenseFilter filter) {
+        return createQuery("SELECT r.id.year AS year, r.id.month AS month, SUM(r.totalAmount) AS totalAmount FROM ExpenseMonthlyRollup r",
+                filter, false,
+                " GROUP BY r.id.year, r.id.month ORDER BY year DESC, month DESC").getResultList();
+    }
+
+    @Override
+    public List<Object[]> findYearlyExpenseTrends(ExpenseFilter filter) {
+        ExpenseFilter yearsOnly = new ExpenseFilter(filter.companyDomain(), filter.startYear(), filter.endYear(), null, null, null);
+        return createQuery("SELECT r.id.year AS year, SUM(r.totalAmount) AS totalAmount FROM ExpenseMonthlyRollup r",
+                yearsOnly, false,
+                " GROUP BY r.id.year ORDER BY year DESC").getResultList();
+    }
+
+    @Override
+    public List<Object[]> findExpenseCategoryBreakdown(ExpenseFilter filter) {
+        return createQuery("SELECT r.id.month AS month, r.id.year AS year, r.id.category AS category, SUM(r.totalAmount) AS totalAmount " +
+                        "FROM ExpenseMonthlyRollup r",
+                filter, true,
+                " GROUP BY r.id.month, r.id.year, r.id.category ORDER BY year DESC, month DESC").getResultList();
+    }
+
+    // Same filter semantics as ExpenseRepositoryCustomImpl, expressed on the (year, month) key of the rollup
+    private TypedQuery<Object[]> createQuery(String select, ExpenseFilter filter, boolean withCategory, String suffix) {
+        StringBuilder jpql = new StringBuilder(select)
+                .append(" WHERE r.id.companyDomain = :companyDomain AND r.expenseCount > 0");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("companyDomain", filter.companyDomain());
+
+        if (withCategory && filter.category() != null) {
+            jpql.append(" AND r.id.category = :category");
+            parameters.put("category", filter.category());
+        }
+        if (filter.from() != null) {
+            jpql.append(" AND ").append(PERIOD).append(" >= :fromPeriod");
+            parameters.put("fromPeriod", toPeriod(filter.from()));
+        }
+        if (filter.to() != null) {
+            jpql.append(" AND ").append(PERIOD).append(" < :toPeriod");
+            parameters.put("toPeriod", toPeriod(filter.to()));
+        }
+        if (filter.residualStartMonth() != null) {
+            jpql.append(" AND r.id.month >= :startMonth");
+            parameters.put("startMonth", filter.residualStartMonth());
+        }
+        if (filter.residualEndMonth() != null) {
+            jpql.append(" AND r.id.month <= :endMonth");
+            parameters.put("endMonth", filter.residualEndMonth());
+        }
+        jpql.append(suffix);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+
+    private static int toPeriod(LocalDateTime dateTime) {
+        return dateTime.getYear() * 100 + dateTime.getMonthValue();
+    }
+}
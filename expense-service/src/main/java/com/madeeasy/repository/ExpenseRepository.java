@@ -1,82 +1,69 @@
 package com.madeeasy.repository;
 
+import com.madeeasy.dto.response.ExpenseResponseDTO;
 import com.madeeasy.entity.Expense;
 import com.madeeasy.entity.ExpenseCategory;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseRepositoryCustom {
     List<Expense> findByCompanyDomain(String domainName);
 
-    @Query("SELECT e FROM Expense e WHERE e.companyDomain = :companyDomain " +
-            "AND (:startYear IS NULL OR EXTRACT(YEAR FROM e.expenseDate) >= :startYear) " +
-            "AND (:endYear IS NULL OR EXTRACT(YEAR FROM e.expenseDate) <= :endYear) " +
-            "AND (:startMonth IS NULL OR EXTRACT(MONTH FROM e.expenseDate) >= :startMonth) " +
-            "AND (:endMonth IS NULL OR EXTRACT(MONTH FROM e.expenseDate) <= :endMonth) " +
-            "AND (:category IS NULL OR e.category = :category)")
-    List<Expense> findExpensesWithFilters(
-            @Param("companyDomain") String companyDomain,
-            @Param("startYear") Integer startYear,
-            @Param("endYear") Integer endYear,
-            @Param("startMonth") Integer startMonth,
-            @Param("endMonth") Integer endMonth,
-            @Param("category") ExpenseCategory category);
+    @Query("SELECT DISTINCT e.companyDomain FROM Expense e")
+    List<String> findDistinctCompanyDomains();
 
+    // Read path projections: rows go straight into the DTO, nothing is managed or dirty-checked
+    @Query("SELECT new com.madeeasy.dto.response.ExpenseResponseDTO(e.id, e.employeeId, e.companyDomain, e.title, " +
+            "e.description, e.amount, e.category, e.status, e.approvalLevel, e.overBudget, e.expenseDate) " +
+            "FROM Expense e WHERE e.id = :id")
+    Optional<ExpenseResponseDTO> findResponseById(@Param("id") Long id);
 
-    @Query("SELECT e FROM Expense e WHERE e.category = :category AND e.companyDomain = :companyDomain")
-    List<Expense> findExpensesByCategoryAndCompanyDomain(
-            @Param("category") ExpenseCategory category,  // Change String to ExpenseCategory
-            @Param("companyDomain") String companyDomain
-    );
+    @Query("SELECT new com.madeeasy.dto.response.ExpenseResponseDTO(e.id, e.employeeId, e.companyDomain, e.title, " +
+            "e.description, e.amount, e.category, e.status, e.approvalLevel, e.overBudget, e.expenseDate) " +
+            "FROM Expense e")
+    List<ExpenseResponseDTO> findAllResponses();
 
-    @Query("SELECT EXTRACT(YEAR FROM e.expenseDate) AS year, EXTRACT(MONTH FROM e.expenseDate) AS month, SUM(e.amount) AS totalAmount " +
+    // Keyset pagination: newest first, ties on expenseDate broken by id
+    @Query("SELECT new com.madeeasy.dto.response.ExpenseResponseDTO(e.id, e.employeeId, e.companyDomain, e.title, " +
+            "e.description, e.amount, e.category, e.status, e.approvalLevel, e.overBudget, e.expenseDate) " +
             "FROM Expense e WHERE e.companyDomain = :companyDomain " +
-            "AND (:startYear IS NULL OR EXTRACT(YEAR FROM e.expenseDate) >= :startYear) " +
-            "AND (:endYear IS NULL OR EXTRACT(YEAR FROM e.expenseDate) <= :endYear) " +
-            "AND (:startMonth IS NULL OR EXTRACT(MONTH FROM e.expenseDate) >= :startMonth) " +
-            "AND (:endMonth IS NULL OR EXTRACT(MONTH FROM e.expenseDate) <= :endMonth) " +
-            "GROUP BY EXTRACT(YEAR FROM e.expenseDate), EXTRACT(MONTH FROM e.expenseDate) " +
-            "ORDER BY year DESC, month DESC")
-    List<Object[]> findMonthlyExpenseTrendsByCompanyDomain(
+            "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseResponseDTO> findFirstExpensePage(
             @Param("companyDomain") String companyDomain,
-            @Param("startYear") Integer startYear,
-            @Param("endYear") Integer endYear,
-            @Param("startMonth") Integer startMonth,
-            @Param("endMonth") Integer endMonth);
+            Limit limit);
 
-    @Query("SELECT EXTRACT(YEAR FROM e.expenseDate) AS year, SUM(e.amount) AS totalAmount " +
+    @Query("SELECT new com.madeeasy.dto.response.ExpenseResponseDTO(e.id, e.employeeId, e.companyDomain, e.title, " +
+            "e.description, e.amount, e.category, e.status, e.approvalLevel, e.overBudget, e.expenseDate) " +
             "FROM Expense e WHERE e.companyDomain = :companyDomain " +
-            "AND (:startYear IS NULL OR EXTRACT(YEAR FROM e.expenseDate) >= :startYear) " +
-            "AND (:endYear IS NULL OR EXTRACT(YEAR FROM e.expenseDate) <= :endYear) " +
-            "GROUP BY EXTRACT(YEAR FROM e.expenseDate) ORDER BY year DESC")
-    List<Object[]> findYearlyExpenseTrendsByCompanyDomain(
+            "AND (e.expenseDate < :lastExpenseDate OR (e.expenseDate = :lastExpenseDate AND e.id < :lastId)) " +
+            "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseResponseDTO> findExpensePageAfter(
             @Param("companyDomain") String companyDomain,
-            @Param("startYear") Integer startYear,
-            @Param("endYear") Integer endYear);
+            @Param("lastExpenseDate") LocalDateTime lastExpenseDate,
+            @Param("lastId") Long lastId,
+            Limit limit);
 
-    @Query("SELECT EXTRACT(MONTH FROM e.expenseDate) AS month, " +
-            "EXTRACT(YEAR FROM e.expenseDate) AS year, e.category AS category, " +
-            "SUM(e.amount) AS totalAmount " +
-            "FROM Expense e WHERE e.companyDomain = :companyDomain " +
-            "AND (:startYear IS NULL OR EXTRACT(YEAR FROM e.expenseDate) >= :startYear) " +
-            "AND (:endYear IS NULL OR EXTRACT(YEAR FROM e.expenseDate) <= :endYear) " +
-            "AND (:startMonth IS NULL OR EXTRACT(MONTH FROM e.expenseDate) >= :startMonth) " +
-            "AND (:endMonth IS NULL OR EXTRACT(MONTH FROM e.expenseDate) <= :endMonth) " +
-            "AND (:category IS NULL OR e.category = :category) " +
-            "GROUP BY EXTRACT(MONTH FROM e.expenseDate), EXTRACT(YEAR FROM e.expenseDate), e.category " +
-            "ORDER BY year DESC, month DESC")
-    List<Object[]> findExpenseCategoryBreakdown(
-            @Param("companyDomain") String companyDomain,
-            @Param("startYear") Integer startYear,
-            @Param("endYear") Integer endYear,
-            @Param("startMonth") Integer startMonth,
-            @Param("endMonth") Integer endMonth,
-            @Param("category") ExpenseCategory category);
+    // Locks the expenses in id order, so concurrent status batches cannot deadlock each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Expense e WHERE e.id IN :ids ORDER BY e.id")
+    List<Expense> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e FROM Expense e WHERE e.category = :category AND e.companyDomain = :companyDomain")
+    List<Expense> findExpensesByCategoryAndCompanyDomain(
+            @Param("category") ExpenseCategory category,  // Change String to ExpenseCategory
+            @Param("companyDomain") String companyDomain
+    );
 
 }
 
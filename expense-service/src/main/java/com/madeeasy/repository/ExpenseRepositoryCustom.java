@@ -0,0 +1,34 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.Expense;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Filtered queries whose JPQL is built from the filters that are actually present
+public interface ExpenseRepositoryCustom {
+
+    List<Expense> findExpensesWithFilters(ExpenseFilter filter);
+
+    // Forward-only variant, must be consumed inside a transaction and closed
+    Stream<Expense> streamExpensesWithFilters(ExpenseFilter filter);
+
+    // Forward-only scan of the expenses modified after 'since' (all of them when null), source of the search index
+    Stream<Expense> streamExpensesModifiedSince(Date since);
+
+    // Rows of [year, month, totalAmount], newest first
+    List<Object[]> findMonthlyExpenseTrends(ExpenseFilter filter);
+
+    // Rows of [year, totalAmount], newest first
+    List<Object[]> findYearlyExpenseTrends(ExpenseFilter filter);
+
+    // Rows of [month, year, category, totalAmount], newest first
+    List<Object[]> findExpenseCategoryBreakdown(ExpenseFilter filter);
+
+    // Rows of [year, month, category, totalAmount, expenseCount] over a whole company, source of the monthly rollup
+    List<Object[]> findMonthlyCategoryTotals(String companyDomain);
+
+    // Rows of [year, month, category, employeeId, totalAmount, expenseCount] over a whole company, source of the analytics ledger
+    List<Object[]> findMonthlyEmployeeCategoryTotals(String companyDomain);
+}
@@ -0,0 +1,124 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.Expense;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class ExpenseRepositoryCustomImpl implements ExpenseRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Expense> findExpensesWithFilters(ExpenseFilter filter) {
+        return createQuery("SELECT e FROM Expense e", filter, true, "", Expense.class).getResultList();
+    }
+
+    @Override
+    public Stream<Expense> streamExpensesWithFilters(ExpenseFilter filter) {
+        return createQuery("SELECT e FROM Expense e", filter, true, "", Expense.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Expense> streamExpensesModifiedSince(Date since) {
+        TypedQuery<Expense> query = since == null
+                ? entityManager.createQuery("SELECT e FROM Expense e", Expense.class)
+                : entityManager.createQuery("SELECT e FROM Expense e WHERE e.updatedAt > :since", Expense.class)
+                .setParameter("since", since);
+        return query
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<Object[]> findMonthlyExpenseTrends(ExpenseFilter filter) {
+        return createQuery("SELECT EXTRACT(YEAR FROM e.expenseDate) AS year, EXTRACT(MONTH FROM e.expenseDate) AS month, " +
+                        "SUM(e.amount) AS totalAmount FROM Expense e",
+                filter, false,
+                " GROUP BY EXTRACT(YEAR FROM e.expenseDate), EXTRACT(MONTH FROM e.expenseDate) ORDER BY year DESC, month DESC",
+                Object[].class).getResultList();
+    }
+
+    @Override
+    public List<Object[]> findYearlyExpenseTrends(ExpenseFilter filter) {
+        ExpenseFilter yearsOnly = new ExpenseFilter(filter.companyDomain(), filter.startYear(), filter.endYear(), null, null, null);
+        return createQuery("SELECT EXTRACT(YEAR FROM e.expenseDate) AS year, SUM(e.amount) AS totalAmount FROM Expense e",
+                yearsOnly, false,
+                " GROUP BY EXTRACT(YEAR FROM e.expenseDate) ORDER BY year DESC",
+                Object[].class).getResultList();
+    }
+
+    @Override
+    public List<Object[]> findExpenseCategoryBreakdown(ExpenseFilter filter) {
+        return createQuery("SELECT EXTRACT(MONTH FROM e.expenseDate) AS month, EXTRACT(YEAR FROM e.expenseDate) AS year, " +
+                        "e.category AS category, SUM(e.amount) AS totalAmount FROM Expense e",
+                filter, true,
+                " GROUP BY EXTRACT(MONTH FROM e.expenseDate), EXTRACT(YEAR FROM e.expenseDate), e.category ORDER BY year DESC, month DESC",
+                Object[].class).getResultList();
+    }
+
+    @Override
+    public List<Object[]> findMonthlyCategoryTotals(String companyDomain) {
+        return createQuery("SELECT EXTRACT(YEAR FROM e.expenseDate), EXTRACT(MONTH FROM e.expenseDate), e.category, " +
+                        "SUM(e.amount), COUNT(e) FROM Expense e",
+                new ExpenseFilter(companyDomain, null, null, null, null, null), false,
+                " GROUP BY EXTRACT(YEAR FROM e.expenseDate), EXTRACT(MONTH FROM e.expenseDate), e.category",
+                Object[].class).getResultList();
+    }
+
+    @Override
+    public List<Object[]> findMonthlyEmployeeCategoryTotals(String companyDomain) {
+        return createQuery("SELECT EXTRACT(YEAR FROM e.expenseDate), EXTRACT(MONTH FROM e.expenseDate), e.category, e.employeeId, " +
+                        "SUM(e.amount), COUNT(e) FROM Expense e",
+                new ExpenseFilter(companyDomain, null, null, null, null, null), false,
+                " GROUP BY EXTRACT(YEAR FROM e.expenseDate), EXTRACT(MONTH FROM e.expenseDate), e.category, e.employeeId",
+                Object[].class).getResultList();
+    }
+
+    // Appends only the predicates whose filter value is present, so every query stays sargable
+    private <T> TypedQuery<T> createQuery(String select, ExpenseFilter filter, boolean withCategory, String suffix, Class<T> resultType) {
+        StringBuilder jpql = new StringBuilder(select).append(" WHERE e.companyDomain = :companyDomain");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("companyDomain", filter.companyDomain());
+
+        if (withCategory && filter.category() != null) {
+            jpql.append(" AND e.category = :category");
+            parameters.put("category", filter.category());
+        }
+        if (filter.from() != null) {
+            jpql.append(" AND e.expenseDate >= :from");
+            parameters.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            jpql.append(" AND e.expenseDate < :to");
+            parameters.put("to", filter.to());
+        }
+        if (filter.residualStartMonth() != null) {
+            jpql.append(" AND EXTRACT(MONTH FROM e.expenseDate) >= :startMonth");
+            parameters.put("startMonth", filter.residualStartMonth());
+        }
+        if (filter.residualEndMonth() != null) {
+            jpql.append(" AND EXTRACT(MONTH FROM e.expenseDate) <= :endMonth");
+            parameters.put("endMonth", filter.residualEndMonth());
+        }
+        jpql.append(suffix);
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), resultType);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
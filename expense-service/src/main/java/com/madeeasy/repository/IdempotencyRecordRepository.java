@@ -0,0 +1,28 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByEmailIdAndIdempotencyKey(String emailId, String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.emailId = :emailId AND r.idempotencyKey = :idempotencyKey AND r.createdAt < :cutoff")
+    int deleteExpired(@Param("emailId") String emailId, @Param("idempotencyKey") String idempotencyKey, @Param("cutoff") LocalDateTime cutoff);
+}
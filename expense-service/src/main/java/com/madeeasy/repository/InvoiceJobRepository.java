@@ -0,0 +1,29 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.InvoiceJob;
+import com.madeeasy.entity.InvoiceJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InvoiceJobRepository extends JpaRepository<InvoiceJob, String> {
+
+    List<InvoiceJob> findByCreatedAtBefore(LocalDateTime createdAt);
+
+    // Jobs that were queued or running when the service stopped will never finish
+    @Transactional
+    @Modifying
+    @Query("UPDATE InvoiceJob j SET j.status = com.madeeasy.entity.InvoiceJobStatus.FAILED, j.error = :error, " +
+            "j.completedAt = :now WHERE j.status IN :statuses")
+    int failAll(@Param("statuses") Collection<InvoiceJobStatus> statuses,
+                @Param("error") String error,
+                @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,17 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.MonthEndReport;
+import com.madeeasy.entity.MonthEndReportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MonthEndReportRepository extends JpaRepository<MonthEndReport, String> {
+
+    Optional<MonthEndReport> findFirstByYearAndMonthAndStatus(Integer year, Integer month, MonthEndReportStatus status);
+
+    List<MonthEndReport> findByStatus(MonthEndReportStatus status);
+}
@@ -0,0 +1,29 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.MonthEndTenant;
+import com.madeeasy.entity.MonthEndTenantStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface MonthEndTenantRepository extends JpaRepository<MonthEndTenant, Long> {
+
+    List<MonthEndTenant> findByReportIdAndStatusNot(String reportId, MonthEndTenantStatus status);
+
+    List<MonthEndTenant> findByReportIdOrderByCompanyDomain(String reportId);
+
+    long countByReportIdAndStatus(String reportId, MonthEndTenantStatus status);
+
+    // Failed companies are retried when a report is resumed
+    @Transactional
+    @Modifying
+    @Query("UPDATE MonthEndTenant t SET t.status = com.madeeasy.entity.MonthEndTenantStatus.PENDING, t.error = null " +
+            "WHERE t.reportId = :reportId AND t.status = com.madeeasy.entity.MonthEndTenantStatus.FAILED")
+    int resetFailed(@Param("reportId") String reportId);
+}
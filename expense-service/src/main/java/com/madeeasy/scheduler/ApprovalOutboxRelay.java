@@ -0,0 +1,144 @@
+package com.madeeasy.scheduler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.madeeasy.config.OutboxProperties;
+import com.madeeasy.entity.ApprovalOutbox;
+import com.madeeasy.entity.OutboxStatus;
+import com.madeeasy.repository.ApprovalOutboxRepository;
+import com.madeeasy.security.config.InternalServiceProperties;
+import com.madeeasy.vo.ApprovalBatchResponse;
+import com.madeeasy.vo.ApprovalRequestDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Relays pending {@link ApprovalOutbox} rows to approval-service.
+ * <p>
+ * A relay run claims the due rows by pushing their next attempt past the claim timeout and commits, so the
+ * call to approval-service holds neither a connection nor row locks; the outcome is recorded in a second short
+ * transaction. Rows whose outcome was never recorded, e.g. after a crash, are picked up again after the claim timeout.
+ * Batches are sent with the internal service credential, so a retry never depends on a user's token still being valid.
+ * Failed rows are retried with exponential backoff and marked FAILED after the configured attempts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApprovalOutboxRelay {
+
+    private static final String APPROVAL_BATCH_URL = "http://approval-service/approval-service/ask-for-approve-batch";
+
+    private final ApprovalOutboxRepository approvalOutboxRepository;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties outboxProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final InternalServiceProperties internalServiceProperties;
+
+    @Scheduled(fixedDelayString = "${expense.outbox.relay-interval:1000}")
+    public void relayPendingApprovals() {
+        List<ApprovalOutbox> claimed = transactionTemplate.execute(status -> claimDue());
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        sendBatch(claimed);
+    }
+
+    private List<ApprovalOutbox> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ApprovalOutbox> due = approvalOutboxRepository.findDueForUpdate(
+                OutboxStatus.PENDING, now, Limit.of(outboxProperties.getBatchSize()));
+        LocalDateTime claimedUntil = now.plus(outboxProperties.getClaimTimeout());
+        due.forEach(outbox -> outbox.setNextAttemptAt(claimedUntil));
+        return due;
+    }
+
+    private void sendBatch(List<ApprovalOutbox> batch) {
+        Map<Long, String> failures = new HashMap<>();
+        // Whatever fails here, the rows stay in the outbox and are retried later
+        try {
+            List<ApprovalRequestDTO> requests = new ArrayList<>(batch.size());
+            for (ApprovalOutbox outbox : batch) {
+                requests.add(objectMapper.readValue(outbox.getPayload(), ApprovalRequestDTO.class));
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set(InternalServiceProperties.HEADER, internalServiceProperties.getToken());
+
+            ApprovalBatchResponse response = restTemplate.exchange(APPROVAL_BATCH_URL, HttpMethod.POST,
+                    new HttpEntity<>(requests, headers), ApprovalBatchResponse.class).getBody();
+
+            Set<Long> failedExpenseIds = response == null || response.getFailedExpenseIds() == null
+                    ? Set.of() : new HashSet<>(response.getFailedExpenseIds());
+            for (ApprovalOutbox outbox : batch) {
+                if (failedExpenseIds.contains(outbox.getExpenseId())) {
+                    failures.put(outbox.getId(), "Rejected by approval-service");
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to relay approval requests: {}", e.getMessage());
+            batch.forEach(outbox -> failures.put(outbox.getId(), e.getMessage()));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> recordOutcome(batch, failures));
+            log.info("Relayed {} approval requests, {} to retry", batch.size(), failures.size());
+        } catch (Exception e) {
+            log.error("Failed to record the outcome of {} approval requests, they are sent again after the claim timeout: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void recordOutcome(List<ApprovalOutbox> batch, Map<Long, String> failures) {
+        List<Long> ids = batch.stream().map(ApprovalOutbox::getId).toList();
+        for (ApprovalOutbox outbox : approvalOutboxRepository.findAllById(ids)) {
+            if (outbox.getStatus() != OutboxStatus.PENDING) {
+                continue;
+            }
+            if (failures.containsKey(outbox.getId())) {
+                markForRetry(outbox, failures.get(outbox.getId()));
+            } else {
+                outbox.setStatus(OutboxStatus.SENT);
+                outbox.setSentAt(LocalDateTime.now());
+                outbox.setLastError(null);
+            }
+        }
+    }
+    private void markForRetry(ApprovalOutbox outbox, String error) {
+        int attempts = outbox.getAttempts() + 1;
+        outbox.setAttempts(attempts);
+        outbox.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+
+        if (attempts >= outboxProperties.getMaxAttempts()) {
+            outbox.setStatus(OutboxStatus.FAILED);
+            log.error("Approval request for expense {} failed after {} attempts", outbox.getExpenseId(), attempts);
+            return;
+        }
+        outbox.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+    }
+
+    // initialBackoff * 2^(attempts - 1), capped at maxBackoff
+    private Duration backoff(int attempts) {
+        Duration maxBackoff = outboxProperties.getMaxBackoff();
+        Duration backoff = outboxProperties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
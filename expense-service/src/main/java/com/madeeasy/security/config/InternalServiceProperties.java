@@ -0,0 +1,27 @@
+package com.madeeasy.security.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// Credential the services present to each other on internal endpoints, instead of forwarding an end user's token
+@Data
+@Component
+@ConfigurationProperties(prefix = "security.internal-service")
+public class InternalServiceProperties {
+
+    public static final String HEADER = "X-Internal-Service-Token";
+    public static final String ROLE = "SERVICE";
+    public static final String PRINCIPAL = "internal-service";
+
+    private String token;
+
+    // Constant-time comparison, an unset token matches nothing
+    public boolean matches(String candidate) {
+        return token != null && !token.isBlank() && candidate != null
+                && MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), candidate.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,20 @@
+package com.madeeasy.service;
+
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.vo.CompanyResponseDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface BudgetService {
+
+    // Whether adding amount to the month's spend of the category goes over the company's budget.
+    // Answered from in-memory counters, no query is run once the month's counter is loaded.
+    boolean exceedsBudget(CompanyResponseDTO company, ExpenseCategory category, LocalDateTime expenseDate, BigDecimal amount);
+
+    // Adds amount to the month's spend once the caller's transaction commits
+    void record(String companyDomain, LocalDateTime expenseDate, ExpenseCategory category, BigDecimal amount);
+
+    // Reloads the spend of the recent months from the monthly rollup, picking up writes of other instances
+    void resync();
+}
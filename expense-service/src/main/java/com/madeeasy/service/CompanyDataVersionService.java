@@ -0,0 +1,10 @@
+package com.madeeasy.service;
+
+public interface CompanyDataVersionService {
+
+    // Bumps the data version of the company, joins the caller's transaction
+    void bump(String companyDomain);
+
+    // Current data version of the company, 0 if it never had a write
+    long current(String companyDomain);
+}
@@ -0,0 +1,25 @@
+package com.madeeasy.service;
+
+import com.madeeasy.dto.response.ExpenseCategoryBreakdown;
+import com.madeeasy.dto.response.ExpenseTotals;
+import com.madeeasy.dto.response.ExpenseTrend;
+import com.madeeasy.entity.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ExpenseAnalyticsService {
+
+    // Adds amount/count to the in-memory ledger once the caller's transaction commits.
+    // The transaction is expected to bump the company data version, see CompanyDataVersionService.
+    void record(String companyDomain, Long employeeId, LocalDateTime expenseDate, ExpenseCategory category, BigDecimal amount, int count);
+
+    List<ExpenseTrend> getMonthlyExpenseTrends(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth);
+
+    List<ExpenseTrend> getYearlyExpenseTrends(String companyDomain, Integer startYear, Integer endYear);
+
+    List<ExpenseCategoryBreakdown> getExpenseBreakdownByCategory(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, ExpenseCategory category);
+
+    ExpenseTotals getExpenseTotals(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, ExpenseCategory category, Long employeeId);
+}
@@ -0,0 +1,12 @@
+package com.madeeasy.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ExpenseDashboardService {
+
+    // Opens a live stream of the company's monthly category totals: a "snapshot" event, then "delta" events of the changed cells
+    SseEmitter subscribe(String companyDomain);
+
+    // Marks the company's totals as changed once the caller's transaction commits, streams are updated on the next flush
+    void markChanged(String companyDomain);
+}
@@ -0,0 +1,12 @@
+package com.madeeasy.service;
+
+import java.io.OutputStream;
+
+public interface ExpenseExportService {
+
+    // Writes the filtered expenses as UTF-8 CSV with a header row
+    void writeCsv(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category, OutputStream outputStream);
+
+    // Writes the filtered expenses as an XLSX workbook, spilling to a new sheet every 1,000,000 rows
+    void writeXlsx(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category, OutputStream outputStream);
+}
@@ -0,0 +1,18 @@
+package com.madeeasy.service;
+
+import com.madeeasy.entity.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface ExpenseRollupService {
+
+    // Adds amount/count to the monthly rollup row of the expense, joins the caller's transaction
+    void applyDelta(String companyDomain, LocalDateTime expenseDate, ExpenseCategory category, BigDecimal amount, long count);
+
+    // Recomputes the rollup of one company from the raw expense table
+    void rebuild(String companyDomain);
+
+    // Recomputes the rollup of every company, one transaction per company
+    void rebuildAll();
+}
@@ -0,0 +1,21 @@
+package com.madeeasy.service;
+
+import com.madeeasy.dto.response.ExpenseSearchResponse;
+import com.madeeasy.entity.Expense;
+import com.madeeasy.entity.ExpenseCategory;
+
+import java.time.LocalDate;
+
+public interface ExpenseSearchService {
+
+    // (Re)indexes the expense once the caller's transaction commits
+    void index(Expense expense);
+
+    // Drops the expense from the index once the caller's transaction commits
+    void remove(Long expenseId);
+
+    ExpenseSearchResponse search(String companyDomain, String query, ExpenseCategory category, LocalDate fromDate, LocalDate toDate, Integer page, Integer size);
+
+    // Replaces the whole index with the current expense table, returns the number of indexed expenses
+    long rebuild();
+}
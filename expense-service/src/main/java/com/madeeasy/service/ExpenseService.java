@@ -1,27 +1,38 @@
 package com.madeeasy.service;
 
+import com.madeeasy.dto.request.ExpenseBatchRequestDTO;
 import com.madeeasy.dto.request.ExpensePartialRequestDTO;
 import com.madeeasy.dto.request.ExpenseRequestDTO;
+import com.madeeasy.dto.response.ExpenseBatchResponseDTO;
 import com.madeeasy.dto.response.ExpenseCategoryBreakdown;
+import com.madeeasy.dto.response.ExpensePage;
 import com.madeeasy.dto.response.ExpenseResponseDTO;
+import com.madeeasy.dto.response.ExpenseTotals;
 import com.madeeasy.dto.response.ExpenseTrend;
 import com.madeeasy.entity.ExpenseCategory;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ExpenseService {
-    void submitExpense(ExpenseRequestDTO expenseRequestDTO); // Create
+    ExpenseResponseDTO submitExpense(ExpenseRequestDTO expenseRequestDTO); // Create, approval is requested asynchronously
+
+    ExpenseBatchResponseDTO submitExpenses(ExpenseBatchRequestDTO expenseBatchRequestDTO); // Bulk create, one lookup and one transaction per batch
 
     ExpenseResponseDTO getExpenseById(Long id); // Read
 
     List<ExpenseResponseDTO> getAllExpenses(); // Read All
 
+    ExpensePage getExpenses(String companyDomain, Integer size, String cursor); // Read a page (keyset)
+
     ExpenseResponseDTO updateExpense(Long id, ExpensePartialRequestDTO expensePartialRequestDTO); // Update
 
     void deleteExpense(Long id); // Delete
 
     byte[] generateExpenseInvoice(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category);
 
+    void writeExpenseInvoice(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category, OutputStream outputStream);
+
 
     List<ExpenseTrend> getMonthlyExpenseTrends(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth);
 
@@ -29,4 +40,6 @@ public interface ExpenseService {
 
     List<ExpenseCategoryBreakdown> getExpenseBreakdownByCategory(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, ExpenseCategory category);
 
+    ExpenseTotals getExpenseTotals(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, ExpenseCategory category, Long employeeId);
+
 }
@@ -0,0 +1,12 @@
+package com.madeeasy.service;
+
+import com.madeeasy.dto.request.ExpenseStatusEventDTO;
+import com.madeeasy.dto.response.ExpenseStatusUpdateResponse;
+
+import java.util.List;
+
+public interface ExpenseStatusService {
+
+    // Applies a batch of approval-service events, an event older than the one last applied to its expense is ignored
+    ExpenseStatusUpdateResponse applyStatusEvents(List<ExpenseStatusEventDTO> events);
+}
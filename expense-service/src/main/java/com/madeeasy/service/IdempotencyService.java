@@ -0,0 +1,20 @@
+package com.madeeasy.service;
+
+import com.madeeasy.dto.response.ExpenseResponseDTO;
+
+import java.util.Optional;
+
+public interface IdempotencyService {
+
+    // Response of the earlier submission with this key, empty when the key is new.
+    // Fails with 422 when the key was used for a different request.
+    Optional<ExpenseResponseDTO> findResponse(String emailId, String idempotencyKey, String requestHash);
+
+    // Claims the key on this instance while its submission runs, false when it is already running
+    boolean tryBegin(String emailId, String idempotencyKey);
+
+    void end(String emailId, String idempotencyKey);
+
+    // Stores the response in the caller's transaction, a concurrent duplicate fails on the unique constraint
+    void record(String emailId, String idempotencyKey, String requestHash, ExpenseResponseDTO response);
+}
@@ -0,0 +1,15 @@
+package com.madeeasy.service;
+
+import java.nio.file.Path;
+
+public interface InvoiceCacheService {
+
+    // ETag of the invoice for the filters, it changes whenever an expense of the company is written
+    String getETag(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category);
+
+    // The cached invoice for the filters, rendered and cached on a miss
+    CachedInvoice getInvoice(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category);
+
+    record CachedInvoice(String eTag, Path file) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.madeeasy.service;
+
+import com.madeeasy.dto.response.InvoiceJobResponse;
+
+import java.nio.file.Path;
+
+public interface InvoiceJobService {
+
+    // Queues the rendering of an invoice, an identical job that is still queued or running is returned instead
+    InvoiceJobResponse submitInvoiceJob(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category);
+
+    InvoiceJobResponse getInvoiceJob(String jobId);
+
+    // The rendered PDF of a completed job
+    Path getInvoiceFile(String jobId);
+}
@@ -0,0 +1,21 @@
+package com.madeeasy.service;
+
+import com.madeeasy.vo.CompanyResponseDTO;
+import com.madeeasy.vo.UserResponse;
+
+import java.util.function.Supplier;
+
+public interface LookupCache {
+
+    // Returns the cached user of the email, or loads it with the given remote call
+    UserResponse getUser(String emailId, Supplier<UserResponse> loader);
+
+    // Returns the cached company of the domain, or loads it with the given remote call
+    CompanyResponseDTO getCompany(String companyDomain, Supplier<CompanyResponseDTO> loader);
+
+    void evictUser(String emailId);
+
+    void evictCompany(String companyDomain);
+
+    void evictAll();
+}
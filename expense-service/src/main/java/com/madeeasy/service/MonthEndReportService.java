@@ -0,0 +1,19 @@
+package com.madeeasy.service;
+
+import com.madeeasy.dto.response.MonthEndReportResponse;
+
+import java.nio.file.Path;
+
+public interface MonthEndReportService {
+
+    // Starts the report of the month across every company, a report of the same month that is still running is returned instead
+    MonthEndReportResponse startReport(Integer year, Integer month);
+
+    MonthEndReportResponse getReport(String reportId);
+
+    // Retries the companies that failed, completed ones are kept
+    MonthEndReportResponse resumeReport(String reportId);
+
+    // The zip archive of the caller's company in a completed report
+    Path getReportArchive(String reportId);
+}
@@ -0,0 +1,175 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.analytics.ExpenseLedger;
+import com.madeeasy.config.BudgetProperties;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.entity.ExpenseMonthlyRollup;
+import com.madeeasy.entity.ExpenseMonthlyRollupId;
+import com.madeeasy.repository.ExpenseMonthlyRollupRepository;
+import com.madeeasy.service.BudgetService;
+import com.madeeasy.vo.CompanyResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monthly spend per (company, category, month) held as {@link LongAdder} cents, so budget checks and
+ * updates are a map lookup and an add, without a query or a row lock. Counters of the recent months
+ * are loaded from the monthly rollup at startup and reloaded on a schedule, older months on first use.
+ * A write that commits while a reload reads the rollup can be counted twice or not at all until the
+ * next reload.
+ * <p>
+ * A check and the insert that follows are not atomic, concurrent submissions can go over a budget by
+ * the amounts in flight. Budgets are a spending control, not an accounting constraint.
+ */
+@Slf4j
+@Service
+public class BudgetServiceImpl implements BudgetService {
+
+    private final ExpenseMonthlyRollupRepository expenseMonthlyRollupRepository;
+    private final BudgetProperties properties;
+    private final Map<SpendKey, LongAdder> spend = new ConcurrentHashMap<>();
+    private final Counter exceeded;
+
+    public BudgetServiceImpl(ExpenseMonthlyRollupRepository expenseMonthlyRollupRepository,
+                             BudgetProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.expenseMonthlyRollupRepository = expenseMonthlyRollupRepository;
+        this.properties = properties;
+        this.exceeded = Counter.builder("expense.budget.exceeded")
+                .description("Submissions that went over a category budget")
+                .register(meterRegistry);
+        Gauge.builder("expense.budget.counters", spend, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public boolean exceedsBudget(CompanyResponseDTO company, ExpenseCategory category, LocalDateTime expenseDate, BigDecimal amount) {
+        BigDecimal limit = company.getCategoryBudgets() == null ? null : company.getCategoryBudgets().get(category);
+        if (limit == null) {
+            return false;
+        }
+        SpendKey key = new SpendKey(company.getDomain(), YearMonth.from(expenseDate), category);
+        LongAdder counter = spend.get(key);
+        if (counter == null) {
+            // Loaded outside the map, a query must not run while computeIfAbsent holds the bin lock
+            LongAdder loaded = load(key);
+            counter = spend.putIfAbsent(key, loaded);
+            if (counter == null) {
+                counter = loaded;
+            }
+        }
+        long spent = counter.sum();
+        boolean over = spent + ExpenseLedger.toCents(amount) > ExpenseLedger.toCents(limit);
+        if (over) {
+            exceeded.increment();
+        }
+        return over;
+    }
+
+    @Override
+    public void record(String companyDomain, LocalDateTime expenseDate, ExpenseCategory category, BigDecimal amount) {
+        Delta delta = new Delta(new SpendKey(companyDomain, YearMonth.from(expenseDate), category), ExpenseLedger.toCents(amount));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(delta));
+            return;
+        }
+
+        // Deltas of one transaction are collected and applied together after the commit
+        @SuppressWarnings("unchecked")
+        List<Delta> pending = (List<Delta>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Delta> deltas = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(deltas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BudgetServiceImpl.this);
+                }
+            });
+            pending = deltas;
+        }
+        pending.add(delta);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        resync();
+        log.info("Loaded {} budget spend counters", spend.size());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${expense.budget.resync-interval:30000}", initialDelayString = "${expense.budget.resync-interval:30000}")
+    public void resync() {
+        YearMonth firstMonth = YearMonth.now().minusMonths(properties.getWarmMonths() - 1L);
+        Map<SpendKey, Long> totals = new HashMap<>();
+        for (Object[] row : expenseMonthlyRollupRepository.findTotalsFrom(firstMonth.getYear() * 100 + firstMonth.getMonthValue())) {
+            SpendKey key = new SpendKey((String) row[0],
+                    YearMonth.of(((Number) row[1]).intValue(), ((Number) row[2]).intValue()),
+                    (ExpenseCategory) row[3]);
+            totals.put(key, ExpenseLedger.toCents((BigDecimal) row[4]));
+        }
+
+        // Months that fell out of the window are dropped and loaded again on first use
+        spend.keySet().removeIf(key -> key.month().isBefore(firstMonth));
+        // Counters are swapped for fresh ones under the key's map lock, which apply() takes too, so a
+        // delta lands either before the swap and is overwritten by the total or after it on the new counter
+        totals.forEach((key, cents) -> spend.compute(key, (k, counter) -> counterOf(cents)));
+        for (SpendKey key : spend.keySet()) {
+            if (!totals.containsKey(key)) {
+                spend.computeIfPresent(key, (k, counter) -> new LongAdder());
+            }
+        }
+    }
+
+    // Spend of a month outside the loaded window, read from its rollup row
+    private LongAdder load(SpendKey key) {
+        return counterOf(expenseMonthlyRollupRepository.findById(new ExpenseMonthlyRollupId(key.companyDomain(), key.month().getYear(), key.month().getMonthValue(), key.category()))
+                .map(ExpenseMonthlyRollup::getTotalAmount)
+                .map(ExpenseLedger::toCents)
+                .orElse(0L));
+    }
+
+    private static LongAdder counterOf(long cents) {
+        LongAdder counter = new LongAdder();
+        counter.add(cents);
+        return counter;
+    }
+
+    private void apply(List<Delta> deltas) {
+        for (Delta delta : deltas) {
+            // A counter that is not loaded will be read from the rollup, which already has the write
+            spend.computeIfPresent(delta.key(), (key, counter) -> {
+                counter.add(delta.cents());
+                return counter;
+            });
+        }
+    }
+
+    private record SpendKey(String companyDomain, YearMonth month, ExpenseCategory category) {
+    }
+
+    private record Delta(SpendKey key, long cents) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.entity.CompanyDataVersion;
+import com.madeeasy.repository.CompanyDataVersionRepository;
+import com.madeeasy.service.CompanyDataVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+@Transactional
+public class CompanyDataVersionServiceImpl implements CompanyDataVersionService {
+
+    private final CompanyDataVersionRepository companyDataVersionRepository;
+    private final TransactionTemplate requiresNewTransaction;
+
+    public CompanyDataVersionServiceImpl(CompanyDataVersionRepository companyDataVersionRepository,
+                                         PlatformTransactionManager transactionManager) {
+        this.companyDataVersionRepository = companyDataVersionRepository;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void bump(String companyDomain) {
+        if (companyDataVersionRepository.increment(companyDomain) > 0) {
+            return;
+        }
+
+        // First write of the company: create the row in its own transaction, same as the monthly rollup rows
+        try {
+            requiresNewTransaction.executeWithoutResult(status -> {
+                if (!companyDataVersionRepository.existsById(companyDomain)) {
+                    companyDataVersionRepository.saveAndFlush(new CompanyDataVersion(companyDomain, 0L));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Data version of {} was created concurrently", companyDomain);
+        }
+        companyDataVersionRepository.increment(companyDomain);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long current(String companyDomain) {
+        return companyDataVersionRepository.findById(companyDomain)
+                .map(CompanyDataVersion::getVersion)
+                .orElse(0L);
+    }
+}
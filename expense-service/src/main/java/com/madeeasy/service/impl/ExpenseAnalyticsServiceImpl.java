@@ -0,0 +1,165 @@
+package com.madeeasy.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.madeeasy.analytics.ExpenseLedger;
+import com.madeeasy.config.AnalyticsProperties;
+import com.madeeasy.dto.response.ExpenseCategoryBreakdown;
+import com.madeeasy.dto.response.ExpenseTotals;
+import com.madeeasy.dto.response.ExpenseTrend;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.repository.ExpenseFilter;
+import com.madeeasy.repository.ExpenseRepository;
+import com.madeeasy.service.CompanyDataVersionService;
+import com.madeeasy.service.ExpenseAnalyticsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Answers the analytics APIs from per-company {@link ExpenseLedger}s. A ledger is built from one
+ * aggregate query, kept in step by local writes after they commit, and rebuilt when the company
+ * data version in the database shows a write it has not seen (another instance, a rollback race).
+ */
+@Slf4j
+@Service
+public class ExpenseAnalyticsServiceImpl implements ExpenseAnalyticsService {
+
+    private final ExpenseRepository expenseRepository;
+    private final CompanyDataVersionService companyDataVersionService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long versionCheckIntervalNanos;
+    private final Cache<String, ExpenseLedger> ledgers;
+
+    public ExpenseAnalyticsServiceImpl(ExpenseRepository expenseRepository,
+                                       CompanyDataVersionService companyDataVersionService,
+                                       PlatformTransactionManager transactionManager,
+                                       AnalyticsProperties properties,
+                                       MeterRegistry meterRegistry) {
+        this.expenseRepository = expenseRepository;
+        this.companyDataVersionService = companyDataVersionService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.versionCheckIntervalNanos = properties.getVersionCheckInterval().toNanos();
+        this.ledgers = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxCompanies())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, ledgers, "expense.analytics.ledger");
+    }
+
+    @Override
+    public void record(String companyDomain, Long employeeId, LocalDateTime expenseDate, ExpenseCategory category, BigDecimal amount, int count) {
+        Delta delta = new Delta(companyDomain, employeeId, expenseDate.getYear(), expenseDate.getMonthValue(),
+                category, ExpenseLedger.toCents(amount), count);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(delta));
+            return;
+        }
+
+        // Deltas of one transaction are collected and applied together after the commit
+        @SuppressWarnings("unchecked")
+        List<Delta> pending = (List<Delta>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Delta> deltas = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(deltas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ExpenseAnalyticsServiceImpl.this);
+                }
+            });
+            pending = deltas;
+        }
+        pending.add(delta);
+    }
+
+    @Override
+    public List<ExpenseTrend> getMonthlyExpenseTrends(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth) {
+        return ledgerOf(companyDomain).monthlyTrends(new ExpenseFilter(companyDomain, startYear, endYear, startMonth, endMonth, null));
+    }
+
+    @Override
+    public List<ExpenseTrend> getYearlyExpenseTrends(String companyDomain, Integer startYear, Integer endYear) {
+        return ledgerOf(companyDomain).yearlyTrends(new ExpenseFilter(companyDomain, startYear, endYear, null, null, null));
+    }
+
+    @Override
+    public List<ExpenseCategoryBreakdown> getExpenseBreakdownByCategory(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, ExpenseCategory category) {
+        return ledgerOf(companyDomain).categoryBreakdown(new ExpenseFilter(companyDomain, startYear, endYear, startMonth, endMonth, category));
+    }
+
+    @Override
+    public ExpenseTotals getExpenseTotals(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, ExpenseCategory category, Long employeeId) {
+        return ledgerOf(companyDomain).totals(new ExpenseFilter(companyDomain, startYear, endYear, startMonth, endMonth, category), employeeId);
+    }
+
+    private ExpenseLedger ledgerOf(String companyDomain) {
+        ExpenseLedger ledger = ledgers.get(companyDomain, this::load);
+        if (ledger.isCheckDue(versionCheckIntervalNanos)) {
+            if (companyDataVersionService.current(companyDomain) != ledger.version()) {
+                log.debug("Ledger of {} is behind the database, rebuilding it", companyDomain);
+                ledger = load(companyDomain);
+                ledgers.put(companyDomain, ledger);
+            } else {
+                ledger.markChecked();
+            }
+        }
+        return ledger;
+    }
+
+    // The version is read first, so the ledger never holds less than what its version claims
+    private ExpenseLedger load(String companyDomain) {
+        return readOnlyTransaction.execute(status -> {
+            ExpenseLedger ledger = new ExpenseLedger(companyDataVersionService.current(companyDomain));
+            for (Object[] row : expenseRepository.findMonthlyEmployeeCategoryTotals(companyDomain)) {
+                ledger.add(((Number) row[0]).intValue(),
+                        ((Number) row[1]).intValue(),
+                        (ExpenseCategory) row[2],
+                        ((Number) row[3]).longValue(),
+                        ExpenseLedger.toCents((BigDecimal) row[4]),
+                        ((Number) row[5]).intValue());
+            }
+            return ledger;
+        });
+    }
+
+    private void apply(List<Delta> deltas) {
+        Set<String> companyDomains = new LinkedHashSet<>();
+        for (Delta delta : deltas) {
+            companyDomains.add(delta.companyDomain());
+            // A ledger that is not loaded will be built from the database, which already has the write
+            ExpenseLedger ledger = ledgers.getIfPresent(delta.companyDomain());
+            if (ledger != null) {
+                ledger.add(delta.year(), delta.month(), delta.category(), delta.employeeId(), delta.cents(), delta.count());
+            }
+        }
+        for (String companyDomain : companyDomains) {
+            ExpenseLedger ledger = ledgers.getIfPresent(companyDomain);
+            if (ledger != null) {
+                ledger.advanceVersion();
+            }
+        }
+    }
+
+    private record Delta(String companyDomain, Long employeeId, int year, int month, ExpenseCategory category, long cents, int count) {
+    }
+}
@@ -0,0 +1,318 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.config.DashboardProperties;
+import com.madeeasy.dto.response.ExpenseCategoryBreakdown;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.security.TenantGuard;
+import com.madeeasy.service.ExpenseAnalyticsService;
+import com.madeeasy.service.ExpenseDashboardService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live dashboard streams of the monthly category totals. Writes only mark their company as changed;
+ * once per flush interval each changed company is read from the in-memory analytics ledger, diffed
+ * against what its streams were last sent, and the changed cells are handed to every subscriber.
+ * <p>
+ * A subscriber has at most one send in flight. Updates arriving meanwhile are merged cell by cell
+ * into its pending update, so a slow dashboard gets fewer, larger events and never an unbounded queue.
+ */
+@Slf4j
+@Service
+public class ExpenseDashboardServiceImpl implements ExpenseDashboardService {
+
+    private static final String SNAPSHOT_EVENT = "snapshot";
+    private static final String DELTA_EVENT = "delta";
+
+    private final ExpenseAnalyticsService expenseAnalyticsService;
+    private final ThreadPoolTaskExecutor dashboardSenderExecutor;
+    private final DashboardProperties properties;
+    private final TenantGuard tenantGuard;
+    private final long resyncIntervalNanos;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public ExpenseDashboardServiceImpl(ExpenseAnalyticsService expenseAnalyticsService,
+                                       @Qualifier("dashboardSenderExecutor") ThreadPoolTaskExecutor dashboardSenderExecutor,
+                                       DashboardProperties properties,
+                                       TenantGuard tenantGuard,
+                                       MeterRegistry meterRegistry) {
+        this.expenseAnalyticsService = expenseAnalyticsService;
+        this.dashboardSenderExecutor = dashboardSenderExecutor;
+        this.properties = properties;
+        this.tenantGuard = tenantGuard;
+        this.resyncIntervalNanos = properties.getResyncInterval().toNanos();
+        Gauge.builder("expense.dashboard.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open dashboard streams")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(String companyDomain) {
+        tenantGuard.checkCompany(companyDomain);
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new ClientException("Too many open dashboard streams, please try again later.", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+
+        while (true) {
+            Channel channel = channels.computeIfAbsent(companyDomain, Channel::new);
+            synchronized (channel) {
+                // A channel whose last subscriber just left is being removed, take a fresh one
+                if (channel.closed) {
+                    continue;
+                }
+                if (channel.cells == null) {
+                    channel.cells = toCells(load(companyDomain));
+                    channel.resyncedAtNanos = System.nanoTime();
+                }
+                channel.subscribers.add(subscriber);
+                emitter.onCompletion(() -> unsubscribe(channel, subscriber));
+                emitter.onTimeout(emitter::complete);
+                emitter.onError(e -> unsubscribe(channel, subscriber));
+                // The snapshot is what the channel's deltas are computed against, so the two never disagree
+                subscriber.offer(channel.cells.values(), true);
+            }
+            return emitter;
+        }
+    }
+
+    @Override
+    public void markChanged(String companyDomain) {
+        // Nobody is watching, the first subscriber will read the ledger anyway
+        if (!channels.containsKey(companyDomain)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            flagChanged(companyDomain);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                flagChanged(companyDomain);
+            }
+        });
+    }
+
+    // One ledger read per changed company per interval, however many dashboards are open
+    @Scheduled(fixedDelayString = "${expense.dashboard.flush-interval:1000}")
+    public void flush() {
+        long now = System.nanoTime();
+        for (Channel channel : channels.values()) {
+            boolean resyncDue = now - channel.resyncedAtNanos >= resyncIntervalNanos;
+            if (!channel.changed.getAndSet(false) && !resyncDue) {
+                continue;
+            }
+            List<ExpenseCategoryBreakdown> current = load(channel.companyDomain);
+            synchronized (channel) {
+                if (channel.closed || channel.cells == null) {
+                    continue;
+                }
+                channel.resyncedAtNanos = now;
+                List<ExpenseCategoryBreakdown> changed = channel.update(toCells(current));
+                if (!changed.isEmpty()) {
+                    for (Subscriber subscriber : channel.subscribers) {
+                        subscriber.offer(changed, false);
+                    }
+                }
+            }
+        }
+    }
+
+    // Keeps idle streams open through proxies and detects dashboards that went away
+    @Scheduled(fixedDelayString = "${expense.dashboard.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.heartbeat();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void flagChanged(String companyDomain) {
+        Channel channel = channels.get(companyDomain);
+        if (channel != null) {
+            channel.changed.set(true);
+        }
+    }
+
+    private void unsubscribe(Channel channel, Subscriber subscriber) {
+        synchronized (channel) {
+            if (!channel.subscribers.remove(subscriber)) {
+                return;
+            }
+            subscriberCount.decrementAndGet();
+            if (channel.subscribers.isEmpty()) {
+                channel.closed = true;
+                channels.remove(channel.companyDomain, channel);
+            }
+        }
+    }
+
+    private List<ExpenseCategoryBreakdown> load(String companyDomain) {
+        return expenseAnalyticsService.getExpenseBreakdownByCategory(companyDomain, null, null, null, null, null);
+    }
+
+    private static Map<Cell, ExpenseCategoryBreakdown> toCells(List<ExpenseCategoryBreakdown> breakdown) {
+        Map<Cell, ExpenseCategoryBreakdown> cells = new HashMap<>();
+        for (ExpenseCategoryBreakdown row : breakdown) {
+            cells.put(Cell.of(row), row);
+        }
+        return cells;
+    }
+
+    private record Cell(int year, int month, ExpenseCategory category) {
+        static Cell of(ExpenseCategoryBreakdown row) {
+            return new Cell(row.getYear(), row.getMonth(), row.getCategory());
+        }
+    }
+
+    // Streams of one company and the totals they were last sent
+    private static final class Channel {
+        private final String companyDomain;
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private final AtomicBoolean changed = new AtomicBoolean();
+        // Guarded by this
+        private Map<Cell, ExpenseCategoryBreakdown> cells;
+        private boolean closed;
+        private volatile long resyncedAtNanos;
+
+        private Channel(String companyDomain) {
+            this.companyDomain = companyDomain;
+        }
+
+        // Replaces the cells and returns those that changed, a cell that is gone is sent with a zero total
+        private List<ExpenseCategoryBreakdown> update(Map<Cell, ExpenseCategoryBreakdown> current) {
+            List<ExpenseCategoryBreakdown> changed = new ArrayList<>();
+            current.forEach((cell, row) -> {
+                ExpenseCategoryBreakdown previous = cells.get(cell);
+                if (previous == null || previous.getTotalAmount().compareTo(row.getTotalAmount()) != 0) {
+                    changed.add(row);
+                }
+            });
+            cells.forEach((cell, row) -> {
+                if (!current.containsKey(cell)) {
+                    changed.add(ExpenseCategoryBreakdown.builder()
+                            .year(cell.year())
+                            .month(cell.month())
+                            .category(cell.category())
+                            .totalAmount(BigDecimal.ZERO)
+                            .build());
+                }
+            });
+            cells = current;
+            return changed;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // Guarded by this
+        private final Map<Cell, ExpenseCategoryBreakdown> pending = new LinkedHashMap<>();
+        private boolean snapshotPending;
+        private boolean heartbeatPending;
+        private boolean sending;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(Iterable<ExpenseCategoryBreakdown> rows, boolean snapshot) {
+            synchronized (this) {
+                for (ExpenseCategoryBreakdown row : rows) {
+                    pending.put(Cell.of(row), row);
+                }
+                snapshotPending |= snapshot;
+                if (sending) {
+                    return; // Merged into the update the running send picks up next
+                }
+                sending = true;
+            }
+            schedule();
+        }
+
+        private void heartbeat() {
+            synchronized (this) {
+                if (sending) {
+                    return; // The stream is busy, it does not need a heartbeat
+                }
+                heartbeatPending = true;
+                sending = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            try {
+                dashboardSenderExecutor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                log.warn("Dashboard sender queue is full, closing a stream");
+                emitter.completeWithError(e);
+            }
+        }
+
+        // Sends until nothing is pending, at most one drain runs per subscriber
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    if (snapshotPending || !pending.isEmpty()) {
+                        event = SseEmitter.event()
+                                .name(snapshotPending ? SNAPSHOT_EVENT : DELTA_EVENT)
+                                .data(new ArrayList<>(pending.values()), MediaType.APPLICATION_JSON);
+                        pending.clear();
+                        snapshotPending = false;
+                        heartbeatPending = false;
+                    } else if (heartbeatPending) {
+                        event = SseEmitter.event().comment("heartbeat");
+                        heartbeatPending = false;
+                    } else {
+                        sending = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dashboard stream closed: {}", e.getMessage());
+                    emitter.completeWithError(e);
+                    return; // sending stays set, the stream is done
+                }
+            }
+        }
+    }
+}
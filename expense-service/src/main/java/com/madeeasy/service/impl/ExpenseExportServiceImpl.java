@@ -0,0 +1,173 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.entity.Expense;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.repository.ExpenseFilter;
+import com.madeeasy.repository.ExpenseRepository;
+import com.madeeasy.service.ExpenseExportService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExpenseExportServiceImpl implements ExpenseExportService {
+
+    private static final String[] HEADERS = {"Expense ID", "Employee ID", "Title", "Description", "Amount", "Category", "Status", "Expense Date", "Submission Date"};
+    private static final int FLUSH_ROWS = 1000;
+    private static final int XLSX_ROW_WINDOW = 100; // Rows SXSSF keeps in memory, older ones go to a temp file
+    private static final int XLSX_ROWS_PER_SHEET = 1_000_000; // Excel allows 1,048,576 rows per sheet
+
+    private final ExpenseRepository expenseRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public void writeCsv(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category, OutputStream outputStream) {
+        ExpenseFilter filter = new ExpenseFilter(companyDomain, startYear, endYear, startMonth, endMonth, parseCategory(category));
+
+        // Not closed, the caller owns the output stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try (Stream<Expense> expenses = expenseRepository.streamExpensesWithFilters(filter)) {
+            writeCsvLine(writer, HEADERS);
+            int pendingRows = 0;
+            Iterator<Expense> iterator = expenses.iterator();
+            while (iterator.hasNext()) {
+                Expense expense = iterator.next();
+                writeCsvLine(writer, values(expense));
+                entityManager.detach(expense); // Keep the persistence context from growing with the result set
+
+                if (++pendingRows == FLUSH_ROWS) {
+                    writer.flush();
+                    pendingRows = 0;
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export expenses as CSV", e);
+        }
+    }
+
+    @Override
+    public void writeXlsx(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category, OutputStream outputStream) {
+        ExpenseFilter filter = new ExpenseFilter(companyDomain, startYear, endYear, startMonth, endMonth, parseCategory(category));
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<Expense> expenses = expenseRepository.streamExpensesWithFilters(filter)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+
+            Sheet sheet = null;
+            int rowIndex = XLSX_ROWS_PER_SHEET;
+            Iterator<Expense> iterator = expenses.iterator();
+            while (iterator.hasNext()) {
+                Expense expense = iterator.next();
+                if (rowIndex == XLSX_ROWS_PER_SHEET) {
+                    sheet = createSheet(workbook, workbook.getNumberOfSheets() + 1);
+                    rowIndex = 0;
+                }
+                Row row = sheet.createRow(++rowIndex);
+                row.createCell(0).setCellValue(expense.getId());
+                row.createCell(1).setCellValue(expense.getEmployeeId());
+                row.createCell(2).setCellValue(expense.getTitle());
+                row.createCell(3).setCellValue(expense.getDescription());
+                row.createCell(4).setCellValue(expense.getAmount().doubleValue());
+                row.createCell(5).setCellValue(expense.getCategory().name());
+                row.createCell(6).setCellValue(expense.getStatus() == null ? "" : expense.getStatus().name());
+                setDate(row.createCell(7), expense.getExpenseDate(), dateStyle);
+                setDate(row.createCell(8), expense.getSubmissionDate(), dateStyle);
+                entityManager.detach(expense);
+            }
+            if (sheet == null) {
+                createSheet(workbook, 1);
+            }
+            workbook.write(outputStream);
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export expenses as XLSX", e);
+        } finally {
+            workbook.dispose(); // Deletes the temp files of the flushed rows
+        }
+    }
+
+    private static Sheet createSheet(SXSSFWorkbook workbook, int number) {
+        Sheet sheet = workbook.createSheet("Expenses " + number);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            header.createCell(i).setCellValue(HEADERS[i]);
+        }
+        return sheet;
+    }
+
+    private static void setDate(Cell cell, LocalDateTime value, CellStyle dateStyle) {
+        if (value != null) {
+            cell.setCellValue(value);
+            cell.setCellStyle(dateStyle);
+        }
+    }
+
+    private static String[] values(Expense expense) {
+        return new String[]{
+                String.valueOf(expense.getId()),
+                String.valueOf(expense.getEmployeeId()),
+                expense.getTitle(),
+                expense.getDescription(),
+                expense.getAmount().toPlainString(),
+                expense.getCategory().name(),
+                expense.getStatus() == null ? "" : expense.getStatus().name(),
+                String.valueOf(expense.getExpenseDate()),
+                String.valueOf(expense.getSubmissionDate())
+        };
+    }
+
+    // RFC 4180: fields containing a separator, quote or line break are quoted, quotes are doubled
+    private static void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i] == null ? "" : values[i];
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static ExpenseCategory parseCategory(String category) {
+        if (category == null || category.isEmpty()) {
+            return null;
+        }
+        try {
+            return ExpenseCategory.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ClientException("Invalid category provided", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.entity.ExpenseMonthlyRollup;
+import com.madeeasy.entity.ExpenseMonthlyRollupId;
+import com.madeeasy.repository.ExpenseMonthlyRollupRepository;
+import com.madeeasy.repository.ExpenseRepository;
+import com.madeeasy.service.ExpenseRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+@Transactional
+public class ExpenseRollupServiceImpl implements ExpenseRollupService {
+
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final TransactionTemplate requiresNewTransaction;
+    private final TransactionTemplate transactionTemplate;
+
+    public ExpenseRollupServiceImpl(ExpenseMonthlyRollupRepository rollupRepository,
+                                    ExpenseRepository expenseRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.expenseRepository = expenseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void applyDelta(String companyDomain, LocalDateTime expenseDate, ExpenseCategory category, BigDecimal amount, long count) {
+        int year = expenseDate.getYear();
+        int month = expenseDate.getMonthValue();
+
+        if (rollupRepository.increment(companyDomain, year, month, category, amount, count) > 0) {
+            return;
+        }
+
+        // First expense of this month/category: create an empty row in its own transaction so that a
+        // concurrent creator losing the race does not roll back the caller, then increment it atomically
+        ExpenseMonthlyRollupId id = new ExpenseMonthlyRollupId(companyDomain, year, month, category);
+        try {
+            requiresNewTransaction.executeWithoutResult(status -> {
+                if (!rollupRepository.existsById(id)) {
+                    rollupRepository.saveAndFlush(new ExpenseMonthlyRollup(id, BigDecimal.ZERO, 0L));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Rollup row {} was created concurrently", id);
+        }
+        rollupRepository.increment(companyDomain, year, month, category, amount, count);
+    }
+
+    @Override
+    public void rebuild(String companyDomain) {
+        rollupRepository.deleteByCompanyDomain(companyDomain);
+
+        List<ExpenseMonthlyRollup> rollups = expenseRepository.findMonthlyCategoryTotals(companyDomain).stream()
+                .map(row -> new ExpenseMonthlyRollup(
+                        new ExpenseMonthlyRollupId(companyDomain,
+                                ((Number) row[0]).intValue(),
+                                ((Number) row[1]).intValue(),
+                                (ExpenseCategory) row[2]),
+                        (BigDecimal) row[3],
+                        ((Number) row[4]).longValue()))
+                .toList();
+        rollupRepository.saveAll(rollups);
+        log.info("Rebuilt {} rollup rows for company '{}'", rollups.size(), companyDomain);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildAll() {
+        // Companies that only exist in the rollup anymore are rebuilt too, which clears their rows
+        Set<String> companyDomains = new LinkedHashSet<>(expenseRepository.findDistinctCompanyDomains());
+        companyDomains.addAll(rollupRepository.findDistinctCompanyDomains());
+
+        for (String companyDomain : companyDomains) {
+            transactionTemplate.executeWithoutResult(status -> rebuild(companyDomain));
+        }
+    }
+
+    // Backfills the rollup when the service starts against an existing expense table
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillOnStartup() {
+        if (rollupRepository.count() == 0 && expenseRepository.count() > 0) {
+            log.info("Expense monthly rollup is empty, backfilling it from the expense table");
+            rebuildAll();
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.config.SearchProperties;
+import com.madeeasy.dto.response.ExpenseResponseDTO;
+import com.madeeasy.dto.response.ExpenseSearchHit;
+import com.madeeasy.dto.response.ExpenseSearchResponse;
+import com.madeeasy.entity.Expense;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.entity.ExpenseStatus;
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.repository.ExpenseRepository;
+import com.madeeasy.security.TenantGuard;
+import com.madeeasy.service.ExpenseSearchService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.*;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over expense titles and descriptions, answered from a Lucene index on local disk.
+ * Local writes reach the index after their transaction commits and become searchable on the next
+ * near-real-time refresh. A periodic catch-up scan reindexes the expenses modified since the last
+ * one, which covers writes made by other instances and changes lost in a crash. Deletes made by
+ * other instances are only dropped by a {@link #rebuild()}.
+ */
+@Slf4j
+@Service
+public class ExpenseSearchServiceImpl implements ExpenseSearchService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String WATERMARK = "watermark"; // Commit user data, epoch millis of the last catch-up scan
+
+    private static final String ID = "id";
+    private static final String EMPLOYEE_ID = "employeeId";
+    private static final String COMPANY_DOMAIN = "companyDomain";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String AMOUNT = "amount";
+    private static final String CATEGORY = "category";
+    private static final String STATUS = "status";
+    private static final String APPROVAL_LEVEL = "approvalLevel";
+    private static final String OVER_BUDGET = "overBudget";
+    private static final String EXPENSE_DATE = "expenseDate"; // Epoch seconds, the dates are stored without a zone
+    private static final String CATEGORY_FACET = "categoryFacet";
+    private static final String MONTH_FACET = "monthFacet";
+
+    // Title matches weigh more than description matches
+    private static final Map<String, Float> SEARCH_FIELDS = Map.of(TITLE, 2.0f, DESCRIPTION, 1.0f);
+    private static final Sort NEWEST_FIRST = new Sort(new SortField(EXPENSE_DATE, SortField.Type.LONG, true));
+
+    private final ExpenseRepository expenseRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SearchProperties properties;
+    private final TenantGuard tenantGuard;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Timer searchTimer;
+    private final Object scanLock = new Object();
+    private volatile long watermark;
+    private volatile FacetState facetState;
+
+    public ExpenseSearchServiceImpl(ExpenseRepository expenseRepository,
+                                    EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    SearchProperties properties,
+                                    TenantGuard tenantGuard,
+                                    MeterRegistry meterRegistry) throws IOException {
+        this.expenseRepository = expenseRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.tenantGuard = tenantGuard;
+
+        this.directory = FSDirectory.open(Files.createDirectories(Path.of(properties.getDirectory())));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setRAMBufferSizeMB(properties.getRamBufferMb());
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (WATERMARK.equals(entry.getKey())) {
+                    this.watermark = Long.parseLong(entry.getValue());
+                }
+            }
+        }
+
+        this.searchTimer = Timer.builder("expense.search.query").register(meterRegistry);
+        Gauge.builder("expense.search.documents", writer, indexWriter -> indexWriter.getDocStats().numDocs)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        if (watermark == 0) {
+            log.info("Expense search index is empty, building it from the expense table");
+            rebuild();
+        } else {
+            catchUp();
+        }
+    }
+
+    @Override
+    public void index(Expense expense) {
+        enqueue(new IndexChange(idTerm(expense.getId()), toDocument(expense)));
+    }
+
+    @Override
+    public void remove(Long expenseId) {
+        enqueue(new IndexChange(idTerm(expenseId), null));
+    }
+
+    private void enqueue(IndexChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(change));
+            return;
+        }
+
+        // Changes of one transaction are collected and applied together after the commit
+        @SuppressWarnings("unchecked")
+        List<IndexChange> pending = (List<IndexChange>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<IndexChange> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ExpenseSearchServiceImpl.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    private void apply(List<IndexChange> changes) {
+        try {
+            for (IndexChange change : changes) {
+                if (change.document() == null) {
+                    writer.deleteDocuments(change.id());
+                } else {
+                    writer.updateDocument(change.id(), facetsConfig.build(change.document()));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The committed rows are picked up again by the next catch-up scan
+            log.warn("Unable to apply {} changes to the expense search index: {}", changes.size(), e.getMessage());
+        }
+    }
+
+    // Makes the changes applied so far visible to new searches
+    @Scheduled(fixedDelayString = "${expense.search.refresh-interval:1000}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Unable to refresh the expense search index: {}", e.getMessage());
+        }
+    }
+
+    // Reindexes the expenses modified since the last scan, then commits the index with the new watermark
+    @Scheduled(fixedDelayString = "${expense.search.catch-up-interval:30000}")
+    public void catchUp() {
+        synchronized (scanLock) {
+            if (watermark == 0) {
+                return; // Not built yet, see catchUpOnStartup
+            }
+            long startedAt = System.currentTimeMillis();
+            long reindexed = reindexModifiedSince(new Date(watermark - properties.getCatchUpLag().toMillis()));
+            commit(startedAt);
+            log.debug("Expense search index caught up, {} expenses reindexed", reindexed);
+        }
+    }
+
+    @Override
+    public long rebuild() {
+        synchronized (scanLock) {
+            long startedAt = System.currentTimeMillis();
+            try {
+                writer.deleteAll();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            long indexed = reindexModifiedSince(null);
+            commit(startedAt);
+            refresh();
+            log.info("Expense search index rebuilt with {} expenses", indexed);
+            return indexed;
+        }
+    }
+
+    private long reindexModifiedSince(Date since) {
+        return readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<Expense> expenses = expenseRepository.streamExpensesModifiedSince(since)) {
+                Iterator<Expense> iterator = expenses.iterator();
+                while (iterator.hasNext()) {
+                    Expense expense = iterator.next();
+                    writer.updateDocument(idTerm(expense.getId()), facetsConfig.build(toDocument(expense)));
+                    entityManager.detach(expense); // Keep the persistence context from growing with the table
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+    }
+
+    private void commit(long newWatermark) {
+        try {
+            writer.setLiveCommitData(Map.of(WATERMARK, Long.toString(newWatermark)).entrySet());
+            writer.commit();
+            watermark = newWatermark;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public ExpenseSearchResponse search(String companyDomain, String query, ExpenseCategory category, LocalDate fromDate, LocalDate toDate, Integer page, Integer size) {
+        tenantGuard.checkCompany(companyDomain);
+        int pageNumber = page == null || page < 0 ? 0 : page;
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        int topN = (pageNumber + 1) * pageSize;
+        if (topN > properties.getMaxResults()) {
+            throw new ClientException("Search results are limited to the first " + properties.getMaxResults() + " hits, please narrow the search.", HttpStatus.BAD_REQUEST);
+        }
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new ClientException("fromDate must not be after toDate.", HttpStatus.BAD_REQUEST);
+        }
+
+        // Tenant, category and dates only filter, the keywords alone decide the ranking
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(COMPANY_DOMAIN, companyDomain)), BooleanClause.Occur.FILTER);
+        if (category != null) {
+            builder.add(new TermQuery(new Term(CATEGORY, category.name())), BooleanClause.Occur.FILTER);
+        }
+        if (fromDate != null || toDate != null) {
+            long lower = fromDate == null ? Long.MIN_VALUE : fromDate.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+            long upper = toDate == null ? Long.MAX_VALUE : toDate.plusDays(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC) - 1;
+            builder.add(LongPoint.newRangeQuery(EXPENSE_DATE, lower, upper), BooleanClause.Occur.FILTER);
+        }
+        boolean ranked = query != null && !query.isBlank();
+        if (ranked) {
+            SimpleQueryParser parser = new SimpleQueryParser(analyzer, SEARCH_FIELDS);
+            parser.setDefaultOperator(BooleanClause.Occur.MUST);
+            builder.add(parser.parse(query), BooleanClause.Occur.MUST);
+        }
+
+        return searchTimer.record(() -> {
+            try {
+                return execute(builder.build(), ranked, pageNumber, pageSize, topN);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private ExpenseSearchResponse execute(Query query, boolean ranked, int page, int size, int topN) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            List<ExpenseSearchHit> hits = new ArrayList<>();
+            if (searcher.getIndexReader().maxDoc() == 0) {
+                return ExpenseSearchResponse.builder().page(page).size(size).hits(hits)
+                        .categories(Map.of()).months(Map.of()).build();
+            }
+
+            // One pass collects the top hits and the facet counts over every match
+            FacetsCollector facetsCollector = new FacetsCollector();
+            TopDocs topDocs = ranked
+                    ? FacetsCollector.search(searcher, query, topN, facetsCollector)
+                    : FacetsCollector.search(searcher, query, topN, NEWEST_FIRST, facetsCollector);
+
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = page * size; i < scoreDocs.length; i++) {
+                hits.add(ExpenseSearchHit.builder()
+                        .score(scoreDocs[i].score)
+                        .expense(toResponse(storedFields.document(scoreDocs[i].doc)))
+                        .build());
+            }
+
+            Facets facets = new SortedSetDocValuesFacetCounts(facetStateOf(searcher.getIndexReader()), facetsCollector);
+            Map<String, Long> categories = new LinkedHashMap<>();
+            Map<String, Long> months = new TreeMap<>(Comparator.reverseOrder()); // Newest month first
+            countsOf(facets, CATEGORY_FACET, categories);
+            countsOf(facets, MONTH_FACET, months);
+
+            return ExpenseSearchResponse.builder()
+                    .totalHits(topDocs.totalHits.value)
+                    .page(page)
+                    .size(hits.size())
+                    .hits(hits)
+                    .categories(categories)
+                    .months(months)
+                    .build();
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // The facet ordinals are computed once per index reader and reused until the next refresh
+    private SortedSetDocValuesReaderState facetStateOf(IndexReader reader) throws IOException {
+        FacetState current = facetState;
+        if (current == null || current.reader() != reader) {
+            current = new FacetState(reader, new DefaultSortedSetDocValuesReaderState(reader, facetsConfig));
+            facetState = current;
+        }
+        return current.state();
+    }
+
+    private static void countsOf(Facets facets, String dimension, Map<String, Long> counts) throws IOException {
+        FacetResult result = facets.getAllChildren(dimension);
+        if (result == null) {
+            return;
+        }
+        Arrays.stream(result.labelValues)
+                .sorted(Comparator.comparingLong((LabelAndValue labelValue) -> labelValue.value.longValue()).reversed())
+                .forEach(labelValue -> counts.put(labelValue.label, labelValue.value.longValue()));
+    }
+
+    private static Term idTerm(Long expenseId) {
+        return new Term(ID, String.valueOf(expenseId));
+    }
+
+    private static Document toDocument(Expense expense) {
+        long expenseDate = expense.getExpenseDate().toEpochSecond(ZoneOffset.UTC);
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(expense.getId()), Field.Store.YES));
+        document.add(new StoredField(EMPLOYEE_ID, expense.getEmployeeId()));
+        document.add(new StringField(COMPANY_DOMAIN, expense.getCompanyDomain(), Field.Store.YES));
+        document.add(new TextField(TITLE, expense.getTitle(), Field.Store.YES));
+        document.add(new TextField(DESCRIPTION, expense.getDescription(), Field.Store.YES));
+        document.add(new StoredField(AMOUNT, expense.getAmount().toPlainString()));
+        document.add(new StringField(CATEGORY, expense.getCategory().name(), Field.Store.YES));
+        document.add(new StoredField(STATUS, expense.getStatus().name()));
+        if (expense.getApprovalLevel() != null) {
+            document.add(new StoredField(APPROVAL_LEVEL, expense.getApprovalLevel()));
+        }
+        document.add(new StoredField(OVER_BUDGET, String.valueOf(Boolean.TRUE.equals(expense.getOverBudget()))));
+        document.add(new LongPoint(EXPENSE_DATE, expenseDate));
+        document.add(new NumericDocValuesField(EXPENSE_DATE, expenseDate));
+        document.add(new StoredField(EXPENSE_DATE, expenseDate));
+        document.add(new SortedSetDocValuesFacetField(CATEGORY_FACET, expense.getCategory().name()));
+        document.add(new SortedSetDocValuesFacetField(MONTH_FACET, YearMonth.from(expense.getExpenseDate()).toString()));
+        return document;
+    }
+
+    private static ExpenseResponseDTO toResponse(Document document) {
+        return ExpenseResponseDTO.builder()
+                .id(Long.valueOf(document.get(ID)))
+                .employeeId(document.getField(EMPLOYEE_ID).numericValue().longValue())
+                .companyDomain(document.get(COMPANY_DOMAIN))
+                .title(document.get(TITLE))
+                .description(document.get(DESCRIPTION))
+                .amount(new BigDecimal(document.get(AMOUNT)))
+                .category(ExpenseCategory.valueOf(document.get(CATEGORY)))
+                .status(ExpenseStatus.valueOf(document.get(STATUS)))
+                .approvalLevel(document.getField(APPROVAL_LEVEL) == null ? null : document.getField(APPROVAL_LEVEL).numericValue().intValue())
+                .overBudget(Boolean.valueOf(document.get(OVER_BUDGET)))
+                .expenseDate(LocalDateTime.ofEpochSecond(document.getField(EXPENSE_DATE).numericValue().longValue(), 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        // Changes since the last catch-up are kept, the watermark stays so the next start scans them again
+        writer.setLiveCommitData(Map.of(WATERMARK, Long.toString(watermark)).entrySet());
+        writer.commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private record IndexChange(Term id, Document document) {
+    }
+
+    private record FacetState(IndexReader reader, SortedSetDocValuesReaderState state) {
+    }
+}
@@ -3,46 +3,79 @@ package com.madeeasy.service.impl;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.itextpdf.text.*;
-import com.itextpdf.text.pdf.PdfPCell;
-import com.itextpdf.text.pdf.PdfPTable;
-import com.itextpdf.text.pdf.PdfWriter;
+import com.madeeasy.dto.request.ExpenseBatchRequestDTO;
 import com.madeeasy.dto.request.ExpensePartialRequestDTO;
 import com.madeeasy.dto.request.ExpenseRequestDTO;
+import com.madeeasy.dto.response.ExpenseBatchResponseDTO;
 import com.madeeasy.dto.response.ExpenseCategoryBreakdown;
+import com.madeeasy.dto.response.ExpensePage;
 import com.madeeasy.dto.response.ExpenseResponseDTO;
+import com.madeeasy.dto.response.ExpenseTotals;
 import com.madeeasy.dto.response.ExpenseTrend;
+import com.madeeasy.entity.ApprovalOutbox;
+import com.madeeasy.entity.BudgetPolicy;
 import com.madeeasy.entity.Expense;
 import com.madeeasy.entity.ExpenseCategory;
 import com.madeeasy.entity.ExpenseStatus;
+import com.madeeasy.entity.OutboxStatus;
 import com.madeeasy.exception.ClientException;
+import com.madeeasy.repository.ApprovalOutboxRepository;
+import com.madeeasy.repository.ExpenseFilter;
 import com.madeeasy.repository.ExpenseRepository;
+import com.madeeasy.security.TenantGuard;
+import com.madeeasy.service.BudgetService;
+import com.madeeasy.service.CompanyDataVersionService;
+import com.madeeasy.service.ExpenseAnalyticsService;
+import com.madeeasy.service.ExpenseDashboardService;
+import com.madeeasy.service.ExpenseRollupService;
+import com.madeeasy.service.ExpenseSearchService;
 import com.madeeasy.service.ExpenseService;
+import com.madeeasy.service.IdempotencyService;
+import com.madeeasy.service.LookupCache;
+import com.madeeasy.util.CursorUtils;
+import com.madeeasy.util.ExpenseMapper;
+import com.madeeasy.util.InvoicePdfWriter;
 import com.madeeasy.vo.ApprovalRequestDTO;
 import com.madeeasy.vo.CompanyResponseDTO;
 import com.madeeasy.vo.UserResponse;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 
 @Slf4j
@@ -51,15 +84,35 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ExpenseServiceImpl implements ExpenseService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int BATCH_FLUSH_ROWS = 50; // Matches hibernate.jdbc.batch_size and the sequence allocationSize
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final ExpenseRepository expenseRepository;
+    private final ExpenseRollupService expenseRollupService;
+    private final LookupCache lookupCache;
+    private final CompanyDataVersionService companyDataVersionService;
+    private final ExpenseAnalyticsService expenseAnalyticsService;
+    private final BudgetService budgetService;
+    private final ExpenseDashboardService expenseDashboardService;
+    private final ExpenseSearchService expenseSearchService;
+    private final IdempotencyService idempotencyService;
+    private final ApprovalOutboxRepository approvalOutboxRepository;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final HttpServletRequest httpServletRequest;
     private final HttpServletResponse httpServletResponse;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final TenantGuard tenantGuard;
 
     @CircuitBreaker(name = "expenseServiceCircuitBreaker", fallbackMethod = "fallbackMethod")
     @Override
-    public void submitExpense(ExpenseRequestDTO expenseRequestDTO) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Remote calls must not hold a DB connection, only the insert is transactional
+    public ExpenseResponseDTO submitExpense(ExpenseRequestDTO expenseRequestDTO) {
         // Get the current authenticated user's email
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String emailId = (String) authentication.getPrincipal();
@@ -68,151 +121,198 @@ public class ExpenseServiceImpl implements ExpenseService {
         String authHeader = httpServletRequest.getHeader(HttpHeaders.AUTHORIZATION);
         String accessToken = authHeader.substring("Bearer ".length());
 
-        // Rest call to auth-service to get user details by email
-        String authUrlToGetUser = "http://auth-service/auth-service/get-user/" + emailId;
+        // A retried submission with the same Idempotency-Key gets the original response, before any remote call is made
+        String idempotencyKey = idempotencyKey();
+        String requestHash = idempotencyKey == null ? null : requestHash(expenseRequestDTO);
+        if (idempotencyKey != null) {
+            Optional<ExpenseResponseDTO> previous = idempotencyService.findResponse(emailId, idempotencyKey, requestHash);
+            if (previous.isPresent()) {
+                return previous.get();
+            }
+            if (!idempotencyService.tryBegin(emailId, idempotencyKey)) {
+                throw new ClientException("A request with this Idempotency-Key is already being processed.", HttpStatus.CONFLICT);
+            }
+        }
 
         try {
-            UserResponse userResponse = restTemplate.exchange(authUrlToGetUser, HttpMethod.GET,
-                    new HttpEntity<>(createHeaders(accessToken)), UserResponse.class).getBody();
-            if (userResponse == null) {
-                throw new IllegalStateException("Unable to fetch user information.");
-            }
+            Submitter submitter = resolveSubmitter(emailId, accessToken);
 
-            Long userId = userResponse.getId();
+            // Define the threshold for auto-approval
+//            BigDecimal approvalThreshold = new BigDecimal("5000"); // Example: Auto-approve if <= 5000
 
-            // Rest call to company-service to get company domain
-            String companyUrlToGetCompany = "http://company-service/company-service/domain-name/" + userResponse.getCompanyDomain();
-            CompanyResponseDTO companyResponse = null;
-            try {
-                companyResponse = restTemplate.exchange(companyUrlToGetCompany, HttpMethod.GET,
-                        new HttpEntity<>(createHeaders(accessToken)), CompanyResponseDTO.class).getBody();
-            } catch (HttpClientErrorException | HttpServerErrorException e) {
-                String responseBody = e.getResponseBodyAsString();
-                // Parse the response body (which is a JSON string)
-                ObjectMapper objectMapper = new ObjectMapper();
-                JsonNode jsonNode = null;
-                try {
-                    jsonNode = objectMapper.readTree(responseBody);
-                } catch (JsonProcessingException ex) {
-                    log.error("Failed to parse response body: {}", ex.getMessage());
+            Expense expense = createExpense(expenseRequestDTO, submitter);
+            applyBudget(expense, submitter.company(), expense.getAmount());
+            // Save the expense, keep the monthly rollup in step and queue the approval request, all in one short transaction.
+            // The approval request is relayed to approval-service in the background by ApprovalOutboxRelay.
+            return timed("insert", () -> transactionTemplate.execute(status -> {
+                expenseRepository.save(expense);
+                expenseRollupService.applyDelta(expense.getCompanyDomain(), expense.getExpenseDate(), expense.getCategory(), expense.getAmount(), 1);
+                expenseAnalyticsService.record(expense.getCompanyDomain(), expense.getEmployeeId(), expense.getExpenseDate(), expense.getCategory(), expense.getAmount(), 1);
+                budgetService.record(expense.getCompanyDomain(), expense.getExpenseDate(), expense.getCategory(), expense.getAmount());
+                companyDataVersionService.bump(expense.getCompanyDomain());
+                expenseDashboardService.markChanged(expense.getCompanyDomain());
+                expenseSearchService.index(expense);
+                approvalOutboxRepository.save(createApprovalOutbox(expense, emailId));
+                ExpenseResponseDTO response = ExpenseMapper.toResponse(expense);
+                if (idempotencyKey != null) {
+                    idempotencyService.record(emailId, idempotencyKey, requestHash, response);
                 }
+                return response;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed the same key first, its expense is the one that counts
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            return idempotencyService.findResponse(emailId, idempotencyKey, requestHash).orElseThrow(() -> e);
+        } finally {
+            if (idempotencyKey != null) {
+                idempotencyService.end(emailId, idempotencyKey);
+            }
+        }
+    }
 
-                if (jsonNode != null) {
-                    String message = jsonNode.get("message").asText();
-                    String statusStr = jsonNode.get("status").asText().substring(0, 3);
-
-                    // Convert the status code to integer and map it to HttpStatus
-                    int statusCode = Integer.parseInt(statusStr);
+    // The optional Idempotency-Key header of the current request, null when absent
+    private String idempotencyKey() {
+        String idempotencyKey = httpServletRequest.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey == null) {
+            return null;
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ClientException("Idempotency-Key must be between 1 and " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters.", HttpStatus.BAD_REQUEST);
+        }
+        return idempotencyKey;
+    }
 
-                    // Use HttpStatus.valueOf() with the numeric status code value
-                    HttpStatus status = HttpStatus.resolve(statusCode);
+    // SHA-256 of the request body, used to detect a key reused for a different expense
+    private String requestHash(ExpenseRequestDTO expenseRequestDTO) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(expenseRequestDTO)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to hash the expense request", e);
+        }
+    }
 
-//                    HttpStatus httpStatus;
-//                    try {
-//                        httpStatus = HttpStatus.valueOf(status); // Convert status string to HttpStatus
-//                    } catch (IllegalArgumentException e2) {
-//                        log.error("Invalid status '{}' found, defaulting to HttpStatus.UNAUTHORIZED", status);
-//                        httpStatus = HttpStatus.UNAUTHORIZED;
-//                    }
+    @CircuitBreaker(name = "expenseServiceCircuitBreaker", fallbackMethod = "batchFallbackMethod")
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Remote calls must not hold a DB connection, only the inserts are transactional
+    public ExpenseBatchResponseDTO submitExpenses(ExpenseBatchRequestDTO expenseBatchRequestDTO) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String emailId = (String) authentication.getPrincipal();
 
-                    log.error("Parsed message: {}", message);
-                    log.error("Parsed status: {}", status);
+        String authHeader = httpServletRequest.getHeader(HttpHeaders.AUTHORIZATION);
+        String accessToken = authHeader.substring("Bearer ".length());
 
-                    // Re-throw ClientException so that it will be caught by the GlobalExceptionHandler
-                    throw new ClientException(message, status);
-                } else {
-                    log.error("Failed to parse JSON response body.");
-                    throw new ClientException("Authorization failed, unable to parse error response", HttpStatus.INTERNAL_SERVER_ERROR);
+        // The user and the company are the same for the whole batch, so they are looked up only once
+        Submitter submitter = resolveSubmitter(emailId, accessToken);
+
+        List<ExpenseRequestDTO> requests = expenseBatchRequestDTO.getExpenses();
+        List<Long> expenseIds = new ArrayList<>(requests.size());
+
+        // Expenses and outbox rows go out as JDBC batches (hibernate.jdbc.batch_size), ids come from the pooled sequences.
+        // The persistence context is flushed and cleared every BATCH_FLUSH_ROWS rows so it does not grow with the batch.
+        timed("batch-insert", () -> transactionTemplate.execute(status -> {
+            Map<RollupKey, RollupDelta> deltas = new HashMap<>();
+            for (ExpenseRequestDTO request : requests) {
+                Expense expense = createExpense(request, submitter);
+                // Earlier expenses of the batch are not in the spend counters yet, so they are added to the check
+                RollupKey key = new RollupKey(YearMonth.from(expense.getExpenseDate()), expense.getCategory());
+                RollupDelta delta = deltas.computeIfAbsent(key, k -> new RollupDelta());
+                applyBudget(expense, submitter.company(), delta.amount.add(expense.getAmount()));
+                delta.add(expense.getAmount());
+
+                expenseRepository.save(expense);
+                approvalOutboxRepository.save(createApprovalOutbox(expense, emailId));
+                expenseSearchService.index(expense);
+                expenseIds.add(expense.getId());
+
+                if (expenseIds.size() % BATCH_FLUSH_ROWS == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
                 }
             }
+            // One rollup update per month and category instead of one per expense
+            deltas.forEach((key, delta) -> {
+                LocalDateTime month = key.month().atDay(1).atStartOfDay();
+                expenseRollupService.applyDelta(submitter.company().getDomain(), month, key.category(), delta.amount, delta.count);
+                expenseAnalyticsService.record(submitter.company().getDomain(), submitter.user().getId(), month, key.category(), delta.amount, (int) delta.count);
+                budgetService.record(submitter.company().getDomain(), month, key.category(), delta.amount);
+            });
+            companyDataVersionService.bump(submitter.company().getDomain());
+            expenseDashboardService.markChanged(submitter.company().getDomain());
+            return expenseIds;
+        }));
+
+        return ExpenseBatchResponseDTO.builder()
+                .submitted(expenseIds.size())
+                .expenseIds(expenseIds)
+                .build();
+    }
 
-            if (companyResponse == null) {
-                throw new IllegalStateException("Unable to fetch company information.");
-            }
-
-            // Define the threshold for auto-approval
-//            BigDecimal approvalThreshold = new BigDecimal("5000"); // Example: Auto-approve if <= 5000
+    // Create an Expense entity of the submitter, it requires multi-level approval
+    private Expense createExpense(ExpenseRequestDTO expenseRequestDTO, Submitter submitter) {
+        Expense expense = new Expense();
+        expense.setEmployeeId(submitter.user().getId());
+        expense.setCompanyDomain(submitter.company().getDomain());
+        expense.setTitle(expenseRequestDTO.getTitle());
+        expense.setDescription(expenseRequestDTO.getDescription());
+        expense.setAmount(expenseRequestDTO.getAmount());
+        expense.setCategory(expenseRequestDTO.getCategory());
+        expense.setExpenseDate(expenseRequestDTO.getExpenseDate());
+        expense.setSubmissionDate(LocalDateTime.now());
+        expense.setStatus(ExpenseStatus.SUBMITTED);
+        return expense;
+    }
 
-            // Create an Expense entity and set required fields
-            Expense expense = new Expense();
-            expense.setEmployeeId(userId);
-            expense.setCompanyDomain(companyResponse.getDomain());
-            expense.setTitle(expenseRequestDTO.getTitle());
-            expense.setDescription(expenseRequestDTO.getDescription());
-            expense.setAmount(expenseRequestDTO.getAmount());
-            expense.setCategory(expenseRequestDTO.getCategory());
-            expense.setExpenseDate(expenseRequestDTO.getExpenseDate());
-            expense.setSubmissionDate(LocalDateTime.now());
-
-            // Requires multi-level approval
-            expense.setStatus(ExpenseStatus.SUBMITTED);
-            // Save the expense to the database
-            expenseRepository.save(expense);
-            // Construct the ApprovalRequestDTO object
-            ApprovalRequestDTO approvalRequestDTO = ApprovalRequestDTO.builder()
-                    .expenseId(expense.getId())
-                    .companyDomain(expense.getCompanyDomain())
-                    .title(expense.getTitle())
-                    .description(expense.getDescription())
-                    .amount(expense.getAmount())
-                    .category(expense.getCategory())
-                    .expenseDate(expense.getExpenseDate())
-                    .build();
+    // Flags the expense when it takes its category over the company's monthly budget, or rejects it under a REJECT policy
+    private void applyBudget(Expense expense, CompanyResponseDTO company, BigDecimal amount) {
+        if (!budgetService.exceedsBudget(company, expense.getCategory(), expense.getExpenseDate(), amount)) {
+            return;
+        }
+        if (company.getBudgetPolicy() == BudgetPolicy.REJECT) {
+            throw new ClientException("Expense exceeds the monthly " + expense.getCategory() + " budget of the company.", HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        expense.setOverBudget(true);
+    }
 
-            // Set up the headers (set content type as JSON)
-            HttpHeaders headers = new HttpHeaders();
-            headers.set(HttpHeaders.CONTENT_TYPE, String.valueOf(MediaType.APPLICATION_JSON));
-            headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken); // Assuming authorization header is needed
+    private record RollupKey(YearMonth month, ExpenseCategory category) {
+    }
 
-            // Create an HttpEntity with the body and headers
-            HttpEntity<ApprovalRequestDTO> requestEntity = new HttpEntity<>(approvalRequestDTO, headers);
+    private static final class RollupDelta {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
 
-            // Make the POST request (assuming the endpoint expects a POST request)
-            String approvalUrl = "http://approval-service/approval-service/ask-for-approve";
-            ResponseEntity<Void> response = null;
-            try {
-                response = restTemplate.exchange(approvalUrl, HttpMethod.POST, requestEntity, Void.class);
+        private void add(BigDecimal value) {
+            amount = amount.add(value);
+            count++;
+        }
+    }
 
-                if (response.getStatusCode() == HttpStatus.OK) {
-                    log.info("Approval request sent successfully.");
-                } else {
-                    log.error("Failed to send approval request: {}", response.getStatusCode());
-                }
-            } catch (HttpClientErrorException | HttpServerErrorException e) {
-                String responseBody = e.getResponseBodyAsString();
-                // Parse the response body (which is a JSON string)
-                ObjectMapper objectMapper = new ObjectMapper();
-                JsonNode jsonNode = null;
-                try {
-                    jsonNode = objectMapper.readTree(responseBody);
-                } catch (JsonProcessingException ex) {
-                    log.error("Failed to parse response body: {}", ex.getMessage());
-                }
+    // Resolves the submitting user and their company through auth-service and company-service
+    private Submitter resolveSubmitter(String emailId, String accessToken) {
+        // Rest call to auth-service to get user details by email
+        String authUrlToGetUser = "http://auth-service/auth-service/get-user/" + emailId;
 
-                if (jsonNode != null) {
-                    String message = jsonNode.get("message").asText();
-                    String status = jsonNode.get("status").asText();
-
-                    HttpStatus httpStatus;
-                    try {
-                        httpStatus = HttpStatus.valueOf(status); // Convert status string to HttpStatus
-                    } catch (IllegalArgumentException e2) {
-                        log.error("Invalid status '{}' found, defaulting to HttpStatus.UNAUTHORIZED", status);
-                        httpStatus = HttpStatus.UNAUTHORIZED;
-                    }
-
-                    log.error("Parsed message: {}", message);
-                    log.error("Parsed status: {}", status);
-
-                    // Re-throw ClientException so that it will be caught by the GlobalExceptionHandler
-                    throw new ClientException(message, httpStatus);
-                } else {
-                    log.error("Failed to parse JSON response body.");
-                    throw new ClientException("Authorization failed, unable to parse error response", HttpStatus.INTERNAL_SERVER_ERROR);
-                }
+        try {
+            // Both lookups go through the local cache, see LookupCacheImpl
+            UserResponse userResponse = timed("user-lookup", () -> lookupCache.getUser(emailId,
+                    () -> restTemplate.exchange(authUrlToGetUser, HttpMethod.GET,
+                            new HttpEntity<>(createHeaders(accessToken)), UserResponse.class).getBody()));
+            if (userResponse == null) {
+                throw new IllegalStateException("Unable to fetch user information.");
             }
 
+            // Rest call to company-service to get company domain
+            String companyUrlToGetCompany = "http://company-service/company-service/domain-name/" + userResponse.getCompanyDomain();
+            CompanyResponseDTO companyResponse = timed("company-lookup", () -> lookupCache.getCompany(userResponse.getCompanyDomain(),
+                    () -> fetchCompany(companyUrlToGetCompany, accessToken)));
+
+            if (companyResponse == null) {
+                throw new IllegalStateException("Unable to fetch company information.");
+            }
 
+            return new Submitter(userResponse, companyResponse);
         } catch (HttpClientErrorException.Unauthorized e) {
             log.error("Authorization failed: {}", e.getResponseBodyAsString());
 
@@ -285,11 +385,88 @@ public class ExpenseServiceImpl implements ExpenseService {
                 throw new ClientException(message, httpStatus);
             }
         }
+    }
+
+    private record Submitter(UserResponse user, CompanyResponseDTO company) {
+    }
+
+    // Rest call to company-service, its error response is re-thrown as a ClientException
+    private CompanyResponseDTO fetchCompany(String companyUrlToGetCompany, String accessToken) {
+        try {
+            return restTemplate.exchange(companyUrlToGetCompany, HttpMethod.GET,
+                    new HttpEntity<>(createHeaders(accessToken)), CompanyResponseDTO.class).getBody();
+        } catch (HttpClientErrorException | HttpServerErrorException e) {
+            String responseBody = e.getResponseBodyAsString();
+            // Parse the response body (which is a JSON string)
+            ObjectMapper objectMapper = new ObjectMapper();
+            JsonNode jsonNode = null;
+            try {
+                jsonNode = objectMapper.readTree(responseBody);
+            } catch (JsonProcessingException ex) {
+                log.error("Failed to parse response body: {}", ex.getMessage());
+            }
+
+            if (jsonNode != null) {
+                String message = jsonNode.get("message").asText();
+                String statusStr = jsonNode.get("status").asText().substring(0, 3);
+
+                // Convert the status code to integer and map it to HttpStatus
+                int statusCode = Integer.parseInt(statusStr);
+
+                // Use HttpStatus.valueOf() with the numeric status code value
+                HttpStatus status = HttpStatus.resolve(statusCode);
+
+//                    HttpStatus httpStatus;
+//                    try {
+//                        httpStatus = HttpStatus.valueOf(status); // Convert status string to HttpStatus
+//                    } catch (IllegalArgumentException e2) {
+//                        log.error("Invalid status '{}' found, defaulting to HttpStatus.UNAUTHORIZED", status);
+//                        httpStatus = HttpStatus.UNAUTHORIZED;
+//                    }
+
+                log.error("Parsed message: {}", message);
+                log.error("Parsed status: {}", status);
+
+                // Re-throw ClientException so that it will be caught by the GlobalExceptionHandler
+                throw new ClientException(message, status);
+            } else {
+                log.error("Failed to parse JSON response body.");
+                throw new ClientException("Authorization failed, unable to parse error response", HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        }
+    }
 
+    // Construct the approval request of the expense as an outbox row
+    private ApprovalOutbox createApprovalOutbox(Expense expense, String submittedBy) {
+        ApprovalRequestDTO approvalRequestDTO = ApprovalRequestDTO.builder()
+                .expenseId(expense.getId())
+                .submittedBy(submittedBy)
+                .companyDomain(expense.getCompanyDomain())
+                .title(expense.getTitle())
+                .description(expense.getDescription())
+                .amount(expense.getAmount())
+                .category(expense.getCategory())
+                .expenseDate(expense.getExpenseDate())
+                .overBudget(expense.getOverBudget())
+                .build();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            return ApprovalOutbox.builder()
+                    .expenseId(expense.getId())
+                    .companyDomain(expense.getCompanyDomain())
+                    .payload(objectMapper.writeValueAsString(approvalRequestDTO))
+                    .status(OutboxStatus.PENDING)
+                    .attempts(0)
+                    .nextAttemptAt(now)
+                    .createdAt(now)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize approval request", e);
+        }
     }
 
     // Fallback method for circuit breaker with specific service failure messages
-    public void fallbackMethod(ExpenseRequestDTO expenseRequestDTO, Throwable t) {
+    public ExpenseResponseDTO fallbackMethod(ExpenseRequestDTO expenseRequestDTO, Throwable t) {
         log.error("Circuit breaker triggered: {}", t.getMessage());
         log.error("Error : {}", t);
 
@@ -315,7 +492,13 @@ public class ExpenseServiceImpl implements ExpenseService {
         } catch (IOException e) {
             log.error("Failed to send response: {}", e.getMessage());
         }
+        return null;
+    }
 
+    // Fallback of the batch submission, failures are reported the same way as for a single submission
+    public ExpenseBatchResponseDTO batchFallbackMethod(ExpenseBatchRequestDTO expenseBatchRequestDTO, Throwable t) {
+        fallbackMethod(null, t);
+        return null;
     }
 
     // Helper method to determine the service that failed
@@ -331,37 +514,60 @@ public class ExpenseServiceImpl implements ExpenseService {
         }
     }
 
+    // Records the duration of one submission phase under 'expense.submit.phase', exposed through /actuator/metrics
+    private <T> T timed(String phase, Supplier<T> call) {
+        return Timer.builder("expense.submit.phase")
+                .description("Duration of each phase of an expense submission")
+                .tag("phase", phase)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(call);
+    }
+
+    // Reads are projected straight into the DTO. A read-only transaction also puts the Hibernate session in
+    // flush mode MANUAL with read-only defaults, so nothing is snapshotted or dirty-checked at commit.
     @Override
+    @Transactional(readOnly = true)
     public ExpenseResponseDTO getExpenseById(Long id) {
-        Expense expense = this.expenseRepository.findById(id).orElseThrow(() -> new RuntimeException("Expense not found"));
-        return ExpenseResponseDTO.builder()
-                .id(expense.getId())
-                .employeeId(expense.getEmployeeId())
-                .companyDomain(expense.getCompanyDomain())
-                .title(expense.getTitle())
-                .description(expense.getDescription())
-                .amount(expense.getAmount())
-                .category(expense.getCategory())
-                .expenseDate(expense.getExpenseDate())
-                .status(expense.getStatus())
-                .build();
+        return this.expenseRepository.findResponseById(id).orElseThrow(() -> new RuntimeException("Expense not found"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ExpenseResponseDTO> getAllExpenses() {
-        return this.expenseRepository.findAll()
-                .stream().map(expense -> ExpenseResponseDTO.builder()
-                        .id(expense.getId())
-                        .employeeId(expense.getEmployeeId())
-                        .companyDomain(expense.getCompanyDomain())
-                        .title(expense.getTitle())
-                        .description(expense.getDescription())
-                        .amount(expense.getAmount())
-                        .category(expense.getCategory())
-                        .expenseDate(expense.getExpenseDate())
-                        .status(expense.getStatus())
-                        .build()
-                ).toList();
+        return this.expenseRepository.findAllResponses();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ExpensePage getExpenses(String companyDomain, Integer size, String cursor) {
+        tenantGuard.checkCompany(companyDomain);
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        // Fetch one extra row to know whether another page exists without a count query
+        List<ExpenseResponseDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = expenseRepository.findFirstExpensePage(companyDomain, Limit.of(pageSize + 1));
+        } else {
+            CursorUtils.Cursor last = CursorUtils.decode(cursor);
+            rows = expenseRepository.findExpensePageAfter(companyDomain, last.expenseDate(), last.id(), Limit.of(pageSize + 1));
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<ExpenseResponseDTO> content = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            ExpenseResponseDTO lastRow = content.getLast();
+            nextCursor = CursorUtils.encode(lastRow.getExpenseDate(), lastRow.getId());
+        }
+
+        return ExpensePage.builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Override
@@ -369,6 +575,11 @@ public class ExpenseServiceImpl implements ExpenseService {
         Expense existingExpense = expenseRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found with ID: " + id));
 
+        // Remember the rollup key and amount before the update
+        LocalDateTime oldExpenseDate = existingExpense.getExpenseDate();
+        ExpenseCategory oldCategory = existingExpense.getCategory();
+        BigDecimal oldAmount = existingExpense.getAmount();
+
         if (expensePartialRequestDTO.getTitle() != null && !expensePartialRequestDTO.getTitle().isEmpty()) {
             existingExpense.setTitle(expensePartialRequestDTO.getTitle());
         }
@@ -386,145 +597,94 @@ public class ExpenseServiceImpl implements ExpenseService {
         }
 
         Expense savedExpense = expenseRepository.save(existingExpense);
-        return ExpenseResponseDTO.builder()
-                .id(savedExpense.getId())
-                .employeeId(savedExpense.getEmployeeId())
-                .companyDomain(savedExpense.getCompanyDomain())
-                .title(savedExpense.getTitle())
-                .description(savedExpense.getDescription())
-                .amount(savedExpense.getAmount())
-                .category(savedExpense.getCategory())
-                .expenseDate(savedExpense.getExpenseDate())
-                .status(savedExpense.getStatus())
-                .build();
+
+        boolean rollupChanged = oldAmount.compareTo(savedExpense.getAmount()) != 0
+                || oldCategory != savedExpense.getCategory()
+                || oldExpenseDate.getYear() != savedExpense.getExpenseDate().getYear()
+                || oldExpenseDate.getMonthValue() != savedExpense.getExpenseDate().getMonthValue();
+        if (rollupChanged) {
+            expenseRollupService.applyDelta(savedExpense.getCompanyDomain(), oldExpenseDate, oldCategory, oldAmount.negate(), -1);
+            expenseRollupService.applyDelta(savedExpense.getCompanyDomain(), savedExpense.getExpenseDate(), savedExpense.getCategory(), savedExpense.getAmount(), 1);
+            expenseAnalyticsService.record(savedExpense.getCompanyDomain(), savedExpense.getEmployeeId(), oldExpenseDate, oldCategory, oldAmount.negate(), -1);
+            expenseAnalyticsService.record(savedExpense.getCompanyDomain(), savedExpense.getEmployeeId(), savedExpense.getExpenseDate(), savedExpense.getCategory(), savedExpense.getAmount(), 1);
+            budgetService.record(savedExpense.getCompanyDomain(), oldExpenseDate, oldCategory, oldAmount.negate());
+            budgetService.record(savedExpense.getCompanyDomain(), savedExpense.getExpenseDate(), savedExpense.getCategory(), savedExpense.getAmount());
+        }
+        companyDataVersionService.bump(savedExpense.getCompanyDomain());
+        expenseDashboardService.markChanged(savedExpense.getCompanyDomain());
+        expenseSearchService.index(savedExpense);
+        return ExpenseMapper.toResponse(savedExpense);
     }
 
     @Override
     public void deleteExpense(Long id) {
-        this.expenseRepository.deleteById(id);
+        this.expenseRepository.findById(id).ifPresent(expense -> {
+            this.expenseRepository.delete(expense);
+            expenseRollupService.applyDelta(expense.getCompanyDomain(), expense.getExpenseDate(), expense.getCategory(), expense.getAmount().negate(), -1);
+            expenseAnalyticsService.record(expense.getCompanyDomain(), expense.getEmployeeId(), expense.getExpenseDate(), expense.getCategory(), expense.getAmount().negate(), -1);
+            budgetService.record(expense.getCompanyDomain(), expense.getExpenseDate(), expense.getCategory(), expense.getAmount().negate());
+            companyDataVersionService.bump(expense.getCompanyDomain());
+            expenseDashboardService.markChanged(expense.getCompanyDomain());
+            expenseSearchService.remove(expense.getId());
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public byte[] generateExpenseInvoice(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category) {
-        // Convert the category to ExpenseCategory enum if not null
-        ExpenseCategory categoryToUse = null;
-        if (category != null && !category.isEmpty()) {
-            try {
-                categoryToUse = ExpenseCategory.valueOf(category.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Invalid category provided");
-            }
-        }
-
-        // Fetch the expenses with the optional filters (year, month, category)
-        List<Expense> expenseList = expenseRepository.findExpensesWithFilters(companyDomain, startYear, endYear, startMonth, endMonth, categoryToUse);
-
-        try {
-            Document document = new Document();
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, outputStream);
-            document.open();
-
-            // **Invoice Header**
-            Font titleFont = new Font(FontFactory.getFont(FontFactory.HELVETICA_BOLD).getFamily(), 18, Font.NORMAL, new BaseColor(33, 150, 243)); // Tech-friendly blue color
-            Paragraph title = new Paragraph("Expense Invoice", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            title.setSpacingAfter(20);  // Adding space after the title
-            document.add(title);
-
-            // **Generated On Line**
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            Font generatedOnFont = new Font(FontFactory.getFont(FontFactory.HELVETICA).getFamily(), 12, Font.NORMAL, new BaseColor(0, 150, 136)); // Tech green color
-            Paragraph generatedOn = new Paragraph("Generated on: " + LocalDateTime.now().format(formatter), generatedOnFont);
-            generatedOn.setAlignment(Element.ALIGN_LEFT);
-            generatedOn.setSpacingAfter(20);  // Adding space after the "Generated on"
-            document.add(generatedOn);
-
-            // **Create Table for Expenses**
-            PdfPTable table = new PdfPTable(6);
-            table.setWidthPercentage(100);
-            table.setSpacingBefore(10f);
-            table.setSpacingAfter(10f);
-
-            // **Define Column Headers**
-            String[] headers = {"Expense ID", "Title", "Description", "Amount ($)", "Category", "Date"};
-            for (String header : headers) {
-                PdfPCell headerCell = new PdfPCell(new Phrase(header));
-                headerCell.setBackgroundColor(new BaseColor(184, 218, 255));  // Light blue header color
-                headerCell.setPadding(5);
-                table.addCell(headerCell);
-            }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeExpenseInvoice(companyDomain, startYear, endYear, startMonth, endMonth, category, outputStream);
+        return outputStream.toByteArray();
+    }
 
-            // **Insert Data Rows with alternating row colors**
-            boolean isEvenRow = true;
-            for (Expense expense : expenseList) {
-                BaseColor rowColor = isEvenRow ? new BaseColor(245, 245, 245) : new BaseColor(255, 255, 255);  // Alternating row colors
-
-                // Set row color
-                table.addCell(createStyledCell(String.valueOf(expense.getId()), rowColor));
-                table.addCell(createStyledCell(expense.getTitle(), rowColor));
-                table.addCell(createStyledCell(expense.getDescription(), rowColor));
-                table.addCell(createStyledCell("$" + expense.getAmount(), rowColor));
-                table.addCell(createStyledCell(expense.getCategory().toString(), rowColor));
-                table.addCell(createStyledCell(expense.getExpenseDate().toString(), rowColor));
-
-                // Toggle row color for next row
-                isEvenRow = !isEvenRow;
+    @Override
+    @Transactional(readOnly = true)
+    public void writeExpenseInvoice(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category, OutputStream outputStream) {
+        ExpenseCategory categoryToUse = parseCategory(category);
+        ExpenseFilter filter = new ExpenseFilter(companyDomain, startYear, endYear, startMonth, endMonth, categoryToUse);
+
+        // Rows are read forward-only and written out in chunks, so memory stays flat whatever the row count
+        try (Stream<Expense> expenses = expenseRepository.streamExpensesWithFilters(filter)) {
+            InvoicePdfWriter invoice = new InvoicePdfWriter(outputStream);
+            Iterator<Expense> iterator = expenses.iterator();
+            while (iterator.hasNext()) {
+                Expense expense = iterator.next();
+                invoice.addRow(expense);
+                entityManager.detach(expense); // Keep the persistence context from growing with the result set
             }
-
-            document.add(table);
-            document.close();
-
-            return outputStream.toByteArray();
+            invoice.finish();
         } catch (Exception e) {
             log.error("Error generating invoice PDF", e);
             throw new RuntimeException("Failed to generate invoice", e);
         }
     }
 
-    // Helper method to create a styled cell
-    private PdfPCell createStyledCell(String content, BaseColor rowColor) {
-        PdfPCell cell = new PdfPCell(new Phrase(content));
-        cell.setBackgroundColor(rowColor);
-        cell.setPadding(5);
-        return cell;
+    // Convert the category to ExpenseCategory enum if not null
+    private ExpenseCategory parseCategory(String category) {
+        if (category == null || category.isEmpty()) {
+            return null;
+        }
+        try {
+            return ExpenseCategory.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid category provided");
+        }
     }
 
 
+
+    // Trends and breakdowns are answered from the in-memory analytics ledger, no transaction is opened for them
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ExpenseTrend> getMonthlyExpenseTrends(
             String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth) {
-
-        List<Object[]> results = expenseRepository.findMonthlyExpenseTrendsByCompanyDomain(
-                companyDomain, startYear, endYear, startMonth, endMonth);
-
-        List<ExpenseTrend> trends = new ArrayList<>();
-
-        for (Object[] result : results) {
-            int year = ((Number) result[0]).intValue();
-            int month = ((Number) result[1]).intValue();
-            BigDecimal totalAmount = (BigDecimal) result[2];
-
-            trends.add(ExpenseTrend.builder().month(month).year(year).totalAmount(totalAmount).build());
-        }
-
-        return trends;
+        return expenseAnalyticsService.getMonthlyExpenseTrends(companyDomain, startYear, endYear, startMonth, endMonth);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ExpenseTrend> getYearlyExpenseTrends(String companyDomain, Integer startYear, Integer endYear) {
-        List<Object[]> results = expenseRepository.findYearlyExpenseTrendsByCompanyDomain(
-                companyDomain, startYear, endYear);
-
-        List<ExpenseTrend> trends = new ArrayList<>();
-
-        for (Object[] result : results) {
-            int year = ((Number) result[0]).intValue();
-            BigDecimal totalAmount = (BigDecimal) result[1];
-            trends.add(ExpenseTrend.builder().year(year).totalAmount(totalAmount).build());
-        }
-
-        return trends;
+        return expenseAnalyticsService.getYearlyExpenseTrends(companyDomain, startYear, endYear);
     }
 
     private HttpHeaders createHeaders(String accessToken) {
@@ -535,25 +695,17 @@ public class ExpenseServiceImpl implements ExpenseService {
 
     // Method to get expense breakdown by category with optional filters for year and month
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ExpenseCategoryBreakdown> getExpenseBreakdownByCategory(
             String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, ExpenseCategory category) {
+        return expenseAnalyticsService.getExpenseBreakdownByCategory(companyDomain, startYear, endYear, startMonth, endMonth, category);
+    }
 
-        // Fetch the data based on filters from the repository
-        List<Object[]> results = expenseRepository.findExpenseCategoryBreakdown(
-                companyDomain, startYear, endYear, startMonth, endMonth, category);
-
-        List<ExpenseCategoryBreakdown> breakdown = new ArrayList<>();
-
-        for (Object[] result : results) {
-            int month = ((Number) result[0]).intValue();
-            int year = ((Number) result[1]).intValue();
-            ExpenseCategory categoryName = (ExpenseCategory) result[2];
-            BigDecimal totalAmount = (BigDecimal) result[3];
-
-            // Add the result to the breakdown
-            breakdown.add(ExpenseCategoryBreakdown.builder().month(month).year(year).category(categoryName).totalAmount(totalAmount).build());
-        }
-
-        return breakdown;
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ExpenseTotals getExpenseTotals(
+            String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, ExpenseCategory category, Long employeeId) {
+        tenantGuard.checkCompany(companyDomain);
+        return expenseAnalyticsService.getExpenseTotals(companyDomain, startYear, endYear, startMonth, endMonth, category, employeeId);
     }
 }
@@ -0,0 +1,62 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.dto.request.ExpenseStatusEventDTO;
+import com.madeeasy.dto.response.ExpenseStatusUpdateResponse;
+import com.madeeasy.entity.Expense;
+import com.madeeasy.repository.ExpenseRepository;
+import com.madeeasy.service.ExpenseSearchService;
+import com.madeeasy.service.ExpenseStatusService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@link Expense#getStatus()} in step with approval-service. A batch costs one locking select and
+ * JDBC-batched updates at commit (hibernate.jdbc.batch_size, order_updates).
+ * Amounts and dates do not change, so the rollup, the analytics ledger and the company data version are left alone.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ExpenseStatusServiceImpl implements ExpenseStatusService {
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseSearchService expenseSearchService;
+
+    @Override
+    public ExpenseStatusUpdateResponse applyStatusEvents(List<ExpenseStatusEventDTO> events) {
+        // Only the newest event of each expense in the batch matters
+        Map<Long, ExpenseStatusEventDTO> latest = new HashMap<>();
+        for (ExpenseStatusEventDTO event : events) {
+            latest.merge(event.getExpenseId(), event,
+                    (current, candidate) -> candidate.getSequence() > current.getSequence() ? candidate : current);
+        }
+
+        int applied = 0;
+        for (Expense expense : expenseRepository.findAllByIdForUpdate(latest.keySet())) {
+            ExpenseStatusEventDTO event = latest.get(expense.getId());
+            // Redelivered or overtaken by a newer event
+            if (expense.getStatusVersion() != null && expense.getStatusVersion() >= event.getSequence()) {
+                continue;
+            }
+            expense.setStatus(event.getStatus());
+            expense.setApprovalLevel(event.getApprovalLevel());
+            expense.setStatusVersion(event.getSequence());
+            expenseSearchService.index(expense);
+            applied++;
+        }
+        log.debug("Applied {} of {} expense status events", applied, events.size());
+
+        return ExpenseStatusUpdateResponse.builder()
+                .received(events.size())
+                .applied(applied)
+                .ignored(events.size() - applied)
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.madeeasy.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.madeeasy.config.IdempotencyProperties;
+import com.madeeasy.dto.response.ExpenseResponseDTO;
+import com.madeeasy.entity.IdempotencyRecord;
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.repository.IdempotencyRecordRepository;
+import com.madeeasy.service.IdempotencyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Idempotency-Key store of expense submissions. Recent responses are answered from a bounded,
+ * TTL-evicting cache, older ones and those of other instances from the database, whose unique
+ * constraint on (email, key) is what finally keeps two submissions from both committing.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final Cache<String, StoredResponse> responses;
+    // Keys whose submission is running on this instance
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  ObjectMapper objectMapper,
+                                  IdempotencyProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "expense.idempotency");
+    }
+
+    @Override
+    public Optional<ExpenseResponseDTO> findResponse(String emailId, String idempotencyKey, String requestHash) {
+        String scopedKey = scopedKey(emailId, idempotencyKey);
+        StoredResponse stored = responses.getIfPresent(scopedKey);
+        if (stored == null) {
+            stored = idempotencyRecordRepository.findByEmailIdAndIdempotencyKey(emailId, idempotencyKey)
+                    .filter(record -> record.getCreatedAt().isAfter(LocalDateTime.now().minus(properties.getTtl())))
+                    .map(record -> new StoredResponse(record.getRequestHash(), read(record.getResponse())))
+                    .orElse(null);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            responses.put(scopedKey, stored);
+        }
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ClientException("Idempotency-Key has already been used for a different request.", HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        log.debug("Replaying the response of Idempotency-Key {} for {}", idempotencyKey, emailId);
+        return Optional.of(stored.response());
+    }
+
+    @Override
+    public boolean tryBegin(String emailId, String idempotencyKey) {
+        return inFlight.add(scopedKey(emailId, idempotencyKey));
+    }
+
+    @Override
+    public void end(String emailId, String idempotencyKey) {
+        inFlight.remove(scopedKey(emailId, idempotencyKey));
+    }
+
+    @Override
+    public void record(String emailId, String idempotencyKey, String requestHash, ExpenseResponseDTO response) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize the expense response", e);
+        }
+        // An expired record the purge has not reached yet still holds the unique (email, key) slot
+        idempotencyRecordRepository.deleteExpired(emailId, idempotencyKey, LocalDateTime.now().minus(properties.getTtl()));
+        // Flushed right away, so a duplicate surfaces here as a DataIntegrityViolationException
+        idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                .emailId(emailId)
+                .idempotencyKey(idempotencyKey)
+                .requestHash(requestHash)
+                .expenseId(response.getId())
+                .response(json)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        StoredResponse stored = new StoredResponse(requestHash, response);
+        String scopedKey = scopedKey(emailId, idempotencyKey);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            responses.put(scopedKey, stored);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                responses.put(scopedKey, stored);
+            }
+        });
+    }
+
+    // Deletes the records of keys that are no longer honoured
+    @Scheduled(fixedDelayString = "${expense.idempotency.purge-interval:3600000}")
+    public void purgeExpiredRecords() {
+        int purged = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(properties.getTtl()));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private ExpenseResponseDTO read(String json) {
+        try {
+            return objectMapper.readValue(json, ExpenseResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read a stored expense response", e);
+        }
+    }
+
+    private static String scopedKey(String emailId, String idempotencyKey) {
+        return emailId + '\n' + idempotencyKey;
+    }
+
+    private record StoredResponse(String requestHash, ExpenseResponseDTO response) {
+    }
+}
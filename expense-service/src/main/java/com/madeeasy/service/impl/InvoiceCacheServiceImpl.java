@@ -0,0 +1,204 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.config.InvoiceCacheProperties;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.service.CompanyDataVersionService;
+import com.madeeasy.service.ExpenseService;
+import com.madeeasy.service.InvoiceCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Disk cache of rendered invoice PDFs. A file is named after the SHA-256 of the filters and the company's
+ * data version, so any expense write makes the old entries unreachable and they age out of the LRU.
+ * The version is read before rendering, so an entry never holds data older than its key.
+ */
+@Slf4j
+@Service
+public class InvoiceCacheServiceImpl implements InvoiceCacheService {
+
+    private final ExpenseService expenseService;
+    private final CompanyDataVersionService companyDataVersionService;
+    private final Path directory;
+    private final long maxBytes;
+    // Cache key -> file size, in least recently used order, guarded by itself
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    // One render per key at a time, concurrent misses wait for it
+    private final Map<String, Object> renderLocks = new ConcurrentHashMap<>();
+
+    public InvoiceCacheServiceImpl(ExpenseService expenseService,
+                                   CompanyDataVersionService companyDataVersionService,
+                                   InvoiceCacheProperties properties) throws IOException {
+        this.expenseService = expenseService;
+        this.companyDataVersionService = companyDataVersionService;
+        this.directory = Files.createDirectories(Path.of(properties.getDirectory()));
+        this.maxBytes = properties.getMaxSize().toBytes();
+        loadExistingEntries();
+    }
+
+    @Override
+    public String getETag(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category) {
+        return eTagOf(keyOf(companyDomain, startYear, endYear, startMonth, endMonth, category));
+    }
+
+    @Override
+    public CachedInvoice getInvoice(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category) {
+        String key = keyOf(companyDomain, startYear, endYear, startMonth, endMonth, category);
+        if (!touch(key)) {
+            Object lock = renderLocks.computeIfAbsent(key, k -> new Object());
+            synchronized (lock) {
+                try {
+                    if (!touch(key)) {
+                        render(key, companyDomain, startYear, endYear, startMonth, endMonth, category);
+                    }
+                } finally {
+                    renderLocks.remove(key, lock);
+                }
+            }
+        }
+        return new CachedInvoice(eTagOf(key), fileOf(key));
+    }
+
+    private void render(String key, String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category) {
+        Path partFile = directory.resolve(key + ".pdf.part");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                expenseService.writeExpenseInvoice(companyDomain, startYear, endYear, startMonth, endMonth, category, outputStream);
+            }
+            Path file = Files.move(partFile, fileOf(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            add(key, Files.size(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to cache invoice", e);
+        } finally {
+            try {
+                Files.deleteIfExists(partFile);
+            } catch (IOException e) {
+                log.warn("Unable to delete {}: {}", partFile, e.getMessage());
+            }
+        }
+    }
+
+    // Marks the entry as recently used, false if it is not cached
+    private boolean touch(String key) {
+        synchronized (entries) {
+            if (entries.get(key) == null) {
+                return false;
+            }
+            if (Files.exists(fileOf(key))) {
+                return true;
+            }
+            totalBytes -= entries.remove(key);
+            return false;
+        }
+    }
+
+    private void add(String key, long size) {
+        synchronized (entries) {
+            Long previous = entries.put(key, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+
+            Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && entries.size() > 1 && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                eldest.remove();
+                totalBytes -= entry.getValue();
+                try {
+                    Files.deleteIfExists(fileOf(entry.getKey()));
+                } catch (IOException e) {
+                    log.warn("Unable to evict cached invoice {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Files of a previous run are reused, oldest first in the LRU order; leftover part files are dropped
+    private void loadExistingEntries() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.toList();
+        }
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(".part")) {
+                Files.deleteIfExists(file);
+            }
+        }
+        files.stream()
+                .filter(file -> file.getFileName().toString().endsWith(".pdf"))
+                .sorted(Comparator.comparing(this::lastModified))
+                .forEach(file -> {
+                    String name = file.getFileName().toString();
+                    try {
+                        add(name.substring(0, name.length() - ".pdf".length()), Files.size(file));
+                    } catch (IOException e) {
+                        log.warn("Skipping cached invoice {}: {}", file, e.getMessage());
+                    }
+                });
+        log.info("Invoice cache holds {} invoices ({} bytes)", entries.size(), totalBytes);
+    }
+
+    private FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private String keyOf(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category) {
+        String filters = String.join("|", companyDomain, Objects.toString(startYear, ""), Objects.toString(endYear, ""),
+                Objects.toString(startMonth, ""), Objects.toString(endMonth, ""), Objects.toString(normalizeCategory(category), ""),
+                Long.toString(companyDataVersionService.current(companyDomain)));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(filters.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(key + ".pdf");
+    }
+
+    private static String eTagOf(String key) {
+        return "\"" + key + "\"";
+    }
+
+    private static String normalizeCategory(String category) {
+        if (category == null || category.isEmpty()) {
+            return null;
+        }
+        try {
+            return ExpenseCategory.valueOf(category.toUpperCase()).name();
+        } catch (IllegalArgumentException e) {
+            throw new ClientException("Invalid category provided", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.madeeasy.service.impl;
+
+import com.madeeasy.config.InvoiceJobProperties;
+import com.madeeasy.dto.response.InvoiceJobResponse;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.entity.InvoiceJob;
+import com.madeeasy.entity.InvoiceJobStatus;
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.repository.ExpenseFilter;
+import com.madeeasy.repository.InvoiceJobRepository;
+import com.madeeasy.security.TenantGuard;
+import com.madeeasy.service.ExpenseService;
+import com.madeeasy.service.InvoiceJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders invoices on a bounded worker pool into a local file store.
+ * Not transactional on purpose: the rendering runs in the read-only transaction of
+ * {@link ExpenseService#writeExpenseInvoice} and job updates are single repository calls.
+ */
+@Slf4j
+@Service
+public class InvoiceJobServiceImpl implements InvoiceJobService {
+
+    private final InvoiceJobRepository invoiceJobRepository;
+    private final ExpenseService expenseService;
+    private final ThreadPoolTaskExecutor invoiceJobExecutor;
+    private final InvoiceJobProperties properties;
+    private final TenantGuard tenantGuard;
+    private final Path storageDir;
+    // Request key -> id of the job that is queued or running for it
+    private final Map<String, String> inFlightJobs = new ConcurrentHashMap<>();
+
+    public InvoiceJobServiceImpl(InvoiceJobRepository invoiceJobRepository,
+                                 ExpenseService expenseService,
+                                 @Qualifier("invoiceJobExecutor") ThreadPoolTaskExecutor invoiceJobExecutor,
+                                 InvoiceJobProperties properties,
+                                 TenantGuard tenantGuard) throws IOException {
+        this.invoiceJobRepository = invoiceJobRepository;
+        this.expenseService = expenseService;
+        this.invoiceJobExecutor = invoiceJobExecutor;
+        this.properties = properties;
+        this.tenantGuard = tenantGuard;
+        this.storageDir = Files.createDirectories(Path.of(properties.getStorageDir()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        int interrupted = invoiceJobRepository.failAll(List.of(InvoiceJobStatus.QUEUED, InvoiceJobStatus.RUNNING),
+                "Interrupted by a restart of expense-service", LocalDateTime.now());
+        if (interrupted > 0) {
+            log.warn("Marked {} interrupted invoice jobs as failed", interrupted);
+        }
+    }
+
+    @Override
+    public InvoiceJobResponse submitInvoiceJob(String companyDomain, Integer startYear, Integer endYear, Integer startMonth, Integer endMonth, String category) {
+        tenantGuard.checkCompany(companyDomain);
+        // Reject bad filters now rather than in a failed job
+        String categoryToUse = normalizeCategory(category);
+        new ExpenseFilter(companyDomain, startYear, endYear, startMonth, endMonth,
+                categoryToUse == null ? null : ExpenseCategory.valueOf(categoryToUse));
+
+        String requestKey = String.join("|", companyDomain, Objects.toString(startYear, ""), Objects.toString(endYear, ""),
+                Objects.toString(startMonth, ""), Objects.toString(endMonth, ""), Objects.toString(categoryToUse, ""));
+
+        String jobId = inFlightJobs.computeIfAbsent(requestKey, key -> {
+            InvoiceJob job = invoiceJobRepository.save(InvoiceJob.builder()
+                    .id(UUID.randomUUID().toString())
+                    .companyDomain(companyDomain)
+                    .startYear(startYear)
+                    .endYear(endYear)
+                    .startMonth(startMonth)
+                    .endMonth(endMonth)
+                    .category(categoryToUse)
+                    .requestKey(key)
+                    .status(InvoiceJobStatus.QUEUED)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            try {
+                invoiceJobExecutor.execute(() -> render(job));
+            } catch (TaskRejectedException e) {
+                invoiceJobRepository.delete(job);
+                throw new ClientException("Too many invoice jobs are queued, please try again later.", HttpStatus.TOO_MANY_REQUESTS);
+            }
+            return job.getId();
+        });
+        return getInvoiceJob(jobId);
+    }
+
+    @Override
+    public InvoiceJobResponse getInvoiceJob(String jobId) {
+        return toResponse(findJob(jobId));
+    }
+
+    @Override
+    public Path getInvoiceFile(String jobId) {
+        InvoiceJob job = findJob(jobId);
+        if (job.getStatus() != InvoiceJobStatus.COMPLETED) {
+            throw new ClientException("Invoice job is " + job.getStatus().name().toLowerCase() + ", no invoice to download.", HttpStatus.CONFLICT);
+        }
+        Path file = fileOf(jobId);
+        if (!Files.exists(file)) {
+            throw new ClientException("Invoice of job " + jobId + " is no longer available.", HttpStatus.GONE);
+        }
+        return file;
+    }
+
+    // Deletes jobs and files past the retention period
+    @Scheduled(fixedDelayString = "${expense.invoice-jobs.purge-interval:3600000}")
+    public void purgeExpiredJobs() {
+        List<InvoiceJob> expired = invoiceJobRepository.findByCreatedAtBefore(LocalDateTime.now().minus(properties.getRetention()));
+        for (InvoiceJob job : expired) {
+            if (inFlightJobs.containsValue(job.getId())) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(fileOf(job.getId()));
+                invoiceJobRepository.delete(job);
+            } catch (IOException e) {
+                log.warn("Unable to delete invoice of job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void render(InvoiceJob job) {
+        Path file = fileOf(job.getId());
+        Path partFile = storageDir.resolve(job.getId() + ".pdf.part");
+        try {
+            job.setStatus(InvoiceJobStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            invoiceJobRepository.save(job);
+
+            // Written to a part file first so that a download never sees a half-written PDF
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                expenseService.writeExpenseInvoice(job.getCompanyDomain(), job.getStartYear(), job.getEndYear(),
+                        job.getStartMonth(), job.getEndMonth(), job.getCategory(), outputStream);
+            }
+            Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            job.setStatus(InvoiceJobStatus.COMPLETED);
+            job.setFileSize(Files.size(file));
+        } catch (Exception e) {
+            log.error("Invoice job {} failed: {}", job.getId(), e.getMessage(), e);
+            deleteQuietly(partFile);
+            job.setStatus(InvoiceJobStatus.FAILED);
+            job.setError(truncate(e.getMessage()));
+        } finally {
+            job.setCompletedAt(LocalDateTime.now());
+            invoiceJobRepository.save(job);
+            inFlightJobs.remove(job.getRequestKey(), job.getId());
+        }
+    }
+
+    // Jobs of another company are reported as missing so that their ids cannot be probed
+    private InvoiceJob findJob(String jobId) {
+        String companyDomain = tenantGuard.callerCompanyDomain();
+        return invoiceJobRepository.findById(jobId)
+                .filter(job -> job.getCompanyDomain().equals(companyDomain))
+                .orElseThrow(() -> new ClientException("Invoice job not found with id : " + jobId, HttpStatus.NOT_FOUND));
+    }
+
+    private Path fileOf(String jobId) {
+        return storageDir.resolve(jobId + ".pdf");
+    }
+
+    private InvoiceJobResponse toResponse(InvoiceJob job) {
+        return InvoiceJobResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus())
+                .companyDomain(job.getCompanyDomain())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .fileSize(job.getFileSize())
+                .error(job.getError())
+                .downloadUrl(job.getStatus() == InvoiceJobStatus.COMPLETED
+                        ? "/expense-service/invoice-jobs/" + job.getId() + "/download" : null)
+                .build();
+    }
+
+    private static String normalizeCategory(String category) {
+        if (category == null || category.isEmpty()) {
+            return null;
+        }
+        try {
+            return ExpenseCategory.valueOf(category.toUpperCase()).name();
+        } catch (IllegalArgumentException e) {
+            throw new ClientException("Invalid category provided", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Unable to delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "Invoice rendering failed";
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
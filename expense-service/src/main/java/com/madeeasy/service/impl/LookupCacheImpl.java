@@ -0,0 +1,120 @@
+package com.madeeasy.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.madeeasy.config.LookupCacheProperties;
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.service.LookupCache;
+import com.madeeasy.vo.CompanyResponseDTO;
+import com.madeeasy.vo.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-based cache of the auth-service and company-service lookups of the submit path.
+ * Not found answers are cached for a shorter time, any other failure is not cached at all.
+ * Hit/miss/eviction counts are exposed as 'cache.*' meters tagged with the cache name.
+ */
+@Slf4j
+@Service
+public class LookupCacheImpl implements LookupCache {
+
+    private final Cache<String, Lookup<UserResponse>> users;
+    private final Cache<String, Lookup<CompanyResponseDTO>> companies;
+
+    public LookupCacheImpl(LookupCacheProperties properties, MeterRegistry meterRegistry) {
+        this.users = build(properties.getMaximumSize(), properties.getUserTtl(), properties.getNegativeTtl());
+        this.companies = build(properties.getMaximumSize(), properties.getCompanyTtl(), properties.getNegativeTtl());
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "expense.lookup.user");
+        CaffeineCacheMetrics.monitor(meterRegistry, companies, "expense.lookup.company");
+    }
+
+    @Override
+    public UserResponse getUser(String emailId, Supplier<UserResponse> loader) {
+        return get(users, emailId, loader);
+    }
+
+    @Override
+    public CompanyResponseDTO getCompany(String companyDomain, Supplier<CompanyResponseDTO> loader) {
+        return get(companies, companyDomain, loader);
+    }
+
+    @Override
+    public void evictUser(String emailId) {
+        users.invalidate(emailId);
+    }
+
+    @Override
+    public void evictCompany(String companyDomain) {
+        companies.invalidate(companyDomain);
+    }
+
+    @Override
+    public void evictAll() {
+        users.invalidateAll();
+        companies.invalidateAll();
+        log.info("Lookup caches cleared");
+    }
+
+    private static <T> T get(Cache<String, Lookup<T>> cache, String key, Supplier<T> loader) {
+        // A null result is not cached, other exceptions than not found propagate and are not cached either
+        Lookup<T> lookup = cache.get(key, k -> {
+            try {
+                T value = loader.get();
+                return value == null ? null : new Lookup<>(value, null);
+            } catch (RuntimeException e) {
+                if (isNotFound(e)) {
+                    return new Lookup<>(null, e);
+                }
+                throw e;
+            }
+        });
+        if (lookup == null) {
+            return null;
+        }
+        if (lookup.failure() != null) {
+            throw lookup.failure();
+        }
+        return lookup.value();
+    }
+
+    private static boolean isNotFound(RuntimeException e) {
+        return e instanceof HttpClientErrorException.NotFound
+                || (e instanceof ClientException clientException && clientException.getStatus() == HttpStatus.NOT_FOUND);
+    }
+
+    private static <T> Cache<String, Lookup<T>> build(long maximumSize, Duration ttl, Duration negativeTtl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .expireAfter(new Expiry<String, Lookup<T>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Lookup<T> lookup, long currentTime) {
+                        return (lookup.failure() == null ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Lookup<T> lookup, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, lookup, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Lookup<T> lookup, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Either the looked up value or the not found failure to rethrow
+    private record Lookup<T>(T value, RuntimeException failure) {
+    }
+}
@@ -0,0 +1,396 @@
+package com.madeeasy.service.impl;
+
+import com.itextpdf.text.DocumentException;
+import com.madeeasy.analytics.ExpenseLedger;
+import com.madeeasy.config.MonthEndReportProperties;
+import com.madeeasy.dto.response.MonthEndReportResponse;
+import com.madeeasy.entity.Expense;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.entity.MonthEndReport;
+import com.madeeasy.entity.MonthEndReportStatus;
+import com.madeeasy.entity.MonthEndTenant;
+import com.madeeasy.entity.MonthEndTenantStatus;
+import com.madeeasy.exception.ClientException;
+import com.madeeasy.repository.ExpenseFilter;
+import com.madeeasy.repository.ExpenseMonthlyRollupRepository;
+import com.madeeasy.repository.ExpenseRepository;
+import com.madeeasy.repository.MonthEndReportRepository;
+import com.madeeasy.repository.MonthEndTenantRepository;
+import com.madeeasy.security.TenantGuard;
+import com.madeeasy.service.MonthEndReportService;
+import com.madeeasy.util.InvoicePdfWriter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Month-end report across every company. Companies are processed on virtual threads, at most
+ * {@code max-concurrent-tenants} at a time so the report never holds more DB connections than that.
+ * Each company's rows of the year so far are streamed once to produce its monthly trend, the report
+ * month's category breakdown and its invoice together. A company's files are moved into place before
+ * it is marked completed, so a report interrupted by a crash resumes with the companies left over.
+ * Every company gets its own archive, and a caller only ever downloads the archive of their own company.
+ */
+@Slf4j
+@Service
+public class MonthEndReportServiceImpl implements MonthEndReportService {
+
+    private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+    private static final String TRENDS_FILE = "trends.csv";
+    private static final String BREAKDOWN_FILE = "breakdown.csv";
+    private static final String INVOICE_FILE = "invoice.pdf";
+    private static final String SUMMARY_FILE = "summary.csv";
+
+    private final MonthEndReportRepository monthEndReportRepository;
+    private final MonthEndTenantRepository monthEndTenantRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseMonthlyRollupRepository expenseMonthlyRollupRepository;
+    private final EntityManager entityManager;
+    private final TenantGuard tenantGuard;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore connections;
+    private final Path storageDir;
+    // Reports whose run is in progress on this instance
+    private final Set<String> runningReports = ConcurrentHashMap.newKeySet();
+
+    public MonthEndReportServiceImpl(MonthEndReportRepository monthEndReportRepository,
+                                     MonthEndTenantRepository monthEndTenantRepository,
+                                     ExpenseRepository expenseRepository,
+                                     ExpenseMonthlyRollupRepository expenseMonthlyRollupRepository,
+                                     EntityManager entityManager,
+                                     TenantGuard tenantGuard,
+                                     PlatformTransactionManager transactionManager,
+                                     MonthEndReportProperties properties) throws IOException {
+        this.monthEndReportRepository = monthEndReportRepository;
+        this.monthEndTenantRepository = monthEndTenantRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseMonthlyRollupRepository = expenseMonthlyRollupRepository;
+        this.entityManager = entityManager;
+        this.tenantGuard = tenantGuard;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.connections = new Semaphore(properties.getMaxConcurrentTenants());
+        this.storageDir = Files.createDirectories(Path.of(properties.getStorageDir()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedReports() {
+        for (MonthEndReport report : monthEndReportRepository.findByStatus(MonthEndReportStatus.RUNNING)) {
+            log.info("Resuming month-end report {} of {}-{}", report.getId(), report.getYear(), report.getMonth());
+            launch(report);
+        }
+    }
+
+    @Override
+    public synchronized MonthEndReportResponse startReport(Integer year, Integer month) {
+        if (year == null || month == null || month < 1 || month > 12) {
+            throw new ClientException("A year and a month between 1 and 12 are required.", HttpStatus.BAD_REQUEST);
+        }
+        if (YearMonth.of(year, month).isAfter(YearMonth.now())) {
+            throw new ClientException("A month-end report cannot be run for a future month.", HttpStatus.BAD_REQUEST);
+        }
+        MonthEndReport running = monthEndReportRepository.findFirstByYearAndMonthAndStatus(year, month, MonthEndReportStatus.RUNNING).orElse(null);
+        if (running != null) {
+            return toResponse(running);
+        }
+
+        List<String> companyDomains = expenseMonthlyRollupRepository.findDistinctCompanyDomains();
+        MonthEndReport report = monthEndReportRepository.save(MonthEndReport.builder()
+                .id(UUID.randomUUID().toString())
+                .year(year)
+                .month(month)
+                .status(MonthEndReportStatus.RUNNING)
+                .totalTenants(companyDomains.size())
+                .createdAt(LocalDateTime.now())
+                .build());
+        monthEndTenantRepository.saveAll(companyDomains.stream()
+                .map(companyDomain -> MonthEndTenant.builder()
+                        .reportId(report.getId())
+                        .companyDomain(companyDomain)
+                        .status(MonthEndTenantStatus.PENDING)
+                        .build())
+                .toList());
+        launch(report);
+        return toResponse(report);
+    }
+
+    @Override
+    public MonthEndReportResponse getReport(String reportId) {
+        return toResponse(findReport(reportId));
+    }
+
+    @Override
+    public synchronized MonthEndReportResponse resumeReport(String reportId) {
+        MonthEndReport report = findReport(reportId);
+        if (report.getStatus() != MonthEndReportStatus.FAILED) {
+            throw new ClientException("Month-end report is " + report.getStatus().name().toLowerCase() + ", only a failed report can be resumed.", HttpStatus.CONFLICT);
+        }
+        monthEndTenantRepository.resetFailed(reportId);
+        report.setStatus(MonthEndReportStatus.RUNNING);
+        report.setError(null);
+        report.setCompletedAt(null);
+        launch(monthEndReportRepository.save(report));
+        return toResponse(report);
+    }
+
+    @Override
+    public Path getReportArchive(String reportId) {
+        String companyDomain = tenantGuard.callerCompanyDomain();
+        MonthEndReport report = findReport(reportId);
+        if (report.getStatus() != MonthEndReportStatus.COMPLETED) {
+            throw new ClientException("Month-end report is " + report.getStatus().name().toLowerCase() + ", no archive to download.", HttpStatus.CONFLICT);
+        }
+        Path archives = archivesOf(reportId);
+        if (!Files.isDirectory(archives)) {
+            throw new ClientException("Archives of month-end report " + reportId + " are no longer available.", HttpStatus.GONE);
+        }
+        Path archive = archives.resolve(directoryOf(companyDomain) + ".zip");
+        if (!Files.exists(archive)) {
+            throw new ClientException("Month-end report " + reportId + " has no data of company " + companyDomain + ".", HttpStatus.NOT_FOUND);
+        }
+        return archive;
+    }
+
+    private void launch(MonthEndReport report) {
+        if (!runningReports.add(report.getId())) {
+            return;
+        }
+        Thread.ofVirtual().name("month-end-" + report.getId()).start(() -> {
+            try {
+                run(report);
+            } finally {
+                runningReports.remove(report.getId());
+            }
+        });
+    }
+
+    private void run(MonthEndReport report) {
+        try {
+            Path workDir = Files.createDirectories(storageDir.resolve(report.getId()));
+            List<MonthEndTenant> tenants = monthEndTenantRepository.findByReportIdAndStatusNot(report.getId(), MonthEndTenantStatus.COMPLETED);
+            log.info("Month-end report {}: {} of {} companies to process", report.getId(), tenants.size(), report.getTotalTenants());
+
+            // One virtual thread per company, the semaphore bounds how many of them hold a connection
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (MonthEndTenant tenant : tenants) {
+                    executor.execute(() -> processTenant(report, tenant, workDir));
+                }
+            }
+
+            long failed = monthEndTenantRepository.countByReportIdAndStatus(report.getId(), MonthEndTenantStatus.FAILED);
+            if (failed > 0) {
+                report.setStatus(MonthEndReportStatus.FAILED);
+                report.setError(failed + " companies failed, resume the report to retry them");
+            } else {
+                report.setFileSize(writeArchives(report, workDir));
+                report.setStatus(MonthEndReportStatus.COMPLETED);
+                deleteRecursively(workDir);
+            }
+        } catch (Exception e) {
+            log.error("Month-end report {} failed: {}", report.getId(), e.getMessage(), e);
+            report.setStatus(MonthEndReportStatus.FAILED);
+            report.setError(truncate(e.getMessage()));
+        } finally {
+            report.setCompletedAt(LocalDateTime.now());
+            monthEndReportRepository.save(report);
+            log.info("Month-end report {} finished as {}", report.getId(), report.getStatus());
+        }
+    }
+
+    private void processTenant(MonthEndReport report, MonthEndTenant tenant, Path workDir) {
+        connections.acquireUninterruptibly();
+        try {
+            Path tenantDir = workDir.resolve(directoryOf(tenant.getCompanyDomain()));
+            Path partDir = workDir.resolve(directoryOf(tenant.getCompanyDomain()) + ".part");
+            try {
+                // Written to a part directory first, so a crash never leaves a company half-written
+                deleteRecursively(partDir);
+                Files.createDirectories(partDir);
+                TenantTotals totals = readOnlyTransaction.execute(status ->
+                        writeTenantFiles(tenant.getCompanyDomain(), report.getYear(), report.getMonth(), partDir));
+                deleteRecursively(tenantDir);
+                Files.move(partDir, tenantDir, StandardCopyOption.ATOMIC_MOVE);
+
+                tenant.setStatus(MonthEndTenantStatus.COMPLETED);
+                tenant.setExpenseCount(totals.expenseCount());
+                tenant.setTotalAmount(totals.totalAmount());
+                tenant.setError(null);
+            } catch (Exception e) {
+                log.error("Month-end report {} failed for {}: {}", report.getId(), tenant.getCompanyDomain(), e.getMessage(), e);
+                tenant.setStatus(MonthEndTenantStatus.FAILED);
+                tenant.setError(truncate(e.getMessage()));
+            }
+            tenant.setCompletedAt(LocalDateTime.now());
+            monthEndTenantRepository.save(tenant);
+        } finally {
+            connections.release();
+        }
+    }
+
+    // Streams the company's expenses from January to the report month once, runs in a read-only transaction
+    private TenantTotals writeTenantFiles(String companyDomain, int year, int month, Path dir) {
+        long[] monthCents = new long[month];
+        long[] monthCounts = new long[month];
+        long[] categoryCents = new long[CATEGORIES.length];
+        long[] categoryCounts = new long[CATEGORIES.length];
+
+        ExpenseFilter filter = new ExpenseFilter(companyDomain, year, year, 1, month, null);
+        try (Stream<Expense> expenses = expenseRepository.streamExpensesWithFilters(filter);
+             OutputStream pdf = new BufferedOutputStream(Files.newOutputStream(dir.resolve(INVOICE_FILE)))) {
+            InvoicePdfWriter invoice = new InvoicePdfWriter(pdf);
+            Iterator<Expense> iterator = expenses.iterator();
+            while (iterator.hasNext()) {
+                Expense expense = iterator.next();
+                int expenseMonth = expense.getExpenseDate().getMonthValue();
+                long cents = ExpenseLedger.toCents(expense.getAmount());
+                monthCents[expenseMonth - 1] += cents;
+                monthCounts[expenseMonth - 1]++;
+                if (expenseMonth == month) {
+                    int category = expense.getCategory().ordinal();
+                    categoryCents[category] += cents;
+                    categoryCounts[category]++;
+                    invoice.addRow(expense);
+                }
+                entityManager.detach(expense); // Keep the persistence context from growing with the result set
+            }
+            invoice.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Failed to render the invoice of " + companyDomain, e);
+        }
+
+        try (Writer trends = Files.newBufferedWriter(dir.resolve(TRENDS_FILE), StandardCharsets.UTF_8);
+             Writer breakdown = Files.newBufferedWriter(dir.resolve(BREAKDOWN_FILE), StandardCharsets.UTF_8)) {
+            trends.write("year,month,totalAmount,expenseCount\n");
+            for (int m = 0; m < month; m++) {
+                trends.write(year + "," + (m + 1) + "," + BigDecimal.valueOf(monthCents[m], 2) + "," + monthCounts[m] + "\n");
+            }
+            breakdown.write("category,totalAmount,expenseCount\n");
+            for (ExpenseCategory category : CATEGORIES) {
+                breakdown.write(category.name() + "," + BigDecimal.valueOf(categoryCents[category.ordinal()], 2) + "," + categoryCounts[category.ordinal()] + "\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new TenantTotals(monthCounts[month - 1], BigDecimal.valueOf(monthCents[month - 1], 2));
+    }
+
+    // One archive per company with its summary line and its files, returns the total size of the archives
+    private long writeArchives(MonthEndReport report, Path workDir) throws IOException {
+        Path archives = archivesOf(report.getId());
+        Path partDir = storageDir.resolve(report.getId() + "-archives.part");
+        deleteRecursively(partDir);
+        Files.createDirectories(partDir);
+        long totalSize = 0;
+        for (MonthEndTenant tenant : monthEndTenantRepository.findByReportIdOrderByCompanyDomain(report.getId())) {
+            String directory = directoryOf(tenant.getCompanyDomain());
+            Path archive = partDir.resolve(directory + ".zip");
+            try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archive)))) {
+                zip.putNextEntry(new ZipEntry(SUMMARY_FILE));
+                Writer summary = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8)); // Not closed, that would close the zip
+                summary.write("companyDomain,expenseCount,totalAmount\n");
+                summary.write(tenant.getCompanyDomain() + "," + tenant.getExpenseCount() + "," + tenant.getTotalAmount() + "\n");
+                summary.flush();
+                zip.closeEntry();
+
+                for (String file : List.of(TRENDS_FILE, BREAKDOWN_FILE, INVOICE_FILE)) {
+                    zip.putNextEntry(new ZipEntry(file));
+                    Files.copy(workDir.resolve(directory).resolve(file), zip);
+                    zip.closeEntry();
+                }
+            }
+            totalSize += Files.size(archive);
+        }
+        // Moved in one step, so a download never sees the archives of a report only partly written
+        deleteRecursively(archives);
+        Files.move(partDir, archives, StandardCopyOption.ATOMIC_MOVE);
+        return totalSize;
+    }
+
+    private MonthEndReport findReport(String reportId) {
+        return monthEndReportRepository.findById(reportId)
+                .orElseThrow(() -> new ClientException("Month-end report not found with id : " + reportId, HttpStatus.NOT_FOUND));
+    }
+
+    private Path archivesOf(String reportId) {
+        return storageDir.resolve(reportId + "-archives");
+    }
+
+    private MonthEndReportResponse toResponse(MonthEndReport report) {
+        return MonthEndReportResponse.builder()
+                .reportId(report.getId())
+                .year(report.getYear())
+                .month(report.getMonth())
+                .status(report.getStatus())
+                .totalTenants(report.getTotalTenants())
+                .completedTenants(monthEndTenantRepository.countByReportIdAndStatus(report.getId(), MonthEndTenantStatus.COMPLETED))
+                .failedTenants(monthEndTenantRepository.countByReportIdAndStatus(report.getId(), MonthEndTenantStatus.FAILED))
+                .createdAt(report.getCreatedAt())
+                .completedAt(report.getCompletedAt())
+                .fileSize(report.getFileSize())
+                .error(report.getError())
+                .downloadUrl(report.getStatus() == MonthEndReportStatus.COMPLETED
+                        ? "/expense-service/month-end-reports/" + report.getId() + "/download" : null)
+                .build();
+    }
+
+    // Company domains are used as folder names, anything that is not a plain name character is replaced
+    private static String directoryOf(String companyDomain) {
+        String directory = companyDomain.replaceAll("[^A-Za-z0-9._-]", "_");
+        return directory.startsWith(".") ? "_" + directory : directory;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "Month-end report failed";
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private record TenantTotals(long expenseCount, BigDecimal totalAmount) {
+    }
+}
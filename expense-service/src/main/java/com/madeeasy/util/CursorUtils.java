@@ -0,0 +1,39 @@
+package com.madeeasy.util;
+
+import com.madeeasy.exception.ClientException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque keyset cursor used for expense listing.
+ * The cursor carries the (expenseDate, id) of the last row of a page.
+ */
+public class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+
+    public record Cursor(LocalDateTime expenseDate, Long id) {
+    }
+
+    public static String encode(LocalDateTime expenseDate, Long id) {
+        String raw = expenseDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index < 0) {
+                throw new IllegalArgumentException("Missing separator");
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, index)), Long.parseLong(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ClientException("Invalid cursor provided", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
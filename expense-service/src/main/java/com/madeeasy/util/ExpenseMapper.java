@@ -0,0 +1,72 @@
+package com.madeeasy.util;
+
+import com.madeeasy.dto.response.ExpenseCategoryBreakdown;
+import com.madeeasy.dto.response.ExpenseResponseDTO;
+import com.madeeasy.dto.response.ExpenseTrend;
+import com.madeeasy.entity.Expense;
+import com.madeeasy.entity.ExpenseCategory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversions from entities and aggregate query rows to response DTOs.
+ * Kept free of Spring so that the benchmarks module can measure them in isolation.
+ */
+public class ExpenseMapper {
+
+    public static ExpenseResponseDTO toResponse(Expense expense) {
+        return ExpenseResponseDTO.builder()
+                .id(expense.getId())
+                .employeeId(expense.getEmployeeId())
+                .companyDomain(expense.getCompanyDomain())
+                .title(expense.getTitle())
+                .description(expense.getDescription())
+                .amount(expense.getAmount())
+                .category(expense.getCategory())
+                .expenseDate(expense.getExpenseDate())
+                .status(expense.getStatus())
+                .approvalLevel(expense.getApprovalLevel())
+                .overBudget(expense.getOverBudget())
+                .build();
+    }
+
+    // Rows of [year, month, totalAmount]
+    public static List<ExpenseTrend> toMonthlyTrends(List<Object[]> results) {
+        List<ExpenseTrend> trends = new ArrayList<>(results.size());
+        for (Object[] result : results) {
+            int year = ((Number) result[0]).intValue();
+            int month = ((Number) result[1]).intValue();
+            BigDecimal totalAmount = (BigDecimal) result[2];
+
+            trends.add(ExpenseTrend.builder().month(month).year(year).totalAmount(totalAmount).build());
+        }
+        return trends;
+    }
+
+    // Rows of [year, totalAmount]
+    public static List<ExpenseTrend> toYearlyTrends(List<Object[]> results) {
+        List<ExpenseTrend> trends = new ArrayList<>(results.size());
+        for (Object[] result : results) {
+            int year = ((Number) result[0]).intValue();
+            BigDecimal totalAmount = (BigDecimal) result[1];
+            trends.add(ExpenseTrend.builder().year(year).totalAmount(totalAmount).build());
+        }
+        return trends;
+    }
+
+    // Rows of [month, year, category, totalAmount]
+    public static List<ExpenseCategoryBreakdown> toCategoryBreakdown(List<Object[]> results) {
+        List<ExpenseCategoryBreakdown> breakdown = new ArrayList<>(results.size());
+        for (Object[] result : results) {
+            int month = ((Number) result[0]).intValue();
+            int year = ((Number) result[1]).intValue();
+            ExpenseCategory categoryName = (ExpenseCategory) result[2];
+            BigDecimal totalAmount = (BigDecimal) result[3];
+
+            breakdown.add(ExpenseCategoryBreakdown.builder().month(month).year(year).category(categoryName).totalAmount(totalAmount).build());
+        }
+        return breakdown;
+    }
+}
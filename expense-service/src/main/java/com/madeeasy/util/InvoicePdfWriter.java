@@ -0,0 +1,110 @@
+package com.madeeasy.util;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.madeeasy.entity.Expense;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Expense invoice PDF written row by row. Completed rows are flushed to the output stream in chunks,
+ * so memory stays flat whatever the row count. Kept free of Spring like {@link ExpenseMapper}.
+ */
+public class InvoicePdfWriter {
+
+    private static final int FLUSH_ROWS = 200;
+    private static final BaseColor EVEN_ROW_COLOR = new BaseColor(245, 245, 245);
+    private static final BaseColor ODD_ROW_COLOR = new BaseColor(255, 255, 255);
+
+    private final OutputStream outputStream;
+    private final Document document = new Document();
+    private final PdfPTable table;
+    private boolean isEvenRow = true;
+    private int pendingRows;
+
+    public InvoicePdfWriter(OutputStream outputStream) throws DocumentException {
+        this.outputStream = outputStream;
+        PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+        writer.setCloseStream(false); // The caller owns the output stream
+        document.open();
+
+        // **Invoice Header**
+        Font titleFont = new Font(FontFactory.getFont(FontFactory.HELVETICA_BOLD).getFamily(), 18, Font.NORMAL, new BaseColor(33, 150, 243)); // Tech-friendly blue color
+        Paragraph title = new Paragraph("Expense Invoice", titleFont);
+        title.setAlignment(Element.ALIGN_CENTER);
+        title.setSpacingAfter(20);  // Adding space after the title
+        document.add(title);
+
+        // **Generated On Line**
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        Font generatedOnFont = new Font(FontFactory.getFont(FontFactory.HELVETICA).getFamily(), 12, Font.NORMAL, new BaseColor(0, 150, 136)); // Tech green color
+        Paragraph generatedOn = new Paragraph("Generated on: " + LocalDateTime.now().format(formatter), generatedOnFont);
+        generatedOn.setAlignment(Element.ALIGN_LEFT);
+        generatedOn.setSpacingAfter(20);  // Adding space after the "Generated on"
+        document.add(generatedOn);
+
+        // **Create Table for Expenses**
+        table = new PdfPTable(6);
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(10f);
+        table.setSpacingAfter(10f);
+        table.setHeaderRows(1); // Header is kept and repeated on every page while chunks are flushed
+        table.setComplete(false);
+
+        // **Define Column Headers**
+        String[] headers = {"Expense ID", "Title", "Description", "Amount ($)", "Category", "Date"};
+        for (String header : headers) {
+            PdfPCell headerCell = new PdfPCell(new Phrase(header));
+            headerCell.setBackgroundColor(new BaseColor(184, 218, 255));  // Light blue header color
+            headerCell.setPadding(5);
+            table.addCell(headerCell);
+        }
+    }
+
+    // Adds one row, with alternating row colors
+    public void addRow(Expense expense) throws DocumentException, IOException {
+        BaseColor rowColor = isEvenRow ? EVEN_ROW_COLOR : ODD_ROW_COLOR;
+        table.addCell(createStyledCell(String.valueOf(expense.getId()), rowColor));
+        table.addCell(createStyledCell(expense.getTitle(), rowColor));
+        table.addCell(createStyledCell(expense.getDescription(), rowColor));
+        table.addCell(createStyledCell("$" + expense.getAmount(), rowColor));
+        table.addCell(createStyledCell(expense.getCategory().toString(), rowColor));
+        table.addCell(createStyledCell(expense.getExpenseDate().toString(), rowColor));
+        isEvenRow = !isEvenRow;
+
+        // Flush completed rows to the output stream, iText drops them from the table afterward
+        if (++pendingRows == FLUSH_ROWS) {
+            document.add(table);
+            outputStream.flush();
+            pendingRows = 0;
+        }
+    }
+
+    // Writes the remaining rows and closes the document, the output stream stays open
+    public void finish() throws DocumentException, IOException {
+        table.setComplete(true);
+        document.add(table);
+        document.close();
+        outputStream.flush();
+    }
+
+    // Helper method to create a styled cell
+    private static PdfPCell createStyledCell(String content, BaseColor rowColor) {
+        PdfPCell cell = new PdfPCell(new Phrase(content));
+        cell.setBackgroundColor(rowColor);
+        cell.setPadding(5);
+        return cell;
+    }
+}
@@ -118,4 +118,10 @@ public class JwtUtils {
             return null;
         }
     }
+
+    // Company the user belonged to when signing in, null for tokens issued before joining a company
+    public String getCompanyDomainFromToken(String token) {
+        Object companyDomain = getAllClaims(token).get("companyDomain");
+        return companyDomain instanceof String ? (String) companyDomain : null;
+    }
 }
@@ -0,0 +1,14 @@
+package com.madeeasy.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApprovalBatchResponse {
+    private List<Long> failedExpenseIds;
+}
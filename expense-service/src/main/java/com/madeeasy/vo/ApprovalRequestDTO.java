@@ -18,6 +18,8 @@ public class ApprovalRequestDTO {
     @NotNull(message = "Expense ID is required")
     private Long expenseId;
 
+    private String submittedBy; // Email of the employee who submitted the expense
+
     @NotNull(message = "Company domain is required")
     private String companyDomain;
 
@@ -37,4 +39,6 @@ public class ApprovalRequestDTO {
     @NotNull(message = "Expense date is required")
     @PastOrPresent(message = "Expense date cannot be in the future")
     private LocalDateTime expenseDate; // Employee-provided date
+
+    private Boolean overBudget; // Over the company's category budget, never auto-approved
 }
@@ -1,8 +1,13 @@
 package com.madeeasy.vo;
 
+import com.madeeasy.entity.BudgetPolicy;
+import com.madeeasy.entity.ExpenseCategory;
 import lombok.Builder;
 import lombok.Data;
 
+import java.math.BigDecimal;
+import java.util.Map;
+
 @Data
 @Builder
 public class CompanyResponseDTO {
@@ -10,4 +15,6 @@ public class CompanyResponseDTO {
     private String name;
     private String domain;
     private Double autoApproveThreshold;
+    private Map<ExpenseCategory, BigDecimal> categoryBudgets; // Monthly limit per category, categories without one are unlimited
+    private BudgetPolicy budgetPolicy;
 }
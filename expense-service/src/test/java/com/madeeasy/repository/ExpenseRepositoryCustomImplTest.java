@@ -0,0 +1,259 @@
+package com.madeeasy.repository;
+
+import com.madeeasy.entity.Expense;
+import com.madeeasy.entity.ExpenseCategory;
+import com.madeeasy.exception.ClientException;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that the filtered expense queries are index range scans on H2, and the period the filters select.
+ * The plans come from EXPLAIN on the SQL Hibernate actually generated for the query. The shared expenses are
+ * committed once for the class, so ANALYZE can see them, and deleted afterwards; every test rolls back its own rows.
+ */
+@DataJpaTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExpenseRepositoryCustomImplTest {
+
+    private static final String COMPANY = "acme.com";
+    private static final String OTHER_COMPANY = "globex.com";
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        // Two years of expenses of a few companies, so the planner has statistics to choose an index with
+        List<Expense> expenses = new ArrayList<>();
+        for (String companyDomain : List.of(COMPANY, OTHER_COMPANY, "initech.com", "umbrella.com")) {
+            for (int month = 0; month < 24; month++) {
+                for (ExpenseCategory category : ExpenseCategory.values()) {
+                    expenses.add(expense(companyDomain, category, LocalDateTime.of(2021, 1, 10, 12, 0).plusMonths(month)));
+                }
+            }
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> expenseRepository.saveAll(expenses));
+        // Outside of any test transaction, so the statistics are collected without committing a test's rows
+        try (Connection connection = dataSource.getConnection();
+             Statement analyze = connection.createStatement()) {
+            analyze.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> expenseRepository.deleteAllInBatch());
+    }
+
+    @BeforeEach
+    void clearCapturedSql() {
+        sqlCapture.clear();
+    }
+
+    @Test
+    void yearBoundedFilterIsARangeOnTheCompanyDateIndex() throws SQLException {
+        ExpenseFilter filter = new ExpenseFilter(COMPANY, 2021, 2022, 3, 8, null);
+
+        expenseRepository.findExpensesWithFilters(filter);
+        String sql = sqlCapture.lastSelect();
+
+        assertThat(sql)
+                .containsPattern("expense_date\\s*>=\\s*\\?")
+                .containsPattern("expense_date\\s*<\\s*\\?")
+                .doesNotContainPattern("expense_date\\s*<=")
+                .doesNotContainIgnoringCase("extract(")
+                .doesNotContainIgnoringCase("is null");
+        assertThat(explain(sql, COMPANY, filter.from(), filter.to()))
+                .containsIgnoringCase("idx_expense_company_date")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void categoryFilterIsARangeOnTheCompanyCategoryDateIndex() throws SQLException {
+        ExpenseFilter filter = new ExpenseFilter(COMPANY, 2021, 2021, null, null, ExpenseCategory.TRAVEL);
+
+        expenseRepository.findExpensesWithFilters(filter);
+        String sql = sqlCapture.lastSelect();
+
+        assertThat(sql)
+                .containsPattern("expense_date\\s*>=\\s*\\?")
+                .containsPattern("expense_date\\s*<\\s*\\?")
+                .doesNotContainIgnoringCase("extract(");
+        assertThat(explain(sql, COMPANY, ExpenseCategory.TRAVEL.name(), filter.from(), filter.to()))
+                .containsIgnoringCase("idx_expense_company_category_date")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void yearAndMonthBoundsSelectOneContinuousPeriod() {
+        persist(COMPANY, ExpenseCategory.FOOD, LocalDateTime.of(2023, 10, 31, 23, 59, 59));
+        persist(COMPANY, ExpenseCategory.FOOD, LocalDateTime.of(2023, 11, 1, 0, 0));
+        persist(COMPANY, ExpenseCategory.FOOD, LocalDateTime.of(2023, 12, 15, 9, 30));
+        persist(COMPANY, ExpenseCategory.FOOD, LocalDateTime.of(2024, 2, 29, 23, 59, 59));
+        persist(COMPANY, ExpenseCategory.FOOD, LocalDateTime.of(2024, 3, 1, 0, 0));
+        persist(COMPANY, ExpenseCategory.FOOD, LocalDateTime.of(2024, 11, 15, 9, 30));
+        persist(OTHER_COMPANY, ExpenseCategory.FOOD, LocalDateTime.of(2023, 12, 15, 9, 30));
+        testEntityManager.flush();
+
+        // November 2023 up to and including February 2024, not November to February of every year
+        ExpenseFilter filter = new ExpenseFilter(COMPANY, 2023, 2024, 11, 2, null);
+        assertThat(filter.from()).isEqualTo(LocalDateTime.of(2023, 11, 1, 0, 0));
+        assertThat(filter.to()).isEqualTo(LocalDateTime.of(2024, 3, 1, 0, 0));
+
+        assertThat(expenseRepository.findExpensesWithFilters(filter))
+                .extracting(Expense::getExpenseDate)
+                .containsExactlyInAnyOrder(
+                        LocalDateTime.of(2023, 11, 1, 0, 0),
+                        LocalDateTime.of(2023, 12, 15, 9, 30),
+                        LocalDateTime.of(2024, 2, 29, 23, 59, 59));
+    }
+
+    @Test
+    void yearWithoutMonthsCoversTheWholeYear() {
+        ExpenseFilter filter = new ExpenseFilter(COMPANY, 2022, 2022, null, null, null);
+
+        assertThat(filter.from()).isEqualTo(LocalDateTime.of(2022, 1, 1, 0, 0));
+        assertThat(filter.to()).isEqualTo(LocalDateTime.of(2023, 1, 1, 0, 0));
+        assertThat(expenseRepository.findExpensesWithFilters(filter))
+                .hasSize(12 * ExpenseCategory.values().length)
+                .allSatisfy(expense -> assertThat(expense.getExpenseDate().getYear()).isEqualTo(2022));
+    }
+
+    @Test
+    void monthsWithoutYearsStayAMonthOfYearFilter() {
+        ExpenseFilter filter = new ExpenseFilter(COMPANY, null, null, 3, 4, null);
+
+        List<Expense> expenses = expenseRepository.findExpensesWithFilters(filter);
+
+        assertThat(filter.from()).isNull();
+        assertThat(filter.to()).isNull();
+        assertThat(sqlCapture.lastSelect()).containsIgnoringCase("extract(");
+        assertThat(expenses)
+                .hasSize(2 * 2 * ExpenseCategory.values().length)
+                .allSatisfy(expense -> assertThat(expense.getExpenseDate().getMonthValue()).isBetween(3, 4));
+    }
+
+    @Test
+    void monthOutOfRangeIsRejected() {
+        assertThatThrownBy(() -> new ExpenseFilter(COMPANY, 2024, 2024, 13, null, null))
+                .isInstanceOf(ClientException.class);
+        assertThatThrownBy(() -> new ExpenseFilter(COMPANY, 2024, 2024, null, 0, null))
+                .isInstanceOf(ClientException.class);
+    }
+
+    private void persist(String companyDomain, ExpenseCategory category, LocalDateTime expenseDate) {
+        testEntityManager.persist(expense(companyDomain, category, expenseDate));
+    }
+
+    private static Expense expense(String companyDomain, ExpenseCategory category, LocalDateTime expenseDate) {
+        Expense expense = new Expense();
+        expense.setEmployeeId(1L);
+        expense.setCompanyDomain(companyDomain);
+        expense.setTitle("Expense");
+        expense.setDescription("Expense of " + expenseDate);
+        expense.setAmount(new BigDecimal("100.00"));
+        expense.setCategory(category);
+        expense.setExpenseDate(expenseDate);
+        expense.setSubmissionDate(expenseDate);
+        return expense;
+    }
+
+    // Plan of the statement on the test transaction's connection, with the statistics collected for the seeded expenses
+    private String explain(String sql, Object... parameters) throws SQLException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+                return plan.toString();
+            }
+        }
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Expense.class)
+    @EnableJpaRepositories(basePackageClasses = ExpenseRepository.class)
+    static class TestConfig {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlCaptureCustomizer(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+
+    // Records every statement Hibernate sends, so the test can EXPLAIN exactly the generated SQL
+    static class SqlCapture implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        String lastSelect() {
+            return statements.reversed().stream()
+                    .filter(sql -> sql.stripLeading().toLowerCase().startsWith("select") && sql.toLowerCase().contains(" from expense "))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("No expense query was executed"));
+        }
+    }
+}
@@ -2,20 +2,29 @@ package com.madeeasy.controller;
 
 import com.madeeasy.request.ApprovalRequestDTO;
 import com.madeeasy.service.NotificationService;
+import com.madeeasy.vo.NotificationFailure;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+@Slf4j
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/notification-service")
@@ -26,6 +35,7 @@ import java.nio.charset.StandardCharsets;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final Validator validator;
 
     @Operation(
             summary = "Send Approval Notification",
@@ -39,6 +49,55 @@ public class NotificationController {
     )
     @PostMapping(path = "/")
     public ResponseEntity<?> approveExpenseTest(@Valid @RequestBody ApprovalRequestDTO approvalRequestDTO) {
+        sendNotification(approvalRequestDTO);
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(
+            summary = "Send Approval Notifications in Batch",
+            description = "Sends one approval email per request and reports the requests that were invalid or could not be sent, by their index in the batch. Used by approval-service to drain its dispatch queue.",
+            security = @SecurityRequirement(name = "Bearer Authentication"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed; the body lists the failed requests, empty when all were sent"),
+                    @ApiResponse(responseCode = "400", description = "Invalid request format", content = @Content)
+            }
+    )
+    @PostMapping(path = "/batch")
+    public ResponseEntity<List<NotificationFailure>> sendBatch(@RequestBody List<ApprovalRequestDTO> approvalRequests) {
+        List<NotificationFailure> failures = new ArrayList<>();
+        for (int index = 0; index < approvalRequests.size(); index++) {
+            // Requests are validated one by one, an invalid request is reported without failing the whole batch
+            ApprovalRequestDTO approvalRequest = approvalRequests.get(index);
+            String error = validationError(approvalRequest);
+            if (error != null) {
+                log.warn("Invalid notification {} of the batch: {}", index, error);
+                failures.add(new NotificationFailure(index, error));
+                continue;
+            }
+            // A failed request must not stop the rest of the batch, approval-service retries it on its own
+            try {
+                sendNotification(approvalRequest);
+            } catch (Exception e) {
+                log.error("Failed to send notification {} of the batch: {}", index, e.getMessage());
+                failures.add(new NotificationFailure(index, e.getMessage()));
+            }
+        }
+        return ResponseEntity.ok(failures);
+    }
+
+    // Violated constraints of the request, null when it is valid
+    private String validationError(ApprovalRequestDTO approvalRequest) {
+        if (approvalRequest == null) {
+            return "Request is required";
+        }
+        Set<ConstraintViolation<ApprovalRequestDTO>> violations = validator.validate(approvalRequest);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+    }
+
+    private void sendNotification(ApprovalRequestDTO approvalRequestDTO) {
         String expenseDetails = approvalRequestDTO.getExpenseDetails();
 
         // Extract expense details
@@ -81,7 +140,5 @@ public class NotificationController {
 
         // Call service to send email notification
         notificationService.sendApprovalNotification(expenseId, title, description, amount, category, expenseDate, emailId, approveLink, rejectLink);
-
-        return ResponseEntity.ok().build();
     }
 }
@@ -1,13 +1,17 @@
 package com.madeeasy.request;
 
+import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
 @Data
 public class ApprovalRequestDTO {
 
+    @NotBlank(message = "Expense details are required")
     private String expenseDetails;  // This will hold the concatenated expense details (as a string)
 
+    @NotBlank(message = "Approve link is required")
     private String approveLink;     // The approval link
+    @NotBlank(message = "Reject link is required")
     private String rejectLink;      // The rejection link
 
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.madeeasy.entity.Notification;
 import com.madeeasy.exception.ResourceAccessException;
 import com.madeeasy.repository.NotificationRepository;
+import com.madeeasy.security.config.InternalServiceProperties;
 import com.madeeasy.service.NotificationService;
 import com.madeeasy.vo.UserResponse;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -50,6 +51,7 @@ public class NotificationServiceImpl implements NotificationService {
     private final HttpServletResponse httpServletResponse;
     private final ObjectMapper objectMapper;
     private final NotificationRepository notificationRepository;
+    private final InternalServiceProperties internalServiceProperties;
 
     @CircuitBreaker(name = "notificationServiceCircuitBreaker", fallbackMethod = "circuitBreakerFallback")
     @Override
@@ -288,6 +290,11 @@ public class NotificationServiceImpl implements NotificationService {
 
     private HttpHeaders createHeaders(String accessToken) {
         HttpHeaders headers = new HttpHeaders();
+        if (accessToken == null) {
+            // Batches from approval-service come with the internal service credential instead of a user token
+            headers.set(InternalServiceProperties.HEADER, internalServiceProperties.getToken());
+            return headers;
+        }
         headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);  // Ensure 'Bearer' prefix
         return headers;
     }